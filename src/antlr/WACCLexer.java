@@ -0,0 +1,215 @@
+// Generated from ./WACCLexer.g4 by ANTLR 4.4
+package antlr;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.*;
+
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast"})
+public class WACCLexer extends Lexer {
+	static { RuntimeMetaData.checkVersion("4.4", RuntimeMetaData.VERSION); }
+
+	protected static final DFA[] _decisionToDFA;
+	protected static final PredictionContextCache _sharedContextCache =
+		new PredictionContextCache();
+	public static final int
+		BEGIN=1, END=2, IS=3, SKIP=4, READ=5, FREE=6, RETURN=7, EXIT=8, PRINT=9, 
+		PRINTLN=10, IF=11, THEN=12, ELSE=13, FI=14, WHILE=15, DO=16, DONE=17, 
+		NEW_PAIR=18, CALL=19, FST=20, SND=21, PAIR=22, NULL=23, BASE_TYPE=24, 
+		UNARY_OPER=25, MULT=26, DIV=27, MOD=28, PLUS=29, MINUS=30, GRT=31, GRT_EQUAL=32, 
+		LESS=33, LESS_EQUAL=34, EQUAL=35, NOT_EQUAL=36, AND=37, OR=38, OPEN_PARENTHESES=39, 
+		CLOSE_PARENTHESES=40, OPEN_SQUARE_BR=41, CLOSE_SQUARE_BR=42, ASSIGN=43, 
+		SEMICOLON=44, COMMA=45, QUOTE=46, DOUBLE_QUOTE=47, BOOL_LITER=48, IDENT=49, 
+		INT_LITER=50, CHAR_LITER=51, STR_LITER=52, COMMENT=53, WS=54;
+	public static String[] modeNames = {
+		"DEFAULT_MODE"
+	};
+
+	public static final String[] tokenNames = {
+		"'\\u0000'", "'\\u0001'", "'\\u0002'", "'\\u0003'", "'\\u0004'", "'\\u0005'", 
+		"'\\u0006'", "'\\u0007'", "'\b'", "'\t'", "'\n'", "'\\u000B'", "'\f'", 
+		"'\r'", "'\\u000E'", "'\\u000F'", "'\\u0010'", "'\\u0011'", "'\\u0012'", 
+		"'\\u0013'", "'\\u0014'", "'\\u0015'", "'\\u0016'", "'\\u0017'", "'\\u0018'", 
+		"'\\u0019'", "'\\u001A'", "'\\u001B'", "'\\u001C'", "'\\u001D'", "'\\u001E'", 
+		"'\\u001F'", "' '", "'!'", "'\"'", "'#'", "'$'", "'%'", "'&'", "'''", 
+		"'('", "')'", "'*'", "'+'", "','", "'-'", "'.'", "'/'", "'0'", "'1'", 
+		"'2'", "'3'", "'4'", "'5'", "'6'"
+	};
+	public static final String[] ruleNames = {
+		"BEGIN", "END", "IS", "SKIP", "READ", "FREE", "RETURN", "EXIT", "PRINT", 
+		"PRINTLN", "IF", "THEN", "ELSE", "FI", "WHILE", "DO", "DONE", "NEW_PAIR", 
+		"CALL", "FST", "SND", "PAIR", "NULL", "BASE_TYPE", "UNARY_OPER", "MULT", 
+		"DIV", "MOD", "PLUS", "MINUS", "GRT", "GRT_EQUAL", "LESS", "LESS_EQUAL", 
+		"EQUAL", "NOT_EQUAL", "AND", "OR", "OPEN_PARENTHESES", "CLOSE_PARENTHESES", 
+		"OPEN_SQUARE_BR", "CLOSE_SQUARE_BR", "ASSIGN", "SEMICOLON", "COMMA", "QUOTE", 
+		"DOUBLE_QUOTE", "BOOL_LITER", "IDENT", "IDENT_CHAR", "INT_LITER", "DIGIT", 
+		"INT_SIGN", "CHAR_LITER", "STR_LITER", "CHARACTER", "ESCAPED_CHAR", "COMMENT", 
+		"WS"
+	};
+
+
+	public WACCLexer(CharStream input) {
+		super(input);
+		_interp = new LexerATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
+	}
+
+	@Override
+	public String getGrammarFileName() { return "WACCLexer.g4"; }
+
+	@Override
+	public String[] getTokenNames() { return tokenNames; }
+
+	@Override
+	public String[] getRuleNames() { return ruleNames; }
+
+	@Override
+	public String getSerializedATN() { return _serializedATN; }
+
+	@Override
+	public String[] getModeNames() { return modeNames; }
+
+	@Override
+	public ATN getATN() { return _ATN; }
+
+	public static final String _serializedATN =
+		"\3\u0430\ud6d1\u8206\uad2d\u4417\uaef1\u8d80\uaadd\28\u0187\b\1\4\2\t"+
+		"\2\4\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13"+
+		"\t\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
+		"\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31\t\31"+
+		"\4\32\t\32\4\33\t\33\4\34\t\34\4\35\t\35\4\36\t\36\4\37\t\37\4 \t \4!"+
+		"\t!\4\"\t\"\4#\t#\4$\t$\4%\t%\4&\t&\4\'\t\'\4(\t(\4)\t)\4*\t*\4+\t+\4"+
+		",\t,\4-\t-\4.\t.\4/\t/\4\60\t\60\4\61\t\61\4\62\t\62\4\63\t\63\4\64\t"+
+		"\64\4\65\t\65\4\66\t\66\4\67\t\67\48\t8\49\t9\4:\t:\4;\t;\4<\t<\3\2\3"+
+		"\2\3\2\3\2\3\2\3\2\3\3\3\3\3\3\3\3\3\4\3\4\3\4\3\5\3\5\3\5\3\5\3\5\3\6"+
+		"\3\6\3\6\3\6\3\6\3\7\3\7\3\7\3\7\3\7\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\t\3"+
+		"\t\3\t\3\t\3\t\3\n\3\n\3\n\3\n\3\n\3\n\3\13\3\13\3\13\3\13\3\13\3\13\3"+
+		"\13\3\13\3\f\3\f\3\f\3\r\3\r\3\r\3\r\3\r\3\16\3\16\3\16\3\16\3\16\3\17"+
+		"\3\17\3\17\3\20\3\20\3\20\3\20\3\20\3\20\3\21\3\21\3\21\3\22\3\22\3\22"+
+		"\3\22\3\22\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\24\3\24\3\24\3\24"+
+		"\3\24\3\25\3\25\3\25\3\25\3\26\3\26\3\26\3\26\3\27\3\27\3\27\3\27\3\27"+
+		"\3\30\3\30\3\30\3\30\3\30\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31"+
+		"\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\5\31\u00fe\n\31\3\32\3\32\3\32"+
+		"\3\32\3\32\3\32\3\32\3\32\3\32\3\32\5\32\u010a\n\32\3\33\3\33\3\34\3\34"+
+		"\3\35\3\35\3\36\3\36\3\37\3\37\3 \3 \3!\3!\3!\3\"\3\"\3#\3#\3#\3$\3$\3"+
+		"$\3%\3%\3%\3&\3&\3&\3\'\3\'\3\'\3(\3(\3)\3)\3*\3*\3+\3+\3,\3,\3-\3-\3"+
+		".\3.\3/\3/\3\60\3\60\3\61\3\61\3\61\3\61\3\61\3\61\3\61\3\61\3\61\5\61"+
+		"\u0147\n\61\3\62\3\62\3\62\7\62\u014c\n\62\f\62\16\62\u014f\13\62\3\63"+
+		"\3\63\3\64\5\64\u0154\n\64\3\64\6\64\u0157\n\64\r\64\16\64\u0158\3\65"+
+		"\3\65\3\66\3\66\3\67\3\67\3\67\3\67\38\38\78\u0165\n8\f8\168\u0168\13"+
+		"8\38\38\39\39\39\59\u016f\n9\3:\3:\3;\3;\7;\u0175\n;\f;\16;\u0178\13;"+
+		"\3;\5;\u017b\n;\3;\3;\3;\3;\3<\6<\u0182\n<\r<\16<\u0183\3<\3<\2\2=\3\3"+
+		"\5\4\7\5\t\6\13\7\r\b\17\t\21\n\23\13\25\f\27\r\31\16\33\17\35\20\37\21"+
+		"!\22#\23%\24\'\25)\26+\27-\30/\31\61\32\63\33\65\34\67\359\36;\37= ?!"+
+		"A\"C#E$G%I&K\'M(O)Q*S+U,W-Y.[/]\60_\61a\62c\63e\2g\64i\2k\2m\65o\66q\2"+
+		"s\2u\67w8\3\2\t\5\2C\\aac|\3\2\62;\4\2--//\5\2$$))^^\13\2$$))\62\62^^"+
+		"ddhhppttvv\4\2\f\f\17\17\5\2\13\f\17\17\"\"\u0191\2\3\3\2\2\2\2\5\3\2"+
+		"\2\2\2\7\3\2\2\2\2\t\3\2\2\2\2\13\3\2\2\2\2\r\3\2\2\2\2\17\3\2\2\2\2\21"+
+		"\3\2\2\2\2\23\3\2\2\2\2\25\3\2\2\2\2\27\3\2\2\2\2\31\3\2\2\2\2\33\3\2"+
+		"\2\2\2\35\3\2\2\2\2\37\3\2\2\2\2!\3\2\2\2\2#\3\2\2\2\2%\3\2\2\2\2\'\3"+
+		"\2\2\2\2)\3\2\2\2\2+\3\2\2\2\2-\3\2\2\2\2/\3\2\2\2\2\61\3\2\2\2\2\63\3"+
+		"\2\2\2\2\65\3\2\2\2\2\67\3\2\2\2\29\3\2\2\2\2;\3\2\2\2\2=\3\2\2\2\2?\3"+
+		"\2\2\2\2A\3\2\2\2\2C\3\2\2\2\2E\3\2\2\2\2G\3\2\2\2\2I\3\2\2\2\2K\3\2\2"+
+		"\2\2M\3\2\2\2\2O\3\2\2\2\2Q\3\2\2\2\2S\3\2\2\2\2U\3\2\2\2\2W\3\2\2\2\2"+
+		"Y\3\2\2\2\2[\3\2\2\2\2]\3\2\2\2\2_\3\2\2\2\2a\3\2\2\2\2c\3\2\2\2\2g\3"+
+		"\2\2\2\2m\3\2\2\2\2o\3\2\2\2\2u\3\2\2\2\2w\3\2\2\2\3y\3\2\2\2\5\177\3"+
+		"\2\2\2\7\u0083\3\2\2\2\t\u0086\3\2\2\2\13\u008b\3\2\2\2\r\u0090\3\2\2"+
+		"\2\17\u0095\3\2\2\2\21\u009c\3\2\2\2\23\u00a1\3\2\2\2\25\u00a7\3\2\2\2"+
+		"\27\u00af\3\2\2\2\31\u00b2\3\2\2\2\33\u00b7\3\2\2\2\35\u00bc\3\2\2\2\37"+
+		"\u00bf\3\2\2\2!\u00c5\3\2\2\2#\u00c8\3\2\2\2%\u00cd\3\2\2\2\'\u00d5\3"+
+		"\2\2\2)\u00da\3\2\2\2+\u00de\3\2\2\2-\u00e2\3\2\2\2/\u00e7\3\2\2\2\61"+
+		"\u00fd\3\2\2\2\63\u0109\3\2\2\2\65\u010b\3\2\2\2\67\u010d\3\2\2\29\u010f"+
+		"\3\2\2\2;\u0111\3\2\2\2=\u0113\3\2\2\2?\u0115\3\2\2\2A\u0117\3\2\2\2C"+
+		"\u011a\3\2\2\2E\u011c\3\2\2\2G\u011f\3\2\2\2I\u0122\3\2\2\2K\u0125\3\2"+
+		"\2\2M\u0128\3\2\2\2O\u012b\3\2\2\2Q\u012d\3\2\2\2S\u012f\3\2\2\2U\u0131"+
+		"\3\2\2\2W\u0133\3\2\2\2Y\u0135\3\2\2\2[\u0137\3\2\2\2]\u0139\3\2\2\2_"+
+		"\u013b\3\2\2\2a\u0146\3\2\2\2c\u0148\3\2\2\2e\u0150\3\2\2\2g\u0153\3\2"+
+		"\2\2i\u015a\3\2\2\2k\u015c\3\2\2\2m\u015e\3\2\2\2o\u0162\3\2\2\2q\u016e"+
+		"\3\2\2\2s\u0170\3\2\2\2u\u0172\3\2\2\2w\u0181\3\2\2\2yz\7d\2\2z{\7g\2"+
+		"\2{|\7i\2\2|}\7k\2\2}~\7p\2\2~\4\3\2\2\2\177\u0080\7g\2\2\u0080\u0081"+
+		"\7p\2\2\u0081\u0082\7f\2\2\u0082\6\3\2\2\2\u0083\u0084\7k\2\2\u0084\u0085"+
+		"\7u\2\2\u0085\b\3\2\2\2\u0086\u0087\7u\2\2\u0087\u0088\7m\2\2\u0088\u0089"+
+		"\7k\2\2\u0089\u008a\7r\2\2\u008a\n\3\2\2\2\u008b\u008c\7t\2\2\u008c\u008d"+
+		"\7g\2\2\u008d\u008e\7c\2\2\u008e\u008f\7f\2\2\u008f\f\3\2\2\2\u0090\u0091"+
+		"\7h\2\2\u0091\u0092\7t\2\2\u0092\u0093\7g\2\2\u0093\u0094\7g\2\2\u0094"+
+		"\16\3\2\2\2\u0095\u0096\7t\2\2\u0096\u0097\7g\2\2\u0097\u0098\7v\2\2\u0098"+
+		"\u0099\7w\2\2\u0099\u009a\7t\2\2\u009a\u009b\7p\2\2\u009b\20\3\2\2\2\u009c"+
+		"\u009d\7g\2\2\u009d\u009e\7z\2\2\u009e\u009f\7k\2\2\u009f\u00a0\7v\2\2"+
+		"\u00a0\22\3\2\2\2\u00a1\u00a2\7r\2\2\u00a2\u00a3\7t\2\2\u00a3\u00a4\7"+
+		"k\2\2\u00a4\u00a5\7p\2\2\u00a5\u00a6\7v\2\2\u00a6\24\3\2\2\2\u00a7\u00a8"+
+		"\7r\2\2\u00a8\u00a9\7t\2\2\u00a9\u00aa\7k\2\2\u00aa\u00ab\7p\2\2\u00ab"+
+		"\u00ac\7v\2\2\u00ac\u00ad\7n\2\2\u00ad\u00ae\7p\2\2\u00ae\26\3\2\2\2\u00af"+
+		"\u00b0\7k\2\2\u00b0\u00b1\7h\2\2\u00b1\30\3\2\2\2\u00b2\u00b3\7v\2\2\u00b3"+
+		"\u00b4\7j\2\2\u00b4\u00b5\7g\2\2\u00b5\u00b6\7p\2\2\u00b6\32\3\2\2\2\u00b7"+
+		"\u00b8\7g\2\2\u00b8\u00b9\7n\2\2\u00b9\u00ba\7u\2\2\u00ba\u00bb\7g\2\2"+
+		"\u00bb\34\3\2\2\2\u00bc\u00bd\7h\2\2\u00bd\u00be\7k\2\2\u00be\36\3\2\2"+
+		"\2\u00bf\u00c0\7y\2\2\u00c0\u00c1\7j\2\2\u00c1\u00c2\7k\2\2\u00c2\u00c3"+
+		"\7n\2\2\u00c3\u00c4\7g\2\2\u00c4 \3\2\2\2\u00c5\u00c6\7f\2\2\u00c6\u00c7"+
+		"\7q\2\2\u00c7\"\3\2\2\2\u00c8\u00c9\7f\2\2\u00c9\u00ca\7q\2\2\u00ca\u00cb"+
+		"\7p\2\2\u00cb\u00cc\7g\2\2\u00cc$\3\2\2\2\u00cd\u00ce\7p\2\2\u00ce\u00cf"+
+		"\7g\2\2\u00cf\u00d0\7y\2\2\u00d0\u00d1\7r\2\2\u00d1\u00d2\7c\2\2\u00d2"+
+		"\u00d3\7k\2\2\u00d3\u00d4\7t\2\2\u00d4&\3\2\2\2\u00d5\u00d6\7e\2\2\u00d6"+
+		"\u00d7\7c\2\2\u00d7\u00d8\7n\2\2\u00d8\u00d9\7n\2\2\u00d9(\3\2\2\2\u00da"+
+		"\u00db\7h\2\2\u00db\u00dc\7u\2\2\u00dc\u00dd\7v\2\2\u00dd*\3\2\2\2\u00de"+
+		"\u00df\7u\2\2\u00df\u00e0\7p\2\2\u00e0\u00e1\7f\2\2\u00e1,\3\2\2\2\u00e2"+
+		"\u00e3\7r\2\2\u00e3\u00e4\7c\2\2\u00e4\u00e5\7k\2\2\u00e5\u00e6\7t\2\2"+
+		"\u00e6.\3\2\2\2\u00e7\u00e8\7p\2\2\u00e8\u00e9\7w\2\2\u00e9\u00ea\7n\2"+
+		"\2\u00ea\u00eb\7n\2\2\u00eb\60\3\2\2\2\u00ec\u00ed\7k\2\2\u00ed\u00ee"+
+		"\7p\2\2\u00ee\u00fe\7v\2\2\u00ef\u00f0\7d\2\2\u00f0\u00f1\7q\2\2\u00f1"+
+		"\u00f2\7q\2\2\u00f2\u00fe\7n\2\2\u00f3\u00f4\7e\2\2\u00f4\u00f5\7j\2\2"+
+		"\u00f5\u00f6\7c\2\2\u00f6\u00fe\7t\2\2\u00f7\u00f8\7u\2\2\u00f8\u00f9"+
+		"\7v\2\2\u00f9\u00fa\7t\2\2\u00fa\u00fb\7k\2\2\u00fb\u00fc\7p\2\2\u00fc"+
+		"\u00fe\7i\2\2\u00fd\u00ec\3\2\2\2\u00fd\u00ef\3\2\2\2\u00fd\u00f3\3\2"+
+		"\2\2\u00fd\u00f7\3\2\2\2\u00fe\62\3\2\2\2\u00ff\u010a\7#\2\2\u0100\u0101"+
+		"\7n\2\2\u0101\u0102\7g\2\2\u0102\u010a\7p\2\2\u0103\u0104\7q\2\2\u0104"+
+		"\u0105\7t\2\2\u0105\u010a\7f\2\2\u0106\u0107\7e\2\2\u0107\u0108\7j\2\2"+
+		"\u0108\u010a\7t\2\2\u0109\u00ff\3\2\2\2\u0109\u0100\3\2\2\2\u0109\u0103"+
+		"\3\2\2\2\u0109\u0106\3\2\2\2\u010a\64\3\2\2\2\u010b\u010c\7,\2\2\u010c"+
+		"\66\3\2\2\2\u010d\u010e\7\61\2\2\u010e8\3\2\2\2\u010f\u0110\7\'\2\2\u0110"+
+		":\3\2\2\2\u0111\u0112\7-\2\2\u0112<\3\2\2\2\u0113\u0114\7/\2\2\u0114>"+
+		"\3\2\2\2\u0115\u0116\7@\2\2\u0116@\3\2\2\2\u0117\u0118\7@\2\2\u0118\u0119"+
+		"\7?\2\2\u0119B\3\2\2\2\u011a\u011b\7>\2\2\u011bD\3\2\2\2\u011c\u011d\7"+
+		">\2\2\u011d\u011e\7?\2\2\u011eF\3\2\2\2\u011f\u0120\7?\2\2\u0120\u0121"+
+		"\7?\2\2\u0121H\3\2\2\2\u0122\u0123\7#\2\2\u0123\u0124\7?\2\2\u0124J\3"+
+		"\2\2\2\u0125\u0126\7(\2\2\u0126\u0127\7(\2\2\u0127L\3\2\2\2\u0128\u0129"+
+		"\7~\2\2\u0129\u012a\7~\2\2\u012aN\3\2\2\2\u012b\u012c\7*\2\2\u012cP\3"+
+		"\2\2\2\u012d\u012e\7+\2\2\u012eR\3\2\2\2\u012f\u0130\7]\2\2\u0130T\3\2"+
+		"\2\2\u0131\u0132\7_\2\2\u0132V\3\2\2\2\u0133\u0134\7?\2\2\u0134X\3\2\2"+
+		"\2\u0135\u0136\7=\2\2\u0136Z\3\2\2\2\u0137\u0138\7.\2\2\u0138\\\3\2\2"+
+		"\2\u0139\u013a\7)\2\2\u013a^\3\2\2\2\u013b\u013c\7$\2\2\u013c`\3\2\2\2"+
+		"\u013d\u013e\7v\2\2\u013e\u013f\7t\2\2\u013f\u0140\7w\2\2\u0140\u0147"+
+		"\7g\2\2\u0141\u0142\7h\2\2\u0142\u0143\7c\2\2\u0143\u0144\7n\2\2\u0144"+
+		"\u0145\7u\2\2\u0145\u0147\7g\2\2\u0146\u013d\3\2\2\2\u0146\u0141\3\2\2"+
+		"\2\u0147b\3\2\2\2\u0148\u014d\5e\63\2\u0149\u014c\5e\63\2\u014a\u014c"+
+		"\5i\65\2\u014b\u0149\3\2\2\2\u014b\u014a\3\2\2\2\u014c\u014f\3\2\2\2\u014d"+
+		"\u014b\3\2\2\2\u014d\u014e\3\2\2\2\u014ed\3\2\2\2\u014f\u014d\3\2\2\2"+
+		"\u0150\u0151\t\2\2\2\u0151f\3\2\2\2\u0152\u0154\5k\66\2\u0153\u0152\3"+
+		"\2\2\2\u0153\u0154\3\2\2\2\u0154\u0156\3\2\2\2\u0155\u0157\5i\65\2\u0156"+
+		"\u0155\3\2\2\2\u0157\u0158\3\2\2\2\u0158\u0156\3\2\2\2\u0158\u0159\3\2"+
+		"\2\2\u0159h\3\2\2\2\u015a\u015b\t\3\2\2\u015bj\3\2\2\2\u015c\u015d\t\4"+
+		"\2\2\u015dl\3\2\2\2\u015e\u015f\7)\2\2\u015f\u0160\5q9\2\u0160\u0161\7"+
+		")\2\2\u0161n\3\2\2\2\u0162\u0166\7$\2\2\u0163\u0165\5q9\2\u0164\u0163"+
+		"\3\2\2\2\u0165\u0168\3\2\2\2\u0166\u0164\3\2\2\2\u0166\u0167\3\2\2\2\u0167"+
+		"\u0169\3\2\2\2\u0168\u0166\3\2\2\2\u0169\u016a\7$\2\2\u016ap\3\2\2\2\u016b"+
+		"\u016f\n\5\2\2\u016c\u016d\7^\2\2\u016d\u016f\5s:\2\u016e\u016b\3\2\2"+
+		"\2\u016e\u016c\3\2\2\2\u016fr\3\2\2\2\u0170\u0171\t\6\2\2\u0171t\3\2\2"+
+		"\2\u0172\u0176\7%\2\2\u0173\u0175\n\7\2\2\u0174\u0173\3\2\2\2\u0175\u0178"+
+		"\3\2\2\2\u0176\u0174\3\2\2\2\u0176\u0177\3\2\2\2\u0177\u017a\3\2\2\2\u0178"+
+		"\u0176\3\2\2\2\u0179\u017b\7\17\2\2\u017a\u0179\3\2\2\2\u017a\u017b\3"+
+		"\2\2\2\u017b\u017c\3\2\2\2\u017c\u017d\7\f\2\2\u017d\u017e\3\2\2\2\u017e"+
+		"\u017f\b;\2\2\u017fv\3\2\2\2\u0180\u0182\t\b\2\2\u0181\u0180\3\2\2\2\u0182"+
+		"\u0183\3\2\2\2\u0183\u0181\3\2\2\2\u0183\u0184\3\2\2\2\u0184\u0185\3\2"+
+		"\2\2\u0185\u0186\b<\2\2\u0186x\3\2\2\2\17\2\u00fd\u0109\u0146\u014b\u014d"+
+		"\u0153\u0158\u0166\u016e\u0176\u017a\u0183\3\b\2\2";
+	public static final ATN _ATN =
+		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
+	static {
+		_decisionToDFA = new DFA[_ATN.getNumberOfDecisions()];
+		for (int i = 0; i < _ATN.getNumberOfDecisions(); i++) {
+			_decisionToDFA[i] = new DFA(_ATN.getDecisionState(i), i);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,2220 @@
+// Generated from ./WACCParser.g4 by ANTLR 4.4
+package antlr;
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.*;
+import org.antlr.v4.runtime.tree.*;
+import java.util.List;
+import java.util.Iterator;
+import java.util.ArrayList;
+
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast"})
+public class WACCParser extends Parser {
+	static { RuntimeMetaData.checkVersion("4.4", RuntimeMetaData.VERSION); }
+
+	protected static final DFA[] _decisionToDFA;
+	protected static final PredictionContextCache _sharedContextCache =
+		new PredictionContextCache();
+	public static final int
+		PRINT=9, DOUBLE_QUOTE=47, STR_LITER=52, DO=16, MINUS=30, MULT=26, SEMICOLON=44, 
+		UNARY_OPER=25, ELSE=13, LESS_EQUAL=34, IF=11, BOOL_LITER=48, DONE=17, 
+		NULL=23, FST=20, IS=3, CLOSE_SQUARE_BR=42, GRT_EQUAL=32, READ=5, AND=37, 
+		END=2, THEN=12, LESS=33, EXIT=8, PLUS=29, CLOSE_PARENTHESES=40, CALL=19, 
+		QUOTE=46, FI=14, PRINTLN=10, NEW_PAIR=18, OPEN_PARENTHESES=39, SND=21, 
+		GRT=31, BEGIN=1, ASSIGN=43, FREE=6, COMMENT=53, RETURN=7, SKIP=4, OPEN_SQUARE_BR=41, 
+		WS=54, COMMA=45, MOD=28, OR=38, EQUAL=35, CHAR_LITER=51, INT_LITER=50, 
+		DIV=27, IDENT=49, NOT_EQUAL=36, WHILE=15, BASE_TYPE=24, PAIR=22;
+	public static final String[] tokenNames = {
+		"<INVALID>", "'begin'", "'end'", "'is'", "'skip'", "'read'", "'free'", 
+		"'return'", "'exit'", "'print'", "'println'", "'if'", "'then'", "'else'", 
+		"'fi'", "'while'", "'do'", "'done'", "'newpair'", "'call'", "'fst'", "'snd'", 
+		"'pair'", "'null'", "BASE_TYPE", "UNARY_OPER", "'*'", "'/'", "'%'", "'+'", 
+		"'-'", "'>'", "'>='", "'<'", "'<='", "'=='", "'!='", "'&&'", "'||'", "'('", 
+		"')'", "'['", "']'", "'='", "';'", "','", "'''", "'\"'", "BOOL_LITER", 
+		"IDENT", "INT_LITER", "CHAR_LITER", "STR_LITER", "COMMENT", "WS"
+	};
+	public static final int
+		RULE_program = 0, RULE_func = 1, RULE_paramList = 2, RULE_param = 3, RULE_stat = 4, 
+		RULE_assignLhs = 5, RULE_assignRhs = 6, RULE_argList = 7, RULE_pairElem = 8, 
+		RULE_type = 9, RULE_baseType = 10, RULE_arrayType = 11, RULE_pairType = 12, 
+		RULE_pairElemType = 13, RULE_expr = 14, RULE_unaryOper = 15, RULE_ident = 16, 
+		RULE_arrayElem = 17, RULE_intLiter = 18, RULE_boolLiter = 19, RULE_charLiter = 20, 
+		RULE_stringLiter = 21, RULE_arrayLiter = 22, RULE_pairLiter = 23;
+	public static final String[] ruleNames = {
+		"program", "func", "paramList", "param", "stat", "assignLhs", "assignRhs", 
+		"argList", "pairElem", "type", "baseType", "arrayType", "pairType", "pairElemType", 
+		"expr", "unaryOper", "ident", "arrayElem", "intLiter", "boolLiter", "charLiter", 
+		"stringLiter", "arrayLiter", "pairLiter"
+	};
+
+	@Override
+	public String getGrammarFileName() { return "WACCParser.g4"; }
+
+	@Override
+	public String[] getTokenNames() { return tokenNames; }
+
+	@Override
+	public String[] getRuleNames() { return ruleNames; }
+
+	@Override
+	public String getSerializedATN() { return _serializedATN; }
+
+	@Override
+	public ATN getATN() { return _ATN; }
+
+	public WACCParser(TokenStream input) {
+		super(input);
+		_interp = new ParserATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
+	}
+	public static class ProgramContext extends ParserRuleContext {
+		public TerminalNode EOF() { return getToken(WACCParser.EOF, 0); }
+		public List<FuncContext> func() {
+			return getRuleContexts(FuncContext.class);
+		}
+		public FuncContext func(int i) {
+			return getRuleContext(FuncContext.class,i);
+		}
+		public TerminalNode BEGIN() { return getToken(WACCParser.BEGIN, 0); }
+		public TerminalNode END() { return getToken(WACCParser.END, 0); }
+		public StatContext stat() {
+			return getRuleContext(StatContext.class,0);
+		}
+		public ProgramContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_program; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitProgram(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ProgramContext program() throws RecognitionException {
+		ProgramContext _localctx = new ProgramContext(_ctx, getState());
+		enterRule(_localctx, 0, RULE_program);
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(48); match(BEGIN);
+			setState(52);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,0,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					{
+					{
+					setState(49); func();
+					}
+					} 
+				}
+				setState(54);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,0,_ctx);
+			}
+			setState(55); stat(0);
+			setState(56); match(END);
+			setState(57); match(EOF);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FuncContext extends ParserRuleContext {
+		public TerminalNode CLOSE_PARENTHESES() { return getToken(WACCParser.CLOSE_PARENTHESES, 0); }
+		public TerminalNode IS() { return getToken(WACCParser.IS, 0); }
+		public ParamListContext paramList() {
+			return getRuleContext(ParamListContext.class,0);
+		}
+		public IdentContext ident() {
+			return getRuleContext(IdentContext.class,0);
+		}
+		public TerminalNode END() { return getToken(WACCParser.END, 0); }
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public StatContext stat() {
+			return getRuleContext(StatContext.class,0);
+		}
+		public TerminalNode OPEN_PARENTHESES() { return getToken(WACCParser.OPEN_PARENTHESES, 0); }
+		public FuncContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_func; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitFunc(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final FuncContext func() throws RecognitionException {
+		FuncContext _localctx = new FuncContext(_ctx, getState());
+		enterRule(_localctx, 2, RULE_func);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(59); type();
+			setState(60); ident();
+			setState(61); match(OPEN_PARENTHESES);
+			setState(63);
+			_la = _input.LA(1);
+			if (_la==PAIR || _la==BASE_TYPE) {
+				{
+				setState(62); paramList();
+				}
+			}
+
+			setState(65); match(CLOSE_PARENTHESES);
+			setState(66); match(IS);
+			setState(67); stat(0);
+			setState(68); match(END);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ParamListContext extends ParserRuleContext {
+		public List<ParamContext> param() {
+			return getRuleContexts(ParamContext.class);
+		}
+		public List<TerminalNode> COMMA() { return getTokens(WACCParser.COMMA); }
+		public ParamContext param(int i) {
+			return getRuleContext(ParamContext.class,i);
+		}
+		public TerminalNode COMMA(int i) {
+			return getToken(WACCParser.COMMA, i);
+		}
+		public ParamListContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_paramList; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitParamList(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ParamListContext paramList() throws RecognitionException {
+		ParamListContext _localctx = new ParamListContext(_ctx, getState());
+		enterRule(_localctx, 4, RULE_paramList);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(70); param();
+			setState(75);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while (_la==COMMA) {
+				{
+				{
+				setState(71); match(COMMA);
+				setState(72); param();
+				}
+				}
+				setState(77);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ParamContext extends ParserRuleContext {
+		public IdentContext ident() {
+			return getRuleContext(IdentContext.class,0);
+		}
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public ParamContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_param; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitParam(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ParamContext param() throws RecognitionException {
+		ParamContext _localctx = new ParamContext(_ctx, getState());
+		enterRule(_localctx, 6, RULE_param);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(78); type();
+			setState(79); ident();
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class StatContext extends ParserRuleContext {
+		public StatContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_stat; }
+	 
+		public StatContext() { }
+		public void copyFrom(StatContext ctx) {
+			super.copyFrom(ctx);
+		}
+	}
+	public static class ReturnStatContext extends StatContext {
+		public TerminalNode RETURN() { return getToken(WACCParser.RETURN, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public ReturnStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitReturnStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class ExitStatContext extends StatContext {
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public TerminalNode EXIT() { return getToken(WACCParser.EXIT, 0); }
+		public ExitStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitExitStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class IfStatContext extends StatContext {
+		public TerminalNode FI() { return getToken(WACCParser.FI, 0); }
+		public TerminalNode ELSE() { return getToken(WACCParser.ELSE, 0); }
+		public TerminalNode IF() { return getToken(WACCParser.IF, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public TerminalNode THEN() { return getToken(WACCParser.THEN, 0); }
+		public StatContext stat(int i) {
+			return getRuleContext(StatContext.class,i);
+		}
+		public List<StatContext> stat() {
+			return getRuleContexts(StatContext.class);
+		}
+		public IfStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitIfStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class FreeStatContext extends StatContext {
+		public TerminalNode FREE() { return getToken(WACCParser.FREE, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public FreeStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitFreeStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class SkipStatContext extends StatContext {
+		public TerminalNode SKIP() { return getToken(WACCParser.SKIP, 0); }
+		public SkipStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitSkipStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class WhileStatContext extends StatContext {
+		public TerminalNode DONE() { return getToken(WACCParser.DONE, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public TerminalNode DO() { return getToken(WACCParser.DO, 0); }
+		public StatContext stat() {
+			return getRuleContext(StatContext.class,0);
+		}
+		public TerminalNode WHILE() { return getToken(WACCParser.WHILE, 0); }
+		public WhileStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitWhileStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class VarDeclStatContext extends StatContext {
+		public TerminalNode ASSIGN() { return getToken(WACCParser.ASSIGN, 0); }
+		public AssignRhsContext assignRhs() {
+			return getRuleContext(AssignRhsContext.class,0);
+		}
+		public IdentContext ident() {
+			return getRuleContext(IdentContext.class,0);
+		}
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public VarDeclStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitVarDeclStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class ReadStatContext extends StatContext {
+		public AssignLhsContext assignLhs() {
+			return getRuleContext(AssignLhsContext.class,0);
+		}
+		public TerminalNode READ() { return getToken(WACCParser.READ, 0); }
+		public ReadStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitReadStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class PrintlnStatContext extends StatContext {
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public TerminalNode PRINTLN() { return getToken(WACCParser.PRINTLN, 0); }
+		public PrintlnStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitPrintlnStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class AssignStatContext extends StatContext {
+		public TerminalNode ASSIGN() { return getToken(WACCParser.ASSIGN, 0); }
+		public AssignLhsContext assignLhs() {
+			return getRuleContext(AssignLhsContext.class,0);
+		}
+		public AssignRhsContext assignRhs() {
+			return getRuleContext(AssignRhsContext.class,0);
+		}
+		public AssignStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitAssignStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class PrintStatContext extends StatContext {
+		public TerminalNode PRINT() { return getToken(WACCParser.PRINT, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public PrintStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitPrintStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class ScopingStatContext extends StatContext {
+		public TerminalNode BEGIN() { return getToken(WACCParser.BEGIN, 0); }
+		public TerminalNode END() { return getToken(WACCParser.END, 0); }
+		public StatContext stat() {
+			return getRuleContext(StatContext.class,0);
+		}
+		public ScopingStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitScopingStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class CompStatContext extends StatContext {
+		public TerminalNode SEMICOLON() { return getToken(WACCParser.SEMICOLON, 0); }
+		public StatContext stat(int i) {
+			return getRuleContext(StatContext.class,i);
+		}
+		public List<StatContext> stat() {
+			return getRuleContexts(StatContext.class);
+		}
+		public CompStatContext(StatContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitCompStat(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final StatContext stat() throws RecognitionException {
+		return stat(0);
+	}
+
+	private StatContext stat(int _p) throws RecognitionException {
+		ParserRuleContext _parentctx = _ctx;
+		int _parentState = getState();
+		StatContext _localctx = new StatContext(_ctx, _parentState);
+		StatContext _prevctx = _localctx;
+		int _startState = 8;
+		enterRecursionRule(_localctx, 8, RULE_stat, _p);
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(122);
+			switch (_input.LA(1)) {
+			case SKIP:
+				{
+				_localctx = new SkipStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+
+				setState(82); match(SKIP);
+				}
+				break;
+			case PAIR:
+			case BASE_TYPE:
+				{
+				_localctx = new VarDeclStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(83); type();
+				setState(84); ident();
+				setState(85); match(ASSIGN);
+				setState(86); assignRhs();
+				}
+				break;
+			case FST:
+			case SND:
+			case IDENT:
+				{
+				_localctx = new AssignStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(88); assignLhs();
+				setState(89); match(ASSIGN);
+				setState(90); assignRhs();
+				}
+				break;
+			case READ:
+				{
+				_localctx = new ReadStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(92); match(READ);
+				setState(93); assignLhs();
+				}
+				break;
+			case FREE:
+				{
+				_localctx = new FreeStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(94); match(FREE);
+				setState(95); expr(0);
+				}
+				break;
+			case RETURN:
+				{
+				_localctx = new ReturnStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(96); match(RETURN);
+				setState(97); expr(0);
+				}
+				break;
+			case EXIT:
+				{
+				_localctx = new ExitStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(98); match(EXIT);
+				setState(99); expr(0);
+				}
+				break;
+			case PRINT:
+				{
+				_localctx = new PrintStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(100); match(PRINT);
+				setState(101); expr(0);
+				}
+				break;
+			case PRINTLN:
+				{
+				_localctx = new PrintlnStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(102); match(PRINTLN);
+				setState(103); expr(0);
+				}
+				break;
+			case IF:
+				{
+				_localctx = new IfStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(104); match(IF);
+				setState(105); expr(0);
+				setState(106); match(THEN);
+				setState(107); stat(0);
+				setState(108); match(ELSE);
+				setState(109); stat(0);
+				setState(110); match(FI);
+				}
+				break;
+			case WHILE:
+				{
+				_localctx = new WhileStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(112); match(WHILE);
+				setState(113); expr(0);
+				setState(114); match(DO);
+				setState(115); stat(0);
+				setState(116); match(DONE);
+				}
+				break;
+			case BEGIN:
+				{
+				_localctx = new ScopingStatContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(118); match(BEGIN);
+				setState(119); stat(0);
+				setState(120); match(END);
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+			_ctx.stop = _input.LT(-1);
+			setState(129);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,4,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					if ( _parseListeners!=null ) triggerExitRuleEvent();
+					_prevctx = _localctx;
+					{
+					{
+					_localctx = new CompStatContext(new StatContext(_parentctx, _parentState));
+					pushNewRecursionContext(_localctx, _startState, RULE_stat);
+					setState(124);
+					if (!(precpred(_ctx, 1))) throw new FailedPredicateException(this, "precpred(_ctx, 1)");
+					setState(125); match(SEMICOLON);
+					setState(126); stat(2);
+					}
+					} 
+				}
+				setState(131);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,4,_ctx);
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			unrollRecursionContexts(_parentctx);
+		}
+		return _localctx;
+	}
+
+	public static class AssignLhsContext extends ParserRuleContext {
+		public AssignLhsContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_assignLhs; }
+	 
+		public AssignLhsContext() { }
+		public void copyFrom(AssignLhsContext ctx) {
+			super.copyFrom(ctx);
+		}
+	}
+	public static class LhsArrayElemContext extends AssignLhsContext {
+		public ArrayElemContext arrayElem() {
+			return getRuleContext(ArrayElemContext.class,0);
+		}
+		public LhsArrayElemContext(AssignLhsContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitLhsArrayElem(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class LhsPairElemContext extends AssignLhsContext {
+		public PairElemContext pairElem() {
+			return getRuleContext(PairElemContext.class,0);
+		}
+		public LhsPairElemContext(AssignLhsContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitLhsPairElem(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class LhsIdentContext extends AssignLhsContext {
+		public IdentContext ident() {
+			return getRuleContext(IdentContext.class,0);
+		}
+		public LhsIdentContext(AssignLhsContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitLhsIdent(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final AssignLhsContext assignLhs() throws RecognitionException {
+		AssignLhsContext _localctx = new AssignLhsContext(_ctx, getState());
+		enterRule(_localctx, 10, RULE_assignLhs);
+		try {
+			setState(135);
+			switch ( getInterpreter().adaptivePredict(_input,5,_ctx) ) {
+			case 1:
+				_localctx = new LhsIdentContext(_localctx);
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(132); ident();
+				}
+				break;
+			case 2:
+				_localctx = new LhsArrayElemContext(_localctx);
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(133); arrayElem();
+				}
+				break;
+			case 3:
+				_localctx = new LhsPairElemContext(_localctx);
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(134); pairElem();
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class AssignRhsContext extends ParserRuleContext {
+		public AssignRhsContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_assignRhs; }
+	 
+		public AssignRhsContext() { }
+		public void copyFrom(AssignRhsContext ctx) {
+			super.copyFrom(ctx);
+		}
+	}
+	public static class RhsCallContext extends AssignRhsContext {
+		public ArgListContext argList() {
+			return getRuleContext(ArgListContext.class,0);
+		}
+		public TerminalNode CLOSE_PARENTHESES() { return getToken(WACCParser.CLOSE_PARENTHESES, 0); }
+		public TerminalNode CALL() { return getToken(WACCParser.CALL, 0); }
+		public IdentContext ident() {
+			return getRuleContext(IdentContext.class,0);
+		}
+		public TerminalNode OPEN_PARENTHESES() { return getToken(WACCParser.OPEN_PARENTHESES, 0); }
+		public RhsCallContext(AssignRhsContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitRhsCall(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class RhsNewPairContext extends AssignRhsContext {
+		public TerminalNode CLOSE_PARENTHESES() { return getToken(WACCParser.CLOSE_PARENTHESES, 0); }
+		public TerminalNode NEW_PAIR() { return getToken(WACCParser.NEW_PAIR, 0); }
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public TerminalNode COMMA() { return getToken(WACCParser.COMMA, 0); }
+		public TerminalNode OPEN_PARENTHESES() { return getToken(WACCParser.OPEN_PARENTHESES, 0); }
+		public RhsNewPairContext(AssignRhsContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitRhsNewPair(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class RhsArrayLiterContext extends AssignRhsContext {
+		public ArrayLiterContext arrayLiter() {
+			return getRuleContext(ArrayLiterContext.class,0);
+		}
+		public RhsArrayLiterContext(AssignRhsContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitRhsArrayLiter(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class RhsPairElemContext extends AssignRhsContext {
+		public PairElemContext pairElem() {
+			return getRuleContext(PairElemContext.class,0);
+		}
+		public RhsPairElemContext(AssignRhsContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitRhsPairElem(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class RhsExprContext extends AssignRhsContext {
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public RhsExprContext(AssignRhsContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitRhsExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final AssignRhsContext assignRhs() throws RecognitionException {
+		AssignRhsContext _localctx = new AssignRhsContext(_ctx, getState());
+		enterRule(_localctx, 12, RULE_assignRhs);
+		int _la;
+		try {
+			setState(155);
+			switch (_input.LA(1)) {
+			case NULL:
+			case UNARY_OPER:
+			case MINUS:
+			case OPEN_PARENTHESES:
+			case BOOL_LITER:
+			case IDENT:
+			case INT_LITER:
+			case CHAR_LITER:
+			case STR_LITER:
+				_localctx = new RhsExprContext(_localctx);
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(137); expr(0);
+				}
+				break;
+			case OPEN_SQUARE_BR:
+				_localctx = new RhsArrayLiterContext(_localctx);
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(138); arrayLiter();
+				}
+				break;
+			case NEW_PAIR:
+				_localctx = new RhsNewPairContext(_localctx);
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(139); match(NEW_PAIR);
+				setState(140); match(OPEN_PARENTHESES);
+				setState(141); expr(0);
+				setState(142); match(COMMA);
+				setState(143); expr(0);
+				setState(144); match(CLOSE_PARENTHESES);
+				}
+				break;
+			case FST:
+			case SND:
+				_localctx = new RhsPairElemContext(_localctx);
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(146); pairElem();
+				}
+				break;
+			case CALL:
+				_localctx = new RhsCallContext(_localctx);
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(147); match(CALL);
+				setState(148); ident();
+				setState(149); match(OPEN_PARENTHESES);
+				setState(151);
+				_la = _input.LA(1);
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << NULL) | (1L << UNARY_OPER) | (1L << MINUS) | (1L << OPEN_PARENTHESES) | (1L << BOOL_LITER) | (1L << IDENT) | (1L << INT_LITER) | (1L << CHAR_LITER) | (1L << STR_LITER))) != 0)) {
+					{
+					setState(150); argList();
+					}
+				}
+
+				setState(153); match(CLOSE_PARENTHESES);
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ArgListContext extends ParserRuleContext {
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public List<TerminalNode> COMMA() { return getTokens(WACCParser.COMMA); }
+		public TerminalNode COMMA(int i) {
+			return getToken(WACCParser.COMMA, i);
+		}
+		public ArgListContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_argList; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitArgList(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ArgListContext argList() throws RecognitionException {
+		ArgListContext _localctx = new ArgListContext(_ctx, getState());
+		enterRule(_localctx, 14, RULE_argList);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(157); expr(0);
+			setState(162);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while (_la==COMMA) {
+				{
+				{
+				setState(158); match(COMMA);
+				setState(159); expr(0);
+				}
+				}
+				setState(164);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class PairElemContext extends ParserRuleContext {
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public TerminalNode SND() { return getToken(WACCParser.SND, 0); }
+		public TerminalNode FST() { return getToken(WACCParser.FST, 0); }
+		public PairElemContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_pairElem; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitPairElem(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final PairElemContext pairElem() throws RecognitionException {
+		PairElemContext _localctx = new PairElemContext(_ctx, getState());
+		enterRule(_localctx, 16, RULE_pairElem);
+		try {
+			setState(169);
+			switch (_input.LA(1)) {
+			case FST:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(165); match(FST);
+				setState(166); expr(0);
+				}
+				break;
+			case SND:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(167); match(SND);
+				setState(168); expr(0);
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TypeContext extends ParserRuleContext {
+		public ArrayTypeContext arrayType() {
+			return getRuleContext(ArrayTypeContext.class,0);
+		}
+		public BaseTypeContext baseType() {
+			return getRuleContext(BaseTypeContext.class,0);
+		}
+		public PairTypeContext pairType() {
+			return getRuleContext(PairTypeContext.class,0);
+		}
+		public TypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_type; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitType(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final TypeContext type() throws RecognitionException {
+		TypeContext _localctx = new TypeContext(_ctx, getState());
+		enterRule(_localctx, 18, RULE_type);
+		try {
+			setState(174);
+			switch ( getInterpreter().adaptivePredict(_input,10,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(171); baseType();
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(172); arrayType();
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(173); pairType();
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class BaseTypeContext extends ParserRuleContext {
+		public TerminalNode BASE_TYPE() { return getToken(WACCParser.BASE_TYPE, 0); }
+		public BaseTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_baseType; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitBaseType(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final BaseTypeContext baseType() throws RecognitionException {
+		BaseTypeContext _localctx = new BaseTypeContext(_ctx, getState());
+		enterRule(_localctx, 20, RULE_baseType);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(176); match(BASE_TYPE);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ArrayTypeContext extends ParserRuleContext {
+		public TerminalNode OPEN_SQUARE_BR(int i) {
+			return getToken(WACCParser.OPEN_SQUARE_BR, i);
+		}
+		public List<TerminalNode> CLOSE_SQUARE_BR() { return getTokens(WACCParser.CLOSE_SQUARE_BR); }
+		public TerminalNode CLOSE_SQUARE_BR(int i) {
+			return getToken(WACCParser.CLOSE_SQUARE_BR, i);
+		}
+		public BaseTypeContext baseType() {
+			return getRuleContext(BaseTypeContext.class,0);
+		}
+		public List<TerminalNode> OPEN_SQUARE_BR() { return getTokens(WACCParser.OPEN_SQUARE_BR); }
+		public PairTypeContext pairType() {
+			return getRuleContext(PairTypeContext.class,0);
+		}
+		public ArrayTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_arrayType; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitArrayType(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ArrayTypeContext arrayType() throws RecognitionException {
+		ArrayTypeContext _localctx = new ArrayTypeContext(_ctx, getState());
+		enterRule(_localctx, 22, RULE_arrayType);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(180);
+			switch (_input.LA(1)) {
+			case BASE_TYPE:
+				{
+				setState(178); baseType();
+				}
+				break;
+			case PAIR:
+				{
+				setState(179); pairType();
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+			setState(184); 
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			do {
+				{
+				{
+				setState(182); match(OPEN_SQUARE_BR);
+				setState(183); match(CLOSE_SQUARE_BR);
+				}
+				}
+				setState(186); 
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			} while ( _la==OPEN_SQUARE_BR );
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class PairTypeContext extends ParserRuleContext {
+		public TerminalNode CLOSE_PARENTHESES() { return getToken(WACCParser.CLOSE_PARENTHESES, 0); }
+		public PairElemTypeContext pairElemType(int i) {
+			return getRuleContext(PairElemTypeContext.class,i);
+		}
+		public List<PairElemTypeContext> pairElemType() {
+			return getRuleContexts(PairElemTypeContext.class);
+		}
+		public TerminalNode PAIR() { return getToken(WACCParser.PAIR, 0); }
+		public TerminalNode COMMA() { return getToken(WACCParser.COMMA, 0); }
+		public TerminalNode OPEN_PARENTHESES() { return getToken(WACCParser.OPEN_PARENTHESES, 0); }
+		public PairTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_pairType; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitPairType(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final PairTypeContext pairType() throws RecognitionException {
+		PairTypeContext _localctx = new PairTypeContext(_ctx, getState());
+		enterRule(_localctx, 24, RULE_pairType);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(188); match(PAIR);
+			setState(189); match(OPEN_PARENTHESES);
+			setState(190); pairElemType();
+			setState(191); match(COMMA);
+			setState(192); pairElemType();
+			setState(193); match(CLOSE_PARENTHESES);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class PairElemTypeContext extends ParserRuleContext {
+		public ArrayTypeContext arrayType() {
+			return getRuleContext(ArrayTypeContext.class,0);
+		}
+		public TerminalNode PAIR() { return getToken(WACCParser.PAIR, 0); }
+		public BaseTypeContext baseType() {
+			return getRuleContext(BaseTypeContext.class,0);
+		}
+		public PairElemTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_pairElemType; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitPairElemType(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final PairElemTypeContext pairElemType() throws RecognitionException {
+		PairElemTypeContext _localctx = new PairElemTypeContext(_ctx, getState());
+		enterRule(_localctx, 26, RULE_pairElemType);
+		try {
+			setState(198);
+			switch ( getInterpreter().adaptivePredict(_input,13,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(195); baseType();
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(196); arrayType();
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(197); match(PAIR);
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ExprContext extends ParserRuleContext {
+		public ExprContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_expr; }
+	 
+		public ExprContext() { }
+		public void copyFrom(ExprContext ctx) {
+			super.copyFrom(ctx);
+		}
+	}
+	public static class BinOpPrec4ExprContext extends ExprContext {
+		public TerminalNode EQUAL() { return getToken(WACCParser.EQUAL, 0); }
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public TerminalNode NOT_EQUAL() { return getToken(WACCParser.NOT_EQUAL, 0); }
+		public BinOpPrec4ExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitBinOpPrec4Expr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class BoolExprContext extends ExprContext {
+		public BoolLiterContext boolLiter() {
+			return getRuleContext(BoolLiterContext.class,0);
+		}
+		public BoolExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitBoolExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class StringExprContext extends ExprContext {
+		public StringLiterContext stringLiter() {
+			return getRuleContext(StringLiterContext.class,0);
+		}
+		public StringExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitStringExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class PairExprContext extends ExprContext {
+		public PairLiterContext pairLiter() {
+			return getRuleContext(PairLiterContext.class,0);
+		}
+		public PairExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitPairExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class IdentExprContext extends ExprContext {
+		public IdentContext ident() {
+			return getRuleContext(IdentContext.class,0);
+		}
+		public IdentExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitIdentExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class UnOpExprContext extends ExprContext {
+		public UnaryOperContext unaryOper() {
+			return getRuleContext(UnaryOperContext.class,0);
+		}
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public UnOpExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitUnOpExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class BinOpPrec1ExprContext extends ExprContext {
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public TerminalNode MULT() { return getToken(WACCParser.MULT, 0); }
+		public TerminalNode MOD() { return getToken(WACCParser.MOD, 0); }
+		public TerminalNode DIV() { return getToken(WACCParser.DIV, 0); }
+		public BinOpPrec1ExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitBinOpPrec1Expr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class ArrayElemExprContext extends ExprContext {
+		public ArrayElemContext arrayElem() {
+			return getRuleContext(ArrayElemContext.class,0);
+		}
+		public ArrayElemExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitArrayElemExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class BinOpPrec5ExprContext extends ExprContext {
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public TerminalNode AND() { return getToken(WACCParser.AND, 0); }
+		public BinOpPrec5ExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitBinOpPrec5Expr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class CharExprContext extends ExprContext {
+		public CharLiterContext charLiter() {
+			return getRuleContext(CharLiterContext.class,0);
+		}
+		public CharExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitCharExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class BinOpPrec3ExprContext extends ExprContext {
+		public TerminalNode LESS() { return getToken(WACCParser.LESS, 0); }
+		public TerminalNode LESS_EQUAL() { return getToken(WACCParser.LESS_EQUAL, 0); }
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public TerminalNode GRT_EQUAL() { return getToken(WACCParser.GRT_EQUAL, 0); }
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public TerminalNode GRT() { return getToken(WACCParser.GRT, 0); }
+		public BinOpPrec3ExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitBinOpPrec3Expr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class ParensExprContext extends ExprContext {
+		public TerminalNode CLOSE_PARENTHESES() { return getToken(WACCParser.CLOSE_PARENTHESES, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public TerminalNode OPEN_PARENTHESES() { return getToken(WACCParser.OPEN_PARENTHESES, 0); }
+		public ParensExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitParensExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class IntExprContext extends ExprContext {
+		public IntLiterContext intLiter() {
+			return getRuleContext(IntLiterContext.class,0);
+		}
+		public IntExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitIntExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class BinOpPrec2ExprContext extends ExprContext {
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public TerminalNode PLUS() { return getToken(WACCParser.PLUS, 0); }
+		public TerminalNode MINUS() { return getToken(WACCParser.MINUS, 0); }
+		public BinOpPrec2ExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitBinOpPrec2Expr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class BinOpPrec6ExprContext extends ExprContext {
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public TerminalNode OR() { return getToken(WACCParser.OR, 0); }
+		public BinOpPrec6ExprContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitBinOpPrec6Expr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ExprContext expr() throws RecognitionException {
+		return expr(0);
+	}
+
+	private ExprContext expr(int _p) throws RecognitionException {
+		ParserRuleContext _parentctx = _ctx;
+		int _parentState = getState();
+		ExprContext _localctx = new ExprContext(_ctx, _parentState);
+		ExprContext _prevctx = _localctx;
+		int _startState = 28;
+		enterRecursionRule(_localctx, 28, RULE_expr, _p);
+		int _la;
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(215);
+			switch ( getInterpreter().adaptivePredict(_input,14,_ctx) ) {
+			case 1:
+				{
+				_localctx = new UnOpExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+
+				setState(201); unaryOper();
+				setState(202); expr(8);
+				}
+				break;
+			case 2:
+				{
+				_localctx = new IntExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(204); intLiter();
+				}
+				break;
+			case 3:
+				{
+				_localctx = new BoolExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(205); boolLiter();
+				}
+				break;
+			case 4:
+				{
+				_localctx = new CharExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(206); charLiter();
+				}
+				break;
+			case 5:
+				{
+				_localctx = new StringExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(207); stringLiter();
+				}
+				break;
+			case 6:
+				{
+				_localctx = new PairExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(208); pairLiter();
+				}
+				break;
+			case 7:
+				{
+				_localctx = new IdentExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(209); ident();
+				}
+				break;
+			case 8:
+				{
+				_localctx = new ArrayElemExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(210); arrayElem();
+				}
+				break;
+			case 9:
+				{
+				_localctx = new ParensExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(211); match(OPEN_PARENTHESES);
+				setState(212); expr(0);
+				setState(213); match(CLOSE_PARENTHESES);
+				}
+				break;
+			}
+			_ctx.stop = _input.LT(-1);
+			setState(237);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,16,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					if ( _parseListeners!=null ) triggerExitRuleEvent();
+					_prevctx = _localctx;
+					{
+					setState(235);
+					switch ( getInterpreter().adaptivePredict(_input,15,_ctx) ) {
+					case 1:
+						{
+						_localctx = new BinOpPrec1ExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(217);
+						if (!(precpred(_ctx, 7))) throw new FailedPredicateException(this, "precpred(_ctx, 7)");
+						setState(218);
+						_la = _input.LA(1);
+						if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << MULT) | (1L << DIV) | (1L << MOD))) != 0)) ) {
+						_errHandler.recoverInline(this);
+						}
+						consume();
+						setState(219); expr(8);
+						}
+						break;
+					case 2:
+						{
+						_localctx = new BinOpPrec2ExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(220);
+						if (!(precpred(_ctx, 6))) throw new FailedPredicateException(this, "precpred(_ctx, 6)");
+						setState(221);
+						_la = _input.LA(1);
+						if ( !(_la==PLUS || _la==MINUS) ) {
+						_errHandler.recoverInline(this);
+						}
+						consume();
+						setState(222); expr(7);
+						}
+						break;
+					case 3:
+						{
+						_localctx = new BinOpPrec3ExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(223);
+						if (!(precpred(_ctx, 5))) throw new FailedPredicateException(this, "precpred(_ctx, 5)");
+						setState(224);
+						_la = _input.LA(1);
+						if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << GRT) | (1L << GRT_EQUAL) | (1L << LESS) | (1L << LESS_EQUAL))) != 0)) ) {
+						_errHandler.recoverInline(this);
+						}
+						consume();
+						setState(225); expr(6);
+						}
+						break;
+					case 4:
+						{
+						_localctx = new BinOpPrec4ExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(226);
+						if (!(precpred(_ctx, 4))) throw new FailedPredicateException(this, "precpred(_ctx, 4)");
+						setState(227);
+						_la = _input.LA(1);
+						if ( !(_la==EQUAL || _la==NOT_EQUAL) ) {
+						_errHandler.recoverInline(this);
+						}
+						consume();
+						setState(228); expr(5);
+						}
+						break;
+					case 5:
+						{
+						_localctx = new BinOpPrec5ExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(229);
+						if (!(precpred(_ctx, 3))) throw new FailedPredicateException(this, "precpred(_ctx, 3)");
+						setState(230); match(AND);
+						setState(231); expr(4);
+						}
+						break;
+					case 6:
+						{
+						_localctx = new BinOpPrec6ExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(232);
+						if (!(precpred(_ctx, 2))) throw new FailedPredicateException(this, "precpred(_ctx, 2)");
+						setState(233); match(OR);
+						setState(234); expr(3);
+						}
+						break;
+					}
+					} 
+				}
+				setState(239);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,16,_ctx);
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			unrollRecursionContexts(_parentctx);
+		}
+		return _localctx;
+	}
+
+	public static class UnaryOperContext extends ParserRuleContext {
+		public TerminalNode UNARY_OPER() { return getToken(WACCParser.UNARY_OPER, 0); }
+		public TerminalNode MINUS() { return getToken(WACCParser.MINUS, 0); }
+		public UnaryOperContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_unaryOper; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitUnaryOper(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final UnaryOperContext unaryOper() throws RecognitionException {
+		UnaryOperContext _localctx = new UnaryOperContext(_ctx, getState());
+		enterRule(_localctx, 30, RULE_unaryOper);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(240);
+			_la = _input.LA(1);
+			if ( !(_la==UNARY_OPER || _la==MINUS) ) {
+			_errHandler.recoverInline(this);
+			}
+			consume();
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class IdentContext extends ParserRuleContext {
+		public TerminalNode IDENT() { return getToken(WACCParser.IDENT, 0); }
+		public IdentContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_ident; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitIdent(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final IdentContext ident() throws RecognitionException {
+		IdentContext _localctx = new IdentContext(_ctx, getState());
+		enterRule(_localctx, 32, RULE_ident);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(242); match(IDENT);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ArrayElemContext extends ParserRuleContext {
+		public TerminalNode OPEN_SQUARE_BR(int i) {
+			return getToken(WACCParser.OPEN_SQUARE_BR, i);
+		}
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public List<TerminalNode> CLOSE_SQUARE_BR() { return getTokens(WACCParser.CLOSE_SQUARE_BR); }
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public IdentContext ident() {
+			return getRuleContext(IdentContext.class,0);
+		}
+		public TerminalNode CLOSE_SQUARE_BR(int i) {
+			return getToken(WACCParser.CLOSE_SQUARE_BR, i);
+		}
+		public List<TerminalNode> OPEN_SQUARE_BR() { return getTokens(WACCParser.OPEN_SQUARE_BR); }
+		public ArrayElemContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_arrayElem; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitArrayElem(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ArrayElemContext arrayElem() throws RecognitionException {
+		ArrayElemContext _localctx = new ArrayElemContext(_ctx, getState());
+		enterRule(_localctx, 34, RULE_arrayElem);
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(244); ident();
+			setState(249); 
+			_errHandler.sync(this);
+			_alt = 1;
+			do {
+				switch (_alt) {
+				case 1:
+					{
+					{
+					setState(245); match(OPEN_SQUARE_BR);
+					setState(246); expr(0);
+					setState(247); match(CLOSE_SQUARE_BR);
+					}
+					}
+					break;
+				default:
+					throw new NoViableAltException(this);
+				}
+				setState(251); 
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,17,_ctx);
+			} while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER );
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class IntLiterContext extends ParserRuleContext {
+		public Token INT_LITER;
+		public TerminalNode INT_LITER() { return getToken(WACCParser.INT_LITER, 0); }
+		public IntLiterContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_intLiter; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitIntLiter(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final IntLiterContext intLiter() throws RecognitionException {
+		IntLiterContext _localctx = new IntLiterContext(_ctx, getState());
+		enterRule(_localctx, 36, RULE_intLiter);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(253); ((IntLiterContext)_localctx).INT_LITER = match(INT_LITER);
+
+			  long n = Long.parseLong(((IntLiterContext)_localctx).INT_LITER.getText());
+			  if (n > Integer.MAX_VALUE || n < Integer.MIN_VALUE) {
+			    notifyErrorListeners("Syntactic Error at " + ((IntLiterContext)_localctx).INT_LITER.getLine() + ":" + ((IntLiterContext)_localctx).INT_LITER.getCharPositionInLine() + " -- " + "Integer value " + n + " is too large for a 32-bit signed integer");
+			  }
+
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class BoolLiterContext extends ParserRuleContext {
+		public TerminalNode BOOL_LITER() { return getToken(WACCParser.BOOL_LITER, 0); }
+		public BoolLiterContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_boolLiter; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitBoolLiter(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final BoolLiterContext boolLiter() throws RecognitionException {
+		BoolLiterContext _localctx = new BoolLiterContext(_ctx, getState());
+		enterRule(_localctx, 38, RULE_boolLiter);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(256); match(BOOL_LITER);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class CharLiterContext extends ParserRuleContext {
+		public TerminalNode CHAR_LITER() { return getToken(WACCParser.CHAR_LITER, 0); }
+		public CharLiterContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_charLiter; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitCharLiter(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final CharLiterContext charLiter() throws RecognitionException {
+		CharLiterContext _localctx = new CharLiterContext(_ctx, getState());
+		enterRule(_localctx, 40, RULE_charLiter);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(258); match(CHAR_LITER);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class StringLiterContext extends ParserRuleContext {
+		public TerminalNode STR_LITER() { return getToken(WACCParser.STR_LITER, 0); }
+		public StringLiterContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_stringLiter; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitStringLiter(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final StringLiterContext stringLiter() throws RecognitionException {
+		StringLiterContext _localctx = new StringLiterContext(_ctx, getState());
+		enterRule(_localctx, 42, RULE_stringLiter);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(260); match(STR_LITER);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ArrayLiterContext extends ParserRuleContext {
+		public TerminalNode CLOSE_SQUARE_BR() { return getToken(WACCParser.CLOSE_SQUARE_BR, 0); }
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public List<TerminalNode> COMMA() { return getTokens(WACCParser.COMMA); }
+		public TerminalNode OPEN_SQUARE_BR() { return getToken(WACCParser.OPEN_SQUARE_BR, 0); }
+		public TerminalNode COMMA(int i) {
+			return getToken(WACCParser.COMMA, i);
+		}
+		public ArrayLiterContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_arrayLiter; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitArrayLiter(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ArrayLiterContext arrayLiter() throws RecognitionException {
+		ArrayLiterContext _localctx = new ArrayLiterContext(_ctx, getState());
+		enterRule(_localctx, 44, RULE_arrayLiter);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(262); match(OPEN_SQUARE_BR);
+			setState(271);
+			_la = _input.LA(1);
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << NULL) | (1L << UNARY_OPER) | (1L << MINUS) | (1L << OPEN_PARENTHESES) | (1L << BOOL_LITER) | (1L << IDENT) | (1L << INT_LITER) | (1L << CHAR_LITER) | (1L << STR_LITER))) != 0)) {
+				{
+				setState(263); expr(0);
+				setState(268);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==COMMA) {
+					{
+					{
+					setState(264); match(COMMA);
+					setState(265); expr(0);
+					}
+					}
+					setState(270);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+			}
+
+			setState(273); match(CLOSE_SQUARE_BR);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class PairLiterContext extends ParserRuleContext {
+		public TerminalNode NULL() { return getToken(WACCParser.NULL, 0); }
+		public PairLiterContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_pairLiter; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof WACCParserVisitor ) return ((WACCParserVisitor<? extends T>)visitor).visitPairLiter(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final PairLiterContext pairLiter() throws RecognitionException {
+		PairLiterContext _localctx = new PairLiterContext(_ctx, getState());
+		enterRule(_localctx, 46, RULE_pairLiter);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(275); match(NULL);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public boolean sempred(RuleContext _localctx, int ruleIndex, int predIndex) {
+		switch (ruleIndex) {
+		case 4: return stat_sempred((StatContext)_localctx, predIndex);
+		case 14: return expr_sempred((ExprContext)_localctx, predIndex);
+		}
+		return true;
+	}
+	private boolean stat_sempred(StatContext _localctx, int predIndex) {
+		switch (predIndex) {
+		case 0: return precpred(_ctx, 1);
+		}
+		return true;
+	}
+	private boolean expr_sempred(ExprContext _localctx, int predIndex) {
+		switch (predIndex) {
+		case 1: return precpred(_ctx, 7);
+		case 2: return precpred(_ctx, 6);
+		case 3: return precpred(_ctx, 5);
+		case 4: return precpred(_ctx, 4);
+		case 5: return precpred(_ctx, 3);
+		case 6: return precpred(_ctx, 2);
+		}
+		return true;
+	}
+
+	public static final String _serializedATN =
+		"\3\u0430\ud6d1\u8206\uad2d\u4417\uaef1\u8d80\uaadd\38\u0118\4\2\t\2\4"+
+		"\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13\t"+
+		"\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
+		"\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31\t\31"+
+		"\3\2\3\2\7\2\65\n\2\f\2\16\28\13\2\3\2\3\2\3\2\3\2\3\3\3\3\3\3\3\3\5\3"+
+		"B\n\3\3\3\3\3\3\3\3\3\3\3\3\4\3\4\3\4\7\4L\n\4\f\4\16\4O\13\4\3\5\3\5"+
+		"\3\5\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3"+
+		"\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6\3\6"+
+		"\3\6\3\6\3\6\3\6\3\6\3\6\3\6\5\6}\n\6\3\6\3\6\3\6\7\6\u0082\n\6\f\6\16"+
+		"\6\u0085\13\6\3\7\3\7\3\7\5\7\u008a\n\7\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3"+
+		"\b\3\b\3\b\3\b\3\b\3\b\3\b\5\b\u009a\n\b\3\b\3\b\5\b\u009e\n\b\3\t\3\t"+
+		"\3\t\7\t\u00a3\n\t\f\t\16\t\u00a6\13\t\3\n\3\n\3\n\3\n\5\n\u00ac\n\n\3"+
+		"\13\3\13\3\13\5\13\u00b1\n\13\3\f\3\f\3\r\3\r\5\r\u00b7\n\r\3\r\3\r\6"+
+		"\r\u00bb\n\r\r\r\16\r\u00bc\3\16\3\16\3\16\3\16\3\16\3\16\3\16\3\17\3"+
+		"\17\3\17\5\17\u00c9\n\17\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20"+
+		"\3\20\3\20\3\20\3\20\3\20\3\20\5\20\u00da\n\20\3\20\3\20\3\20\3\20\3\20"+
+		"\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\7\20"+
+		"\u00ee\n\20\f\20\16\20\u00f1\13\20\3\21\3\21\3\22\3\22\3\23\3\23\3\23"+
+		"\3\23\3\23\6\23\u00fc\n\23\r\23\16\23\u00fd\3\24\3\24\3\24\3\25\3\25\3"+
+		"\26\3\26\3\27\3\27\3\30\3\30\3\30\3\30\7\30\u010d\n\30\f\30\16\30\u0110"+
+		"\13\30\5\30\u0112\n\30\3\30\3\30\3\31\3\31\3\31\2\4\n\36\32\2\4\6\b\n"+
+		"\f\16\20\22\24\26\30\32\34\36 \"$&(*,.\60\2\7\3\2\34\36\3\2\37 \3\2!$"+
+		"\3\2%&\4\2\33\33  \u012e\2\62\3\2\2\2\4=\3\2\2\2\6H\3\2\2\2\bP\3\2\2\2"+
+		"\n|\3\2\2\2\f\u0089\3\2\2\2\16\u009d\3\2\2\2\20\u009f\3\2\2\2\22\u00ab"+
+		"\3\2\2\2\24\u00b0\3\2\2\2\26\u00b2\3\2\2\2\30\u00b6\3\2\2\2\32\u00be\3"+
+		"\2\2\2\34\u00c8\3\2\2\2\36\u00d9\3\2\2\2 \u00f2\3\2\2\2\"\u00f4\3\2\2"+
+		"\2$\u00f6\3\2\2\2&\u00ff\3\2\2\2(\u0102\3\2\2\2*\u0104\3\2\2\2,\u0106"+
+		"\3\2\2\2.\u0108\3\2\2\2\60\u0115\3\2\2\2\62\66\7\3\2\2\63\65\5\4\3\2\64"+
+		"\63\3\2\2\2\658\3\2\2\2\66\64\3\2\2\2\66\67\3\2\2\2\679\3\2\2\28\66\3"+
+		"\2\2\29:\5\n\6\2:;\7\4\2\2;<\7\2\2\3<\3\3\2\2\2=>\5\24\13\2>?\5\"\22\2"+
+		"?A\7)\2\2@B\5\6\4\2A@\3\2\2\2AB\3\2\2\2BC\3\2\2\2CD\7*\2\2DE\7\5\2\2E"+
+		"F\5\n\6\2FG\7\4\2\2G\5\3\2\2\2HM\5\b\5\2IJ\7/\2\2JL\5\b\5\2KI\3\2\2\2"+
+		"LO\3\2\2\2MK\3\2\2\2MN\3\2\2\2N\7\3\2\2\2OM\3\2\2\2PQ\5\24\13\2QR\5\""+
+		"\22\2R\t\3\2\2\2ST\b\6\1\2T}\7\6\2\2UV\5\24\13\2VW\5\"\22\2WX\7-\2\2X"+
+		"Y\5\16\b\2Y}\3\2\2\2Z[\5\f\7\2[\\\7-\2\2\\]\5\16\b\2]}\3\2\2\2^_\7\7\2"+
+		"\2_}\5\f\7\2`a\7\b\2\2a}\5\36\20\2bc\7\t\2\2c}\5\36\20\2de\7\n\2\2e}\5"+
+		"\36\20\2fg\7\13\2\2g}\5\36\20\2hi\7\f\2\2i}\5\36\20\2jk\7\r\2\2kl\5\36"+
+		"\20\2lm\7\16\2\2mn\5\n\6\2no\7\17\2\2op\5\n\6\2pq\7\20\2\2q}\3\2\2\2r"+
+		"s\7\21\2\2st\5\36\20\2tu\7\22\2\2uv\5\n\6\2vw\7\23\2\2w}\3\2\2\2xy\7\3"+
+		"\2\2yz\5\n\6\2z{\7\4\2\2{}\3\2\2\2|S\3\2\2\2|U\3\2\2\2|Z\3\2\2\2|^\3\2"+
+		"\2\2|`\3\2\2\2|b\3\2\2\2|d\3\2\2\2|f\3\2\2\2|h\3\2\2\2|j\3\2\2\2|r\3\2"+
+		"\2\2|x\3\2\2\2}\u0083\3\2\2\2~\177\f\3\2\2\177\u0080\7.\2\2\u0080\u0082"+
+		"\5\n\6\4\u0081~\3\2\2\2\u0082\u0085\3\2\2\2\u0083\u0081\3\2\2\2\u0083"+
+		"\u0084\3\2\2\2\u0084\13\3\2\2\2\u0085\u0083\3\2\2\2\u0086\u008a\5\"\22"+
+		"\2\u0087\u008a\5$\23\2\u0088\u008a\5\22\n\2\u0089\u0086\3\2\2\2\u0089"+
+		"\u0087\3\2\2\2\u0089\u0088\3\2\2\2\u008a\r\3\2\2\2\u008b\u009e\5\36\20"+
+		"\2\u008c\u009e\5.\30\2\u008d\u008e\7\24\2\2\u008e\u008f\7)\2\2\u008f\u0090"+
+		"\5\36\20\2\u0090\u0091\7/\2\2\u0091\u0092\5\36\20\2\u0092\u0093\7*\2\2"+
+		"\u0093\u009e\3\2\2\2\u0094\u009e\5\22\n\2\u0095\u0096\7\25\2\2\u0096\u0097"+
+		"\5\"\22\2\u0097\u0099\7)\2\2\u0098\u009a\5\20\t\2\u0099\u0098\3\2\2\2"+
+		"\u0099\u009a\3\2\2\2\u009a\u009b\3\2\2\2\u009b\u009c\7*\2\2\u009c\u009e"+
+		"\3\2\2\2\u009d\u008b\3\2\2\2\u009d\u008c\3\2\2\2\u009d\u008d\3\2\2\2\u009d"+
+		"\u0094\3\2\2\2\u009d\u0095\3\2\2\2\u009e\17\3\2\2\2\u009f\u00a4\5\36\20"+
+		"\2\u00a0\u00a1\7/\2\2\u00a1\u00a3\5\36\20\2\u00a2\u00a0\3\2\2\2\u00a3"+
+		"\u00a6\3\2\2\2\u00a4\u00a2\3\2\2\2\u00a4\u00a5\3\2\2\2\u00a5\21\3\2\2"+
+		"\2\u00a6\u00a4\3\2\2\2\u00a7\u00a8\7\26\2\2\u00a8\u00ac\5\36\20\2\u00a9"+
+		"\u00aa\7\27\2\2\u00aa\u00ac\5\36\20\2\u00ab\u00a7\3\2\2\2\u00ab\u00a9"+
+		"\3\2\2\2\u00ac\23\3\2\2\2\u00ad\u00b1\5\26\f\2\u00ae\u00b1\5\30\r\2\u00af"+
+		"\u00b1\5\32\16\2\u00b0\u00ad\3\2\2\2\u00b0\u00ae\3\2\2\2\u00b0\u00af\3"+
+		"\2\2\2\u00b1\25\3\2\2\2\u00b2\u00b3\7\32\2\2\u00b3\27\3\2\2\2\u00b4\u00b7"+
+		"\5\26\f\2\u00b5\u00b7\5\32\16\2\u00b6\u00b4\3\2\2\2\u00b6\u00b5\3\2\2"+
+		"\2\u00b7\u00ba\3\2\2\2\u00b8\u00b9\7+\2\2\u00b9\u00bb\7,\2\2\u00ba\u00b8"+
+		"\3\2\2\2\u00bb\u00bc\3\2\2\2\u00bc\u00ba\3\2\2\2\u00bc\u00bd\3\2\2\2\u00bd"+
+		"\31\3\2\2\2\u00be\u00bf\7\30\2\2\u00bf\u00c0\7)\2\2\u00c0\u00c1\5\34\17"+
+		"\2\u00c1\u00c2\7/\2\2\u00c2\u00c3\5\34\17\2\u00c3\u00c4\7*\2\2\u00c4\33"+
+		"\3\2\2\2\u00c5\u00c9\5\26\f\2\u00c6\u00c9\5\30\r\2\u00c7\u00c9\7\30\2"+
+		"\2\u00c8\u00c5\3\2\2\2\u00c8\u00c6\3\2\2\2\u00c8\u00c7\3\2\2\2\u00c9\35"+
+		"\3\2\2\2\u00ca\u00cb\b\20\1\2\u00cb\u00cc\5 \21\2\u00cc\u00cd\5\36\20"+
+		"\n\u00cd\u00da\3\2\2\2\u00ce\u00da\5&\24\2\u00cf\u00da\5(\25\2\u00d0\u00da"+
+		"\5*\26\2\u00d1\u00da\5,\27\2\u00d2\u00da\5\60\31\2\u00d3\u00da\5\"\22"+
+		"\2\u00d4\u00da\5$\23\2\u00d5\u00d6\7)\2\2\u00d6\u00d7\5\36\20\2\u00d7"+
+		"\u00d8\7*\2\2\u00d8\u00da\3\2\2\2\u00d9\u00ca\3\2\2\2\u00d9\u00ce\3\2"+
+		"\2\2\u00d9\u00cf\3\2\2\2\u00d9\u00d0\3\2\2\2\u00d9\u00d1\3\2\2\2\u00d9"+
+		"\u00d2\3\2\2\2\u00d9\u00d3\3\2\2\2\u00d9\u00d4\3\2\2\2\u00d9\u00d5\3\2"+
+		"\2\2\u00da\u00ef\3\2\2\2\u00db\u00dc\f\t\2\2\u00dc\u00dd\t\2\2\2\u00dd"+
+		"\u00ee\5\36\20\n\u00de\u00df\f\b\2\2\u00df\u00e0\t\3\2\2\u00e0\u00ee\5"+
+		"\36\20\t\u00e1\u00e2\f\7\2\2\u00e2\u00e3\t\4\2\2\u00e3\u00ee\5\36\20\b"+
+		"\u00e4\u00e5\f\6\2\2\u00e5\u00e6\t\5\2\2\u00e6\u00ee\5\36\20\7\u00e7\u00e8"+
+		"\f\5\2\2\u00e8\u00e9\7\'\2\2\u00e9\u00ee\5\36\20\6\u00ea\u00eb\f\4\2\2"+
+		"\u00eb\u00ec\7(\2\2\u00ec\u00ee\5\36\20\5\u00ed\u00db\3\2\2\2\u00ed\u00de"+
+		"\3\2\2\2\u00ed\u00e1\3\2\2\2\u00ed\u00e4\3\2\2\2\u00ed\u00e7\3\2\2\2\u00ed"+
+		"\u00ea\3\2\2\2\u00ee\u00f1\3\2\2\2\u00ef\u00ed\3\2\2\2\u00ef\u00f0\3\2"+
+		"\2\2\u00f0\37\3\2\2\2\u00f1\u00ef\3\2\2\2\u00f2\u00f3\t\6\2\2\u00f3!\3"+
+		"\2\2\2\u00f4\u00f5\7\63\2\2\u00f5#\3\2\2\2\u00f6\u00fb\5\"\22\2\u00f7"+
+		"\u00f8\7+\2\2\u00f8\u00f9\5\36\20\2\u00f9\u00fa\7,\2\2\u00fa\u00fc\3\2"+
+		"\2\2\u00fb\u00f7\3\2\2\2\u00fc\u00fd\3\2\2\2\u00fd\u00fb\3\2\2\2\u00fd"+
+		"\u00fe\3\2\2\2\u00fe%\3\2\2\2\u00ff\u0100\7\64\2\2\u0100\u0101\b\24\1"+
+		"\2\u0101\'\3\2\2\2\u0102\u0103\7\62\2\2\u0103)\3\2\2\2\u0104\u0105\7\65"+
+		"\2\2\u0105+\3\2\2\2\u0106\u0107\7\66\2\2\u0107-\3\2\2\2\u0108\u0111\7"+
+		"+\2\2\u0109\u010e\5\36\20\2\u010a\u010b\7/\2\2\u010b\u010d\5\36\20\2\u010c"+
+		"\u010a\3\2\2\2\u010d\u0110\3\2\2\2\u010e\u010c\3\2\2\2\u010e\u010f\3\2"+
+		"\2\2\u010f\u0112\3\2\2\2\u0110\u010e\3\2\2\2\u0111\u0109\3\2\2\2\u0111"+
+		"\u0112\3\2\2\2\u0112\u0113\3\2\2\2\u0113\u0114\7,\2\2\u0114/\3\2\2\2\u0115"+
+		"\u0116\7\31\2\2\u0116\61\3\2\2\2\26\66AM|\u0083\u0089\u0099\u009d\u00a4"+
+		"\u00ab\u00b0\u00b6\u00bc\u00c8\u00d9\u00ed\u00ef\u00fd\u010e\u0111";
+	public static final ATN _ATN =
+		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
+	static {
+		_decisionToDFA = new DFA[_ATN.getNumberOfDecisions()];
+		for (int i = 0; i < _ATN.getNumberOfDecisions(); i++) {
+			_decisionToDFA[i] = new DFA(_ATN.getDecisionState(i), i);
+		}
+	}
+}
\ No newline at end of file
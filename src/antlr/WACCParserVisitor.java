@@ -0,0 +1,386 @@
+// Generated from ./WACCParser.g4 by ANTLR 4.4
+package antlr;
+import org.antlr.v4.runtime.misc.NotNull;
+import org.antlr.v4.runtime.tree.ParseTreeVisitor;
+
+/**
+ * This interface defines a complete generic visitor for a parse tree produced
+ * by {@link WACCParser}.
+ *
+ * @param <T> The return type of the visit operation. Use {@link Void} for
+ * operations with no return type.
+ */
+public interface WACCParserVisitor<T> extends ParseTreeVisitor<T> {
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#argList}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitArgList(@NotNull WACCParser.ArgListContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code BinOpPrec4Expr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBinOpPrec4Expr(@NotNull WACCParser.BinOpPrec4ExprContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#arrayLiter}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitArrayLiter(@NotNull WACCParser.ArrayLiterContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#arrayElem}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitArrayElem(@NotNull WACCParser.ArrayElemContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code RhsPairElem}
+	 * labeled alternative in {@link WACCParser#assignRhs}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitRhsPairElem(@NotNull WACCParser.RhsPairElemContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#unaryOper}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitUnaryOper(@NotNull WACCParser.UnaryOperContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#ident}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIdent(@NotNull WACCParser.IdentContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code VarDeclStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitVarDeclStat(@NotNull WACCParser.VarDeclStatContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#program}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitProgram(@NotNull WACCParser.ProgramContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code LhsIdent}
+	 * labeled alternative in {@link WACCParser#assignLhs}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitLhsIdent(@NotNull WACCParser.LhsIdentContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#type}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitType(@NotNull WACCParser.TypeContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code BinOpPrec5Expr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBinOpPrec5Expr(@NotNull WACCParser.BinOpPrec5ExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code ReadStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitReadStat(@NotNull WACCParser.ReadStatContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code PrintlnStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitPrintlnStat(@NotNull WACCParser.PrintlnStatContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#stringLiter}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitStringLiter(@NotNull WACCParser.StringLiterContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code BinOpPrec2Expr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBinOpPrec2Expr(@NotNull WACCParser.BinOpPrec2ExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code BinOpPrec6Expr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBinOpPrec6Expr(@NotNull WACCParser.BinOpPrec6ExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code PairExpr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitPairExpr(@NotNull WACCParser.PairExprContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#arrayType}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitArrayType(@NotNull WACCParser.ArrayTypeContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code LhsPairElem}
+	 * labeled alternative in {@link WACCParser#assignLhs}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitLhsPairElem(@NotNull WACCParser.LhsPairElemContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code FreeStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitFreeStat(@NotNull WACCParser.FreeStatContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code SkipStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitSkipStat(@NotNull WACCParser.SkipStatContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code WhileStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitWhileStat(@NotNull WACCParser.WhileStatContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#pairElemType}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitPairElemType(@NotNull WACCParser.PairElemTypeContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code RhsArrayLiter}
+	 * labeled alternative in {@link WACCParser#assignRhs}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitRhsArrayLiter(@NotNull WACCParser.RhsArrayLiterContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code BinOpPrec3Expr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBinOpPrec3Expr(@NotNull WACCParser.BinOpPrec3ExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code CompStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitCompStat(@NotNull WACCParser.CompStatContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#paramList}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitParamList(@NotNull WACCParser.ParamListContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code IntExpr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIntExpr(@NotNull WACCParser.IntExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code ReturnStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitReturnStat(@NotNull WACCParser.ReturnStatContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code BoolExpr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBoolExpr(@NotNull WACCParser.BoolExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code StringExpr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitStringExpr(@NotNull WACCParser.StringExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code UnOpExpr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitUnOpExpr(@NotNull WACCParser.UnOpExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code ArrayElemExpr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitArrayElemExpr(@NotNull WACCParser.ArrayElemExprContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#intLiter}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIntLiter(@NotNull WACCParser.IntLiterContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#baseType}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBaseType(@NotNull WACCParser.BaseTypeContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code LhsArrayElem}
+	 * labeled alternative in {@link WACCParser#assignLhs}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitLhsArrayElem(@NotNull WACCParser.LhsArrayElemContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code RhsNewPair}
+	 * labeled alternative in {@link WACCParser#assignRhs}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitRhsNewPair(@NotNull WACCParser.RhsNewPairContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#pairLiter}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitPairLiter(@NotNull WACCParser.PairLiterContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#param}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitParam(@NotNull WACCParser.ParamContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code PrintStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitPrintStat(@NotNull WACCParser.PrintStatContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code ScopingStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitScopingStat(@NotNull WACCParser.ScopingStatContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#charLiter}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitCharLiter(@NotNull WACCParser.CharLiterContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#pairElem}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitPairElem(@NotNull WACCParser.PairElemContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code RhsExpr}
+	 * labeled alternative in {@link WACCParser#assignRhs}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitRhsExpr(@NotNull WACCParser.RhsExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code ExitStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitExitStat(@NotNull WACCParser.ExitStatContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code IdentExpr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIdentExpr(@NotNull WACCParser.IdentExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code IfStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIfStat(@NotNull WACCParser.IfStatContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code BinOpPrec1Expr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBinOpPrec1Expr(@NotNull WACCParser.BinOpPrec1ExprContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#boolLiter}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBoolLiter(@NotNull WACCParser.BoolLiterContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#pairType}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitPairType(@NotNull WACCParser.PairTypeContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code CharExpr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitCharExpr(@NotNull WACCParser.CharExprContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code RhsCall}
+	 * labeled alternative in {@link WACCParser#assignRhs}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitRhsCall(@NotNull WACCParser.RhsCallContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code AssignStat}
+	 * labeled alternative in {@link WACCParser#stat}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitAssignStat(@NotNull WACCParser.AssignStatContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link WACCParser#func}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitFunc(@NotNull WACCParser.FuncContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code ParensExpr}
+	 * labeled alternative in {@link WACCParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitParensExpr(@NotNull WACCParser.ParensExprContext ctx);
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package wacc.visitor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Compiles a whole directory (or list) of programs on a work-stealing pool.
+// Every file gets its own lexer, parser and CodeWriter, the results are
+// reported per file in the order the files were given (directories sorted by
+// name) regardless of the order in which they finished.
+//
+// usage: BatchCompiler [--cache directory] [-d outputDirectory]
+//                      (file | directory)...
+public class BatchCompiler {
+
+  private static final int UNEXPECTED_ERROR = 1;
+
+  private final File[] sources;
+  private final File[] outputs;
+  private final int[] exitCodes;
+  private final String[] messages;
+  private final Options options;
+
+  public BatchCompiler(List<File> sources, List<File> outputs,
+      Options options) {
+    this.sources = sources.toArray(new File[sources.size()]);
+    this.outputs = outputs.toArray(new File[outputs.size()]);
+    this.exitCodes = new int[this.sources.length];
+    this.messages = new String[this.sources.length];
+    this.options = options;
+  }
+
+  public static void main(String[] args) throws Exception {
+    File outputDirectory = new File(".");
+    List<File> sources = new ArrayList<>();
+    List<File> outputs = new ArrayList<>();
+    Options options = Options.parse(args);
+    List<String> files = options.getFiles();
+    for (int i = 0; i < files.size(); i++) {
+      if (files.get(i).equals("-d")) {
+        outputDirectory = new File(files.get(++i));
+        continue;
+      }
+      File file = new File(files.get(i));
+      if (file.isDirectory()) {
+        addDirectory(file, outputDirectory, sources, outputs);
+      } else {
+        sources.add(file);
+        outputs.add(new File(outputDirectory,
+            WACCCompiler.getOutputName(file.getName())));
+      }
+    }
+
+    BatchCompiler batch = new BatchCompiler(sources, outputs, options);
+    batch.compileAll();
+    System.exit(batch.report(System.out));
+  }
+
+  // collect every .wacc file below dir, keeping the directory layout below out
+  private static void addDirectory(File dir, File out, List<File> sources,
+      List<File> outputs) {
+    File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+    Arrays.sort(files);
+    for (File file : files) {
+      if (file.isDirectory()) {
+        addDirectory(file, new File(out, file.getName()), sources, outputs);
+      } else if (file.getName().endsWith(".wacc")) {
+        sources.add(file);
+        outputs.add(new File(out, WACCCompiler.getOutputName(file.getName())));
+      }
+    }
+  }
+
+  public void compileAll() {
+    ForkJoinPool.commonPool().invoke(new CompileTask(0, sources.length));
+  }
+
+  // prints the result of every file in order and returns the worst exit code
+  public int report(PrintStream out) {
+    int worst = WACCCompiler.SUCCESS;
+    int failed = 0;
+    for (int i = 0; i < sources.length; i++) {
+      out.println(sources[i].getPath() + ": exit code " + exitCodes[i]);
+      out.print(messages[i]);
+      if (exitCodes[i] != WACCCompiler.SUCCESS) {
+        failed++;
+      }
+      worst = Math.max(worst, exitCodes[i]);
+    }
+    out.println(sources.length + " file(s) compiled, " + failed
+        + " with errors.");
+    return worst;
+  }
+
+  private void compile(int i) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(buffer, true);
+    try {
+      File parent = outputs[i].getAbsoluteFile().getParentFile();
+      if (!parent.isDirectory() && !parent.mkdirs()) {
+        throw new IOException("Cannot create directory " + parent);
+      }
+      exitCodes[i] = WACCCompiler.compile(
+          new MappedCharStream(sources[i].getPath()), outputs[i], out, options);
+    } catch (Throwable e) {
+      // a deeply nested program only overflows the stack of its own
+      // compilation, but other VM errors leave nothing to compile the rest with
+      if (e instanceof VirtualMachineError
+          && !(e instanceof StackOverflowError)) {
+        throw (VirtualMachineError) e;
+      }
+      out.println(e);
+      exitCodes[i] = UNEXPECTED_ERROR;
+    }
+    messages[i] = buffer.toString();
+  }
+
+  @SuppressWarnings("serial")
+  private class CompileTask extends RecursiveAction {
+
+    private final int from;
+    private final int to;
+
+    CompileTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        compile(from);
+      } else if (to - from > 1) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new CompileTask(from, mid), new CompileTask(mid, to));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+package wacc.visitor;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+// CharStream over a memory-mapped source file. The lexer reads straight from
+// the page cache, so unlike ANTLRInputStream/ANTLRFileStream the program is
+// never copied into a char[] on the heap. WACC sources are ASCII, every byte is
+// read as one character (ISO-8859-1).
+public class MappedCharStream implements CharStream {
+
+  private final MappedByteBuffer data;
+  private final int n;
+  private final String name;
+  private int p;
+
+  public MappedCharStream(String fileName) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(fileName + " is too large to be compiled");
+      }
+      this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      this.n = (int) size;
+    }
+    this.name = fileName;
+    this.p = 0;
+  }
+
+  @Override
+  public void consume() {
+    if (p >= n) {
+      throw new IllegalStateException("cannot consume EOF");
+    }
+    p++;
+  }
+
+  @Override
+  public int LA(int i) {
+    if (i == 0) {
+      return 0;
+    }
+    if (i < 0) {
+      i++; // e.g., translate LA(-1) to use offset i=0; then data[p+0-1]
+    }
+    int index = p + i - 1;
+    if (index < 0 || index >= n) {
+      return IntStream.EOF;
+    }
+    return data.get(index) & 0xFF;
+  }
+
+  @Override
+  public int mark() {
+    // the whole file is mapped, there is nothing to buffer
+    return -1;
+  }
+
+  @Override
+  public void release(int marker) {
+  }
+
+  @Override
+  public int index() {
+    return p;
+  }
+
+  @Override
+  public void seek(int index) {
+    p = Math.min(index, n);
+  }
+
+  @Override
+  public int size() {
+    return n;
+  }
+
+  @Override
+  public String getSourceName() {
+    return name;
+  }
+
+  @Override
+  public String getText(Interval interval) {
+    int start = interval.a;
+    int stop = Math.min(interval.b, n - 1);
+    if (start >= n || stop < start) {
+      return "";
+    }
+    byte[] bytes = new byte[stop - start + 1];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = data.get(start + i);
+    }
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  @Override
+  public String toString() {
+    return getText(Interval.of(0, n - 1));
+  }
+
+}
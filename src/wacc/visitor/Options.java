@@ -0,0 +1,97 @@
+package wacc.visitor;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+// Command line options shared by every entry point of the compiler, anything
+// that is not an option is collected as an input file.
+public class Options {
+
+  private File cacheDirectory;
+  private boolean streaming;
+  private int level;
+  private List<String> peepholeRules;
+  private boolean stats;
+  private boolean arena;
+  private final List<String> files = new ArrayList<>();
+
+  public static Options parse(String[] args) {
+    Options options = new Options();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--cache":
+          options.cacheDirectory = new File(args[++i]);
+          break;
+        case "--stream":
+          options.streaming = true;
+          break;
+        case "--peephole":
+          options.peepholeRules = new ArrayList<>();
+          for (String rule : args[++i].split(",")) {
+            if (!rule.isEmpty() && !rule.equals("none")) {
+              options.peepholeRules.add(rule);
+            }
+          }
+          break;
+        case "--stats":
+          options.stats = true;
+          break;
+        case "--arena":
+          options.arena = true;
+          break;
+        default:
+          if (args[i].matches("-O\\d")) {
+            options.level = args[i].charAt(2) - '0';
+          } else {
+            options.files.add(args[i]);
+          }
+          break;
+      }
+    }
+    return options;
+  }
+
+  // directory of the incremental compilation cache, null if disabled
+  public File getCacheDirectory() {
+    return cacheDirectory;
+  }
+
+  // whether the assembly is written out function by function, see CodeWriter
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  // the optimisation level given by -O<n>, 0 by default
+  public int getLevel() {
+    return level;
+  }
+
+  // the names of the peephole rules given by --peephole, null if the rules
+  // are chosen by the optimisation level
+  public List<String> getPeepholeRules() {
+    return peepholeRules;
+  }
+
+  // whether the optimisers report what they did after each compile
+  public boolean isPrintingStats() {
+    return stats;
+  }
+
+  // whether the generated program allocates from an arena of its own and
+  // prints what it allocated at exit, see CodeWriter.p_arena_alloc
+  public boolean isUsingArena() {
+    return arena;
+  }
+
+  // the options that change the generated code, part of every cache key
+  public String getCodeKey() {
+    return "-O" + level + " --peephole " + peepholeRules
+        + (arena ? " --arena" : "");
+  }
+
+  public List<String> getFiles() {
+    return files;
+  }
+
+}
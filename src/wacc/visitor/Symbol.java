@@ -0,0 +1,49 @@
+package wacc.visitor;
+
+import wacc.visitor.code_generator.VReg;
+import wacc.visitor.type.Type;
+
+// A declared variable or parameter. Semantic analysis binds every occurrence
+// of the variable to its Symbol, so later passes never look names up again.
+// The offset is the position of the variable relative to the stack pointer at
+// the start of the enclosing function, it is assigned by the code generator.
+// A scalar local that is never read into is kept in a register instead.
+public class Symbol {
+
+  private final Type type;
+  private final int depth;
+  private int offset;
+  private VReg reg;
+
+  public Symbol(Type type, int depth) {
+    this.type = type;
+    this.depth = depth;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  // depth of the scope the variable is declared in, 0 is the program scope
+  public int getDepth() {
+    return depth;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public void setOffset(int offset) {
+    this.offset = offset;
+  }
+
+  // the register the variable is kept in, null if it is on the stack
+  public VReg getReg() {
+    return reg;
+  }
+
+  public void setReg(VReg reg) {
+    this.reg = reg;
+  }
+
+}
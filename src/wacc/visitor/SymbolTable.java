@@ -1,94 +1,111 @@
 package wacc.visitor;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import org.antlr.v4.runtime.misc.MultiMap;
+import java.util.Map;
 
 import antlr.WACCParser.FuncContext;
-import antlr.WACCParser.TypeContext;
+import wacc.visitor.type.Type;
 
 public class SymbolTable {
 
   private final SymbolTable encSymTable;
-  private final MultiMap<String, Object> dict = new MultiMap<>();
+  private final int depth;
+  private final Map<String, Symbol> variables = new HashMap<>();
+  // overloads of every function name indexed by their parameter types
+  private final Map<String, Map<List<Type>, FuncContext>> functions =
+      new HashMap<>();
 
   public SymbolTable(SymbolTable st) {
     encSymTable = st;
+    depth = st == null ? 0 : st.depth + 1;
   }
 
   public SymbolTable getEncSymTable() {
     return encSymTable;
   }
 
-  public void add(String name, Object object) {
-    dict.map(name, object);
+  public int getDepth() {
+    return depth;
   }
 
-  private Object lookup(String name, Class<?> c) {
-    List<Object> objects = dict.get(name);
-    if (objects == null) {
-      return null;
-    }
-    for (Object object : objects) {
-      if (c.isInstance(object)) {
-        if (c.isAssignableFrom(Integer.class)) {
-          if (lookupT(name) != null) {
-            return object;
-          } else {
-            return null;
-          }
-        } else {
-          return object;
-        }
-      }
-    }
-    return null;
+  public void add(String name, Symbol symbol) {
+    variables.put(name, symbol);
   }
 
-  public TypeContext lookupT(String name) {
-    return (TypeContext) lookup(name, TypeContext.class);
+  // adds an overload of name, returns false if one with the same parameter
+  // types is already defined
+  public boolean add(String name, List<Type> paramTypes, FuncContext func) {
+    Map<List<Type>, FuncContext> overloads = functions.get(name);
+    if (overloads == null) {
+      overloads = new LinkedHashMap<>();
+      functions.put(name, overloads);
+    }
+    if (overloads.containsKey(paramTypes)) {
+      return false;
+    }
+    overloads.put(paramTypes, func);
+    return true;
   }
 
-  public Integer lookupI(String name) {
-    return (Integer) lookup(name, Integer.class);
+  // the variable declared in this scope
+  public Symbol lookup(String name) {
+    return variables.get(name);
   }
 
-  private Object lookupAll(String name, Class<?> c) {
+  // the variable visible from this scope
+  public Symbol lookupAll(String name) {
     SymbolTable s = this;
     do {
-      Object object = s.lookup(name, c);
-      if (object != null) {
-        return object;
+      Symbol symbol = s.variables.get(name);
+      if (symbol != null) {
+        return symbol;
       }
       s = s.encSymTable;
     } while (s != null);
     return null;
   }
 
-  public TypeContext lookupAllT(String name) {
-    return (TypeContext) lookupAll(name, TypeContext.class);
+  public boolean isFunction(String name) {
+    SymbolTable s = this;
+    do {
+      if (s.functions.containsKey(name)) {
+        return true;
+      }
+      s = s.encSymTable;
+    } while (s != null);
+    return false;
   }
 
-  public List<FuncContext> lookupAllF(String name) {
-    List<FuncContext> funcs = new ArrayList<>();
+  // the overload of name that can be called with arguments of argTypes
+  public FuncContext lookupAllF(String name, List<Type> argTypes) {
+    boolean hasWildcard = false;
+    for (Type type : argTypes) {
+      hasWildcard |= type.hasWildcard();
+    }
     SymbolTable s = this;
     do {
-      List<Object> objects = s.dict.get(name);
-      if (objects != null) {
-        for (Object object : objects) {
-          if (object instanceof FuncContext) {
-            funcs.add((FuncContext) object);
+      Map<List<Type>, FuncContext> overloads = s.functions.get(name);
+      if (overloads != null) {
+        if (!hasWildcard) {
+          FuncContext func = overloads.get(argTypes);
+          if (func != null) {
+            return func;
+          }
+        } else {
+          // a null argument matches any pair parameter, fall back to the first
+          // overload in order of definition that accepts the arguments
+          for (Map.Entry<List<Type>, FuncContext> e : overloads.entrySet()) {
+            if (e.getKey().equals(argTypes)) {
+              return e.getValue();
+            }
           }
         }
       }
       s = s.encSymTable;
     } while (s != null);
-    return funcs;
-  }
-
-  public Integer lookupAllI(String name) {
-    return (Integer) lookupAll(name, Integer.class);
+    return null;
   }
 
 }
@@ -1,78 +1,23 @@
 package wacc.visitor;
 
-// import ANTLR's runtime libraries
-import org.antlr.v4.runtime.*;
-import org.antlr.v4.runtime.tree.*;
-
-// import antlr package (your code)
-import antlr.*;
-import wacc.visitor.code_generator.*;
-import wacc.visitor.semantic_error.*;
-import wacc.visitor.syntactic_error.*;
-
 import java.io.File;
-import java.io.PrintWriter;
 
 public class Visitor {
   public static void main(String[] args) throws Exception {
 
-    // create a CharStream that reads from standard input
-    ANTLRInputStream input = new ANTLRInputStream(System.in);
-
-    // create a lexer that feeds off of input CharStream
-    WACCLexer lexer = new WACCLexer(input);
-
-    // create a buffer of tokens pulled from the lexer
-    CommonTokenStream tokens = new CommonTokenStream(lexer);
-
-    // create a parser that feeds off the tokens buffer
-    WACCParser parser = new WACCParser(tokens);
-
-    // add an error listener for custom syntactic error messages
-    parser.removeErrorListeners();
-    parser.addErrorListener(SyntacticErrorListener.INSTANCE);
-
-    // begin parsing at program rule
-    ParseTree tree = parser.program();
+    Options options = Options.parse(args);
+    String source = options.getFiles().get(0);
 
-    int numberOfSyntaxErrors = parser.getNumberOfSyntaxErrors();
+    // create a CharStream that reads straight from the mapped source file
+    MappedCharStream input = new MappedCharStream(source);
 
-    // build and run SyntacticVisitor, check functions ended with return or exit
-    try {
-      SyntacticVisitor syntacticVisitor = new SyntacticVisitor();
-      syntacticVisitor.visit(tree);
-    } catch (SyntacticErrorException e) {
-      System.out.println(e.getMessage());
-      numberOfSyntaxErrors++;
-    }
-
-    // exit with code 100 if syntactic error exits
-    if (numberOfSyntaxErrors > 0) {
-      System.out.println(numberOfSyntaxErrors
-          + " parser error(s) detected, no further compilation attempted.");
-      System.exit(100);
-    }
+    // get name of output file
+    File outputFile = new File(WACCCompiler.getOutputName(source));
 
-    // build and run SemanticVisitor, exit with code 200 if semantic error exits
-    try {
-      SemanticVisitor semanticVisitor = new SemanticVisitor();
-      semanticVisitor.visit(tree);
-    } catch (SemanticErrorException e) {
-      System.out.println(e.getMessage());
-      System.exit(200);
+    int exitCode = WACCCompiler.compile(input, outputFile, System.out, options);
+    if (exitCode != WACCCompiler.SUCCESS) {
+      System.exit(exitCode);
     }
 
-    // get name of output file
-    String filename = new File(args[0]).getName().replaceFirst(".wacc", ".s");
-    // create new file for writing
-    PrintWriter file = new PrintWriter(filename, "UTF-8");
-    // Start code generation
-    CodeWriter writer = new CodeWriter(file);
-    CodeGeneratorVisitor codeGeneratorVisitor = new CodeGeneratorVisitor(writer);
-    codeGeneratorVisitor.visit(tree);
-    writer.writeToFile();
-    // close file
-    file.close();
-
   }
 }
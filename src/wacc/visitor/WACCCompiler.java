@@ -0,0 +1,187 @@
+package wacc.visitor;
+
+// import ANTLR's runtime libraries
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.tree.*;
+
+// import antlr package (your code)
+import antlr.*;
+import antlr.WACCParser.ExprContext;
+import antlr.WACCParser.FuncContext;
+import antlr.WACCParser.ProgramContext;
+import wacc.visitor.cache.*;
+import wacc.visitor.code_generator.*;
+import wacc.visitor.constant_folding.*;
+import wacc.visitor.dead_code.*;
+import wacc.visitor.inlining.*;
+import wacc.visitor.null_check.*;
+import wacc.visitor.peephole.*;
+import wacc.visitor.range_analysis.*;
+import wacc.visitor.register_allocation.*;
+import wacc.visitor.semantic_error.*;
+import wacc.visitor.syntactic_error.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class WACCCompiler {
+
+  public static final int SUCCESS = 0;
+  public static final int SYNTACTIC_ERROR = 100;
+  public static final int SEMANTIC_ERROR = 200;
+
+  // compiles a single program, error messages are printed to out and the
+  // assembly is written to outputFile, returns the exit code of the compile
+  public static int compile(CharStream input, File outputFile, PrintStream out,
+      Options options) throws IOException {
+
+    // create a lexer that feeds off of input CharStream
+    WACCLexer lexer = new WACCLexer(input);
+
+    // create a buffer of tokens pulled from the lexer
+    CommonTokenStream tokens = new CommonTokenStream(lexer);
+
+    // create a parser that feeds off the tokens buffer
+    WACCParser parser = new WACCParser(tokens);
+
+    // add an error listener for custom syntactic error messages
+    parser.removeErrorListeners();
+    parser.addErrorListener(new SyntacticErrorListener(out));
+
+    // begin parsing at program rule
+    ProgramContext tree = parser.program();
+
+    int numberOfSyntaxErrors = parser.getNumberOfSyntaxErrors();
+
+    // build and run SyntacticVisitor, check functions ended with return or exit
+    try {
+      SyntacticVisitor syntacticVisitor = new SyntacticVisitor();
+      syntacticVisitor.visit(tree);
+    } catch (SyntacticErrorException e) {
+      out.println(e.getMessage());
+      numberOfSyntaxErrors++;
+    }
+
+    // exit with code 100 if syntactic error exits
+    if (numberOfSyntaxErrors > 0) {
+      out.println(numberOfSyntaxErrors
+          + " parser error(s) detected, no further compilation attempted.");
+      return SYNTACTIC_ERROR;
+    }
+
+    // look up the functions whose code is already in the cache, these have
+    // been checked before and are neither checked nor generated again
+    CompilationCache cache = null;
+    Map<FuncContext, String> keys = null;
+    Map<FuncContext, Fragment> cached = new HashMap<>();
+    if (options.getCacheDirectory() != null) {
+      cache = new CompilationCache(options.getCacheDirectory(),
+          options.getCodeKey(), options.getLevel() >= 1);
+      keys = cache.getKeys(tree);
+      for (FuncContext func : tree.func()) {
+        Fragment fragment = cache.get(keys.get(func), func);
+        if (fragment != null) {
+          cached.put(func, fragment);
+        }
+      }
+    }
+
+    // build and run SemanticVisitor, exit with code 200 if semantic error exits
+    SemanticVisitor semanticVisitor = new SemanticVisitor(cached.keySet());
+    try {
+      semanticVisitor.visit(tree);
+    } catch (SemanticErrorException e) {
+      out.println(e.getMessage());
+      return SEMANTIC_ERROR;
+    }
+
+    // evaluate the expressions known at compile time, find the array indices
+    // that are in bounds, the pairs that are not null and the arithmetic that
+    // cannot overflow and the && and || whose right operand can be skipped,
+    // choose the functions to inline and find the functions that may be
+    // called
+    ParseTreeProperty<Constant> constants = new ParseTreeProperty<>();
+    Set<ExprContext> inBounds = new HashSet<>();
+    Set<ExprContext> nonNull = new HashSet<>();
+    Set<ExprContext> noOverflow = new HashSet<>();
+    Set<ExprContext> shortCircuit = new HashSet<>();
+    Set<FuncContext> inlined = new HashSet<>();
+    Set<FuncContext> reachable = null;
+    if (options.getLevel() >= 1) {
+      ConstantFolder folder =
+          new ConstantFolder(semanticVisitor.getSymbols(), cached.keySet());
+      folder.visit(tree);
+      constants = folder.getConstants();
+      RangeAnalyser ranges =
+          new RangeAnalyser(semanticVisitor.getSymbols(), cached.keySet());
+      ranges.visit(tree);
+      inBounds = ranges.getInBounds();
+      noOverflow = ranges.getNoOverflow();
+      shortCircuit = ranges.getShortCircuit();
+      NullAnalyser nulls =
+          new NullAnalyser(semanticVisitor.getSymbols(), cached.keySet());
+      nulls.visit(tree);
+      nonNull = nulls.getNonNull();
+      inlined = Inliner.getInlined(tree, semanticVisitor.getCalls(),
+          semanticVisitor.getSymbols(), cached.keySet());
+      reachable =
+          CallGraph.getReachable(tree, semanticVisitor.getCalls(), inlined);
+    }
+
+    // create new file for writing
+    CodeWriter writer;
+    if (options.isStreaming()) {
+      writer = new CodeWriter(Segment.open(outputFile));
+    } else {
+      writer = new CodeWriter(new PrintWriter(outputFile, "UTF-8"));
+    }
+    if (options.isUsingArena()) {
+      writer.useArena();
+    }
+    // allocate the registers of every function once its code has been
+    // generated, then optimise it
+    writer.addPass(new RegisterAllocator());
+    PeepholeOptimiser peephole = PeepholeOptimiser.of(options);
+    if (peephole != null) {
+      writer.addPass(peephole);
+    }
+    // Start code generation
+    CodeGeneratorVisitor codeGeneratorVisitor =
+        new CodeGeneratorVisitor(writer, semanticVisitor.getTypes(),
+            semanticVisitor.getSymbols(), semanticVisitor.getCalls(),
+            constants, inBounds, nonNull, noOverflow, shortCircuit, reachable,
+            inlined, cache == null ? null : cached);
+    try {
+      codeGeneratorVisitor.visit(tree);
+      writer.writeToFile();
+    } finally {
+      // close file
+      writer.close();
+    }
+    if (options.isPrintingStats() && peephole != null) {
+      peephole.printStats(out);
+    }
+
+    // store the code of the functions generated by this compile
+    if (cache != null) {
+      for (Map.Entry<FuncContext, Fragment> e
+          : codeGeneratorVisitor.getFragments().entrySet()) {
+        cache.put(keys.get(e.getKey()), e.getKey(), e.getValue());
+      }
+    }
+
+    return SUCCESS;
+  }
+
+  // name of the assembly file generated for the given source file
+  public static String getOutputName(String source) {
+    return new File(source).getName().replaceFirst(".wacc", ".s");
+  }
+
+}
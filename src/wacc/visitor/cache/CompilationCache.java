@@ -0,0 +1,217 @@
+package wacc.visitor.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.Trees;
+
+import antlr.WACCParser;
+import antlr.WACCParser.*;
+import wacc.visitor.code_generator.Fragment;
+import wacc.visitor.type.Utils;
+
+// On-disk cache of the code generated for each function. An entry is keyed by
+// a hash of the tokens of the function, its position in the program (which
+// determines its label) and the signatures and positions of every function it
+// may call and the options the code is generated with, so it is valid exactly
+// as long as none of these change. When calls may be inlined the tokens of
+// every function it may call, directly or not, are part of the key as well.
+// Besides the code, an entry stores the signature the function was checked
+// against as its semantic summary: a function with a valid entry does not need
+// to be checked or generated again.
+public class CompilationCache {
+
+  // bump whenever the code generator changes the code it emits
+  private static final int VERSION = 10;
+
+  private final File directory;
+  // the options the code is generated with
+  private final String codeKey;
+  // whether the code of a function depends on the bodies of its callees
+  private final boolean inlining;
+
+  public CompilationCache(File directory, String codeKey, boolean inlining) {
+    this.directory = directory;
+    this.codeKey = codeKey;
+    this.inlining = inlining;
+  }
+
+  // the cache key of every function in the program
+  public Map<FuncContext, String> getKeys(ProgramContext ctx) {
+    List<FuncContext> funcs = ctx.func();
+    Map<FuncContext, String> keys = new HashMap<>();
+    for (int i = 0; i < funcs.size(); i++) {
+      FuncContext func = funcs.get(i);
+      StringBuilder sb = new StringBuilder();
+      sb.append(VERSION).append(' ').append(codeKey).append('\n');
+      sb.append(i).append(' ');
+      appendTokens(func, sb);
+      sb.append('\n');
+      for (String callee : getCallees(func)) {
+        for (int j = 0; j < funcs.size(); j++) {
+          if (funcs.get(j).ident().getText().equals(callee)) {
+            sb.append(j).append(' ').append(getSummary(funcs.get(j)));
+            sb.append('\n');
+          }
+        }
+      }
+      if (inlining) {
+        for (FuncContext callee : getAllCallees(funcs, func)) {
+          appendTokens(callee, sb);
+          sb.append('\n');
+        }
+      }
+      keys.put(func, hash(sb.toString()));
+    }
+    return keys;
+  }
+
+  // the cached code of func, or null if there is no valid entry for key
+  public Fragment get(String key, FuncContext func) {
+    File entry = new File(directory, key);
+    if (!entry.isFile()) {
+      return null;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new FileInputStream(entry))) {
+      if (in.readInt() != VERSION
+          || !readString(in).equals(getSummary(func))) {
+        return null;
+      }
+      int labelCount = in.readInt();
+      int msgCount = in.readInt();
+      List<String> msgs = new ArrayList<>();
+      for (int i = 0; i < msgCount; i++) {
+        msgs.add(readString(in));
+      }
+      return new Fragment(readString(in), msgs, labelCount);
+    } catch (IOException e) {
+      // unreadable entries are treated as missing and regenerated
+      return null;
+    }
+  }
+
+  public void put(String key, FuncContext func, Fragment fragment)
+      throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create directory " + directory);
+    }
+    // write to a temporary file first, concurrent compiles may share the cache
+    File temp = File.createTempFile(key, ".tmp", directory);
+    try (DataOutputStream out =
+        new DataOutputStream(new FileOutputStream(temp))) {
+      out.writeInt(VERSION);
+      writeString(out, getSummary(func));
+      out.writeInt(fragment.getLabelCount());
+      out.writeInt(fragment.getMsgs().size());
+      for (String msg : fragment.getMsgs()) {
+        writeString(out, msg);
+      }
+      writeString(out, fragment.getTemplate());
+    }
+    Files.move(temp.toPath(), new File(directory, key).toPath(),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static String getSummary(FuncContext ctx) {
+    String signature = Utils.getType(ctx.type()) + " " + ctx.ident().getText()
+        + "(";
+    if (Utils.getParamSize(ctx) != 0) {
+      for (ParamContext c : ctx.paramList().param()) {
+        signature += Utils.getType(c.type()).toString() + ",";
+      }
+      signature = signature.substring(0, signature.length() - 1);
+    }
+    return signature + ")";
+  }
+
+  private static TreeSet<String> getCallees(FuncContext ctx) {
+    TreeSet<String> callees = new TreeSet<>();
+    for (ParseTree t : Trees.findAllRuleNodes(ctx, WACCParser.RULE_assignRhs)) {
+      if (t instanceof RhsCallContext) {
+        callees.add(((RhsCallContext) t).ident().getText());
+      }
+    }
+    return callees;
+  }
+
+  // the functions ctx may call directly or through other functions, in the
+  // order of the program
+  private static List<FuncContext> getAllCallees(List<FuncContext> funcs,
+      FuncContext ctx) {
+    TreeSet<String> names = new TreeSet<>();
+    List<FuncContext> worklist = new ArrayList<>();
+    worklist.add(ctx);
+    for (int i = 0; i < worklist.size(); i++) {
+      for (String callee : getCallees(worklist.get(i))) {
+        if (names.add(callee)) {
+          for (FuncContext func : funcs) {
+            if (func.ident().getText().equals(callee)) {
+              worklist.add(func);
+            }
+          }
+        }
+      }
+    }
+    List<FuncContext> callees = new ArrayList<>();
+    for (FuncContext func : funcs) {
+      if (func != ctx && worklist.contains(func)) {
+        callees.add(func);
+      }
+    }
+    return callees;
+  }
+
+  private static void appendTokens(ParseTree t, StringBuilder sb) {
+    if (t instanceof TerminalNode) {
+      sb.append(t.getText()).append(' ');
+    } else {
+      for (int i = 0; i < t.getChildCount(); i++) {
+        appendTokens(t.getChild(i), sb);
+      }
+    }
+  }
+
+  private static String hash(String s) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      StringBuilder sb = new StringBuilder();
+      for (byte b : md.digest(s.getBytes(StandardCharsets.UTF_8))) {
+        sb.append(String.format("%02x", b));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeString(DataOutputStream out, String s)
+      throws IOException {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+}
@@ -1,76 +1,297 @@
 package wacc.visitor.code_generator;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
 
 import antlr.*;
 import antlr.WACCParser.*;
-import wacc.visitor.SymbolTable;
+import wacc.visitor.Symbol;
+import wacc.visitor.constant_folding.Constant;
 import wacc.visitor.type.*;
 
 public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
 
   private final CodeWriter writer;
+  private final ParseTreeProperty<Type> types;
+  private final ParseTreeProperty<Symbol> symbols;
+  private final ParseTreeProperty<FuncContext> calls;
+  private final ParseTreeProperty<Constant> constants;
+  private final Set<ExprContext> inBounds;
+  private final Set<ExprContext> nonNull;
+  private final Set<ExprContext> noOverflow;
+  private final Set<ExprContext> shortCircuit;
+  private final Set<FuncContext> reachable;
+  private final Set<FuncContext> inlined;
+  private final Map<FuncContext, Fragment> cached;
+  private final Map<FuncContext, Fragment> fragments = new HashMap<>();
   private final Map<FuncContext, String> fl = new HashMap<>();
-  private SymbolTable st;
+  // the variables read into, they need an address so are kept on the stack
+  private final Set<Symbol> readInto = new HashSet<>();
+  // the calls whose result is returned straight away, the function called
+  // is branched to in place of the caller once its arguments replace the
+  // caller's parameters
+  private final Set<StatContext> tailCalls = new HashSet<>();
   private int sp;
-  private Reg reg;
-  private int pushedReg;
-
-  public CodeGeneratorVisitor(CodeWriter writer) {
+  // the register the expression being visited puts its value in, and the
+  // value to store for the left hand side of an assignment
+  private VReg reg;
+  // while the body of a function is inlined, the register its result is put
+  // in, the label after the body and the stack offset at the call, the label
+  // is null when no body is being inlined
+  private VReg inlineResult;
+  private Label inlineEnd;
+  private int inlineSp;
+
+  // types, symbols and calls are the types, variables and functions recorded
+  // by semantic analysis, constants are the values of the expressions known at
+  // compile time, the first indices of the array elements in inBounds need no
+  // bounds check, the pairs in nonNull no null check and the arithmetic in
+  // noOverflow no overflow check, the right operands of the && and || in
+  // shortCircuit are skipped when the left one decides the result, reachable
+  // are the functions that may be called, null if every function is
+  // generated, the calls of the functions in inlined are replaced by their
+  // bodies, cached holds the code of functions that do not have to be
+  // generated again, it is null if the generated functions are not going to
+  // be cached
+  public CodeGeneratorVisitor(CodeWriter writer, ParseTreeProperty<Type> types,
+      ParseTreeProperty<Symbol> symbols, ParseTreeProperty<FuncContext> calls,
+      ParseTreeProperty<Constant> constants, Set<ExprContext> inBounds,
+      Set<ExprContext> nonNull, Set<ExprContext> noOverflow,
+      Set<ExprContext> shortCircuit, Set<FuncContext> reachable,
+      Set<FuncContext> inlined, Map<FuncContext, Fragment> cached) {
     this.writer = writer;
-    this.st = null;
+    this.types = types;
+    this.symbols = symbols;
+    this.calls = calls;
+    this.constants = constants;
+    this.inBounds = inBounds;
+    this.nonNull = nonNull;
+    this.noOverflow = noOverflow;
+    this.shortCircuit = shortCircuit;
+    this.reachable = reachable;
+    this.inlined = inlined;
+    this.cached = cached;
     this.sp = 0;
-    this.reg = Reg.R4;
-    this.pushedReg = 0;
   }
 
   @Override
   public Void visitProgram(ProgramContext ctx) {
-    st = new SymbolTable(null);
+    findReadInto(ctx);
     for (FuncContext c : ctx.func()) {
-      String ident = c.ident().getText();
-      fl.put(c, "f" + fl.size() + "_" + ident);
-      st.add(ident, c);
+      fl.put(c, "f" + fl.size() + "_" + c.ident().getText());
+      findTailCalls(c, c.stat());
     }
     for (FuncContext c : ctx.func()) {
-      visit(c);
+      if (reachable != null && !reachable.contains(c)) {
+        continue;
+      } else if (cached == null) {
+        visit(c);
+      } else if (cached.containsKey(c)) {
+        writer.addFragment(cached.get(c));
+      } else {
+        writer.beginFragment();
+        visit(c);
+        fragments.put(c, writer.endFragment());
+      }
     }
 
-    writer.addLabel("main");
-    writer.addInst(Inst.PUSH, "{lr}");
+    writer.addRoutine("main");
+    writer.addInst(Inst.PUSH, new RegList(Reg.LR));
     buildStat(ctx.stat());
-    writer.addInst(Inst.LDR, "r0, =0");
-    writer.addInst(Inst.POP, "{pc}");
+    if (completes(ctx.stat())) {
+      writer.addInst(Inst.LDR, Reg.R0, new Literal(0));
+      writer.addInst(Inst.POP, new RegList(Reg.PC));
+    }
     writer.addLtorg();
     return null;
   }
 
+  // an expression with a known value other than a literal is not evaluated,
+  // its value is loaded or the error it raises is thrown
+  @Override
+  public Void visit(ParseTree ctx) {
+    Constant constant = constants.get(ctx);
+    if (constant == null || !(ctx instanceof ExprContext)
+        || ctx instanceof IntExprContext || ctx instanceof BoolExprContext
+        || ctx instanceof CharExprContext) {
+      return super.visit(ctx);
+    }
+    if (constant.getError() == Constant.Error.OVERFLOW) {
+      writer.addInst(Inst.BL, writer.p_throw_overflow_error());
+    } else if (constant.isError()) {
+      writer.addInst(Inst.BL, writer.p_throw_divide_by_zero());
+    } else if (constant.getType() != BaseLiter.INT
+        && constant.getValue() >= 0 && constant.getValue() < 256) {
+      writer.addInst(Inst.MOV, reg, new Imm(constant.getValue()));
+    } else {
+      writer.addInst(Inst.LDR, reg, new Literal(constant.getValue()));
+    }
+    return null;
+  }
+
+  // whether the value of the condition of an if or while is known and not an
+  // error
+  private boolean isKnown(ExprContext ctx) {
+    Constant constant = constants.get(ctx);
+    return ctx instanceof BoolExprContext
+        || constant != null && !constant.isError();
+  }
+
+  private boolean isTrue(ExprContext ctx) {
+    Constant constant = constants.get(ctx);
+    return constant == null ? ctx.getText().equals("true")
+        : constant.getValue() != 0;
+  }
+
+  // code of the functions generated by this visitor, for caching
+  public Map<FuncContext, Fragment> getFragments() {
+    return fragments;
+  }
+
+  private void findReadInto(ParseTree ctx) {
+    if (ctx instanceof ReadStatContext
+        && ((ReadStatContext) ctx).assignLhs() instanceof LhsIdentContext) {
+      readInto.add(symbols.get(
+          ((LhsIdentContext) ((ReadStatContext) ctx).assignLhs()).ident()));
+    }
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      findReadInto(ctx.getChild(i));
+    }
+  }
+
+  // a call is a tail call when it is the last statement before a return of
+  // the variable it assigns, and the arguments of the function called fit in
+  // the parameters of func
+  private void findTailCalls(FuncContext func, ParseTree ctx) {
+    if (ctx instanceof CompStatContext) {
+      CompStatContext comp = (CompStatContext) ctx;
+      StatContext last = comp.stat(0);
+      while (last instanceof CompStatContext) {
+        last = ((CompStatContext) last).stat(1);
+      }
+      if (isTailCall(func, last, comp.stat(1))) {
+        tailCalls.add(last);
+      }
+    }
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      findTailCalls(func, ctx.getChild(i));
+    }
+  }
+
+  private boolean isTailCall(FuncContext func, StatContext call,
+      StatContext next) {
+    IdentContext target;
+    AssignRhsContext rhs;
+    if (call instanceof VarDeclStatContext) {
+      target = ((VarDeclStatContext) call).ident();
+      rhs = ((VarDeclStatContext) call).assignRhs();
+    } else if (call instanceof AssignStatContext
+        && ((AssignStatContext) call).assignLhs() instanceof LhsIdentContext) {
+      target = ((LhsIdentContext) ((AssignStatContext) call).assignLhs())
+          .ident();
+      rhs = ((AssignStatContext) call).assignRhs();
+    } else {
+      return false;
+    }
+    if (!(rhs instanceof RhsCallContext) || !(next instanceof ReturnStatContext)
+        || !(((ReturnStatContext) next).expr() instanceof IdentExprContext)) {
+      return false;
+    }
+    IdentContext returned =
+        ((IdentExprContext) ((ReturnStatContext) next).expr()).ident();
+    FuncContext callee = calls.get(rhs);
+    return symbols.get(returned) == symbols.get(target) && callee != null
+        && !inlined.contains(callee) && paramSize(callee) <= paramSize(func);
+  }
+
+  // whether ctx is a tail call, calls are inlined as usual
+  private boolean isTailCall(StatContext ctx) {
+    return inlineEnd == null && tailCalls.contains(ctx);
+  }
+
+  // whether symbol occurs in ctx
+  private boolean mentions(ParseTree ctx, Symbol symbol) {
+    if (ctx instanceof IdentContext && symbols.get(ctx) == symbol) {
+      return true;
+    }
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      if (mentions(ctx.getChild(i), symbol)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // visit ctx with its value put in a new register, which is returned
+  private VReg visitInNewReg(ParseTree ctx) {
+    VReg result = writer.newReg();
+    visitInReg(ctx, result);
+    return result;
+  }
+
+  // the register holding the value of ctx, a variable kept in a register is
+  // read from it directly as evaluating an expression cannot change it
+  private VReg visitOperand(ExprContext ctx) {
+    if (ctx instanceof IdentExprContext) {
+      VReg r = symbols.get(((IdentExprContext) ctx).ident()).getReg();
+      if (r != null) {
+        return r;
+      }
+    }
+    return visitInNewReg(ctx);
+  }
+
+  private void visitInReg(ParseTree ctx, VReg r) {
+    VReg previousReg = reg;
+    reg = r;
+    visit(ctx);
+    reg = previousReg;
+  }
+
   private void buildStat(StatContext ctx) {
     int size = -initStack(ctx);
     subSP(size);
     visit(ctx);
-    addSP(size);
+    if (completes(ctx)) {
+      addSP(size);
+    }
     sp += size;
   }
 
   private void buildStatInNewScope(StatContext ctx) {
-    st = new SymbolTable(st);
     buildStat(ctx);
-    st = st.getEncSymTable();
   }
 
   private int initStack(StatContext ctx) {
     if (ctx instanceof VarDeclStatContext) {
-      int offset = -getSize(Utils.getType(((VarDeclStatContext) ctx).type()));
+      Type type = Utils.getType(((VarDeclStatContext) ctx).type());
+      Symbol symbol = symbols.get(((VarDeclStatContext) ctx).ident());
+      if (constants.get(((VarDeclStatContext) ctx).ident()) != null) {
+        // every use of a constant is replaced by its value
+        return 0;
+      } else if (isScalar(type) && !readInto.contains(symbol)) {
+        symbol.setReg(writer.newReg());
+        return 0;
+      }
+      int offset = -getSize(type);
       sp += offset;
-      st.add(((VarDeclStatContext) ctx).ident().getText(), sp);
+      symbol.setOffset(sp);
       return offset;
     } else if (ctx instanceof CompStatContext) {
       int offset = 0;
       for (StatContext c : ((CompStatContext) ctx).stat()) {
         offset += initStack(c);
+        if (!completes(c)) {
+          break;
+        }
       }
       return offset;
     } else {
@@ -78,6 +299,12 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
     }
   }
 
+  private static boolean isScalar(Type type) {
+    return Utils.isSameBaseType(type, BaseLiter.INT)
+        || Utils.isSameBaseType(type, BaseLiter.BOOL)
+        || Utils.isSameBaseType(type, BaseLiter.CHAR);
+  }
+
   private static int getSize(Type type) {
     if (Utils.isSameBaseType(type, BaseLiter.BOOL)
         || Utils.isSameBaseType(type, BaseLiter.CHAR)) {
@@ -90,37 +317,36 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
   private void subSP(int size) {
     if (size > 0) {
       while (size > 1024) {
-        writer.addInst(Inst.SUB, "sp, sp, #1024");
+        writer.addInst(Inst.SUB, Reg.SP, Reg.SP, new Imm(1024));
         size -= 1024;
       }
-      writer.addInst(Inst.SUB, "sp, sp, #" + size);
+      writer.addInst(Inst.SUB, Reg.SP, Reg.SP, new Imm(size));
     }
   }
 
   private void addSP(int size) {
     if (size > 0) {
       while (size > 1024) {
-        writer.addInst(Inst.ADD, "sp, sp, #1024");
+        writer.addInst(Inst.ADD, Reg.SP, Reg.SP, new Imm(1024));
         size -= 1024;
       }
-      writer.addInst(Inst.ADD, "sp, sp, #" + size);
+      writer.addInst(Inst.ADD, Reg.SP, Reg.SP, new Imm(size));
     }
   }
 
   @Override
   public Void visitFunc(FuncContext ctx) {
-    st = new SymbolTable(st);
     if (ctx.paramList() != null) {
       visit(ctx.paramList());
     }
 
-    writer.addLabel(fl.get(ctx));
-    writer.addInst(Inst.PUSH, "{lr}");
+    writer.addRoutine(fl.get(ctx));
+    writer.addInst(Inst.PUSH, new RegList(Reg.LR));
     buildStat(ctx.stat());
-    writer.addInst(Inst.POP, "{pc}");
+    if (completes(ctx.stat())) {
+      writer.addInst(Inst.POP, new RegList(Reg.PC));
+    }
     writer.addLtorg();
-
-    st = st.getEncSymTable();
     return null;
   }
 
@@ -128,9 +354,7 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
   public Void visitParamList(ParamListContext ctx) {
     int offset = 4;
     for (ParamContext c : ctx.param()) {
-      String ident = c.ident().getText();
-      st.add(ident, offset);
-      st.add(ident, c.type());
+      symbols.get(c.ident()).setOffset(offset);
       offset += getSize(Utils.getType(c.type()));
     }
     return null;
@@ -138,16 +362,57 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitVarDeclStat(VarDeclStatContext ctx) {
-    visit(ctx.assignRhs());
-    String ident = ctx.ident().getText();
-    st.add(ident, ctx.type());
-    int offset = st.lookupI(ident) - sp;
-    store(Utils.getType(ctx.type()), offset, "r4", "sp");
+    Symbol symbol = symbols.get(ctx.ident());
+    if (isTailCall(ctx)) {
+      tailCall((RhsCallContext) ctx.assignRhs());
+      return null;
+    } else if (constants.get(ctx.ident()) != null) {
+      return null;
+    } else if (symbol.getReg() != null) {
+      assignReg(symbol, ctx.assignRhs());
+      return null;
+    }
+    VReg value = visitInNewReg(ctx.assignRhs());
+    int offset = symbol.getOffset() - sp;
+    store(Utils.getType(ctx.type()), offset, value, Reg.SP);
     return null;
   }
 
+  // put the value of rhs in the register of symbol, directly unless rhs
+  // reads the old value
+  private void assignReg(Symbol symbol, AssignRhsContext rhs) {
+    if (mentions(rhs, symbol)) {
+      writer.addInst(Inst.MOV, symbol.getReg(), visitInNewReg(rhs));
+    } else {
+      visitInReg(rhs, symbol.getReg());
+    }
+    // a char is kept as the byte it would be stored as on the stack
+    if (Utils.isSameBaseType(symbol.getType(), BaseLiter.CHAR)
+        && !isByte(rhs)) {
+      writer.addInst(Inst.SXTB, symbol.getReg(), symbol.getReg());
+    }
+  }
+
+  // whether the char rhs evaluates to is already a sign extended byte
+  private static boolean isByte(AssignRhsContext rhs) {
+    if (rhs instanceof RhsPairElemContext) {
+      return true;
+    }
+    return rhs instanceof RhsExprContext
+        && isByte(((RhsExprContext) rhs).expr());
+  }
+
+  private static boolean isByte(ExprContext expr) {
+    return expr instanceof CharExprContext || expr instanceof IdentExprContext
+        || expr instanceof ArrayElemExprContext;
+  }
+
   @Override
   public Void visitAssignStat(AssignStatContext ctx) {
+    if (isTailCall(ctx)) {
+      tailCall((RhsCallContext) ctx.assignRhs());
+      return null;
+    }
     if (ctx.assignLhs() instanceof LhsIdentContext
         && ctx.assignRhs() instanceof RhsExprContext
         && ((RhsExprContext) ctx.assignRhs()).expr() instanceof IdentExprContext
@@ -160,16 +425,25 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
       return null;
     }
 
-    visit(ctx.assignRhs());
+    if (ctx.assignLhs() instanceof LhsIdentContext) {
+      Symbol symbol =
+          symbols.get(((LhsIdentContext) ctx.assignLhs()).ident());
+      if (symbol.getReg() != null) {
+        assignReg(symbol, ctx.assignRhs());
+        return null;
+      }
+    }
+
+    reg = visitInNewReg(ctx.assignRhs());
     visit(ctx.assignLhs());
     return null;
   }
 
   @Override
   public Void visitReadStat(ReadStatContext ctx) {
-    visit(ctx.assignLhs());
-    writer.addInst(Inst.MOV, "r0, r4");
-    Type type = Utils.getType(ctx.assignLhs(), st);
+    VReg address = visitInNewReg(ctx.assignLhs());
+    writer.addInst(Inst.MOV, Reg.R0, address);
+    Type type = types.get(ctx.assignLhs());
     if (Utils.isSameBaseType(type, BaseLiter.INT)) {
       writer.addInst(Inst.BL, writer.p_read_int());
     } else {
@@ -180,9 +454,11 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitFreeStat(FreeStatContext ctx) {
-    visit(ctx.expr());
-    writer.addInst(Inst.MOV, "r0, r4");
-    if (Utils.getType(ctx.expr(), st) instanceof PairType) {
+    VReg value = visitOperand(ctx.expr());
+    writer.addInst(Inst.MOV, Reg.R0, value);
+    if (nonNull.contains(ctx.expr())) {
+      writer.addInst(Inst.BL, writer.p_free_non_null_pair());
+    } else if (types.get(ctx.expr()) instanceof PairType) {
       writer.addInst(Inst.BL, writer.p_free_pair());
     } else {
       writer.addInst(Inst.BL, writer.p_free_array());
@@ -192,44 +468,48 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitReturnStat(ReturnStatContext ctx) {
-    visit(ctx.expr());
-    writer.addInst(Inst.MOV, "r0, r4");
+    if (inlineEnd != null) {
+      visitInReg(ctx.expr(), inlineResult);
+      addSP(inlineSp - sp);
+      writer.addInst(Inst.B, inlineEnd);
+      return null;
+    }
+    VReg value = visitOperand(ctx.expr());
+    writer.addInst(Inst.MOV, Reg.R0, value);
     addSP(-sp);
-    writer.addInst(Inst.POP, "{pc}");
+    writer.addInst(Inst.POP, new RegList(Reg.PC));
     return null;
   }
 
   @Override
   public Void visitExitStat(ExitStatContext ctx) {
-    visit(ctx.expr());
-    writer.addInst(Inst.MOV, "r0, r4");
-    writer.addInst(Inst.BL, "exit");
+    VReg value = visitOperand(ctx.expr());
+    writer.addInst(Inst.MOV, Reg.R0, value);
+    writer.addInst(Inst.BL, new Label("exit"));
     return null;
   }
 
   @Override
   public Void visitPrintStat(PrintStatContext ctx) {
-    visit(ctx.expr());
-    printStatsHelper(Utils.getType(ctx.expr(), st));
+    printStatsHelper(visitOperand(ctx.expr()), types.get(ctx.expr()));
     return null;
   }
 
   @Override
   public Void visitPrintlnStat(PrintlnStatContext ctx) {
-    visit(ctx.expr());
-    printStatsHelper(Utils.getType(ctx.expr(), st));
+    printStatsHelper(visitOperand(ctx.expr()), types.get(ctx.expr()));
     writer.addInst(Inst.BL, writer.p_print_ln());
     return null;
   }
 
-  private void printStatsHelper(Type type) {
-    writer.addInst(Inst.MOV, "r0, r4");
+  private void printStatsHelper(VReg value, Type type) {
+    writer.addInst(Inst.MOV, Reg.R0, value);
     if (Utils.isSameBaseType(type, BaseLiter.INT)) {
       writer.addInst(Inst.BL, writer.p_print_int());
     } else if (Utils.isSameBaseType(type, BaseLiter.BOOL)) {
       writer.addInst(Inst.BL, writer.p_print_bool());
     } else if (Utils.isSameBaseType(type, BaseLiter.CHAR)) {
-      writer.addInst(Inst.BL, "putchar");
+      writer.addInst(Inst.BL, new Label("putchar"));
     } else if (Utils.isStringType(type)) {
       writer.addInst(Inst.BL, writer.p_print_string());
     } else {
@@ -239,8 +519,8 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitIfStat(IfStatContext ctx) {
-    if (ctx.expr() instanceof BoolExprContext) {
-      if (ctx.expr().getText().equals("true")) {
+    if (isKnown(ctx.expr())) {
+      if (isTrue(ctx.expr())) {
         buildStatInNewScope(ctx.stat(0));
       } else {
         buildStatInNewScope(ctx.stat(1));
@@ -248,14 +528,14 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
       return null;
     }
 
-    visit(ctx.expr());
-    writer.addInst(Inst.CMP, "r4, #0");
-    String[] lpair = writer.getLabelLPair();
-    writer.addInst(Inst.BEQ, lpair[0]);
+    Label[] lpair = writer.getLabelLPair();
+    branch(ctx.expr(), false, lpair[0]);
 
     buildStatInNewScope(ctx.stat(0));
 
-    writer.addInst(Inst.B, lpair[1]);
+    if (completes(ctx.stat(0))) {
+      writer.addInst(Inst.B, lpair[1]);
+    }
     writer.addLabel(lpair[0]);
 
     buildStatInNewScope(ctx.stat(1));
@@ -266,9 +546,9 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitWhileStat(WhileStatContext ctx) {
-    if (ctx.expr() instanceof BoolExprContext) {
-      if (ctx.expr().getText().equals("true")) {
-        String[] lpair = writer.getLabelLPair();
+    if (isKnown(ctx.expr())) {
+      if (isTrue(ctx.expr())) {
+        Label[] lpair = writer.getLabelLPair();
         writer.addLabel(lpair[1]);
         buildStatInNewScope(ctx.stat());
         writer.addInst(Inst.B, lpair[1]);
@@ -276,19 +556,97 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
       return null;
     }
 
-    String[] lpair = writer.getLabelLPair();
+    Label[] lpair = writer.getLabelLPair();
     writer.addInst(Inst.B, lpair[0]);
     writer.addLabel(lpair[1]);
 
     buildStatInNewScope(ctx.stat());
 
     writer.addLabel(lpair[0]);
-    visit(ctx.expr());
-    writer.addInst(Inst.CMP, "r4, #1");
-    writer.addInst(Inst.BEQ, lpair[1]);
+    branch(ctx.expr(), true, lpair[1]);
     return null;
   }
 
+  // branch to target if cond is value, else carry on after the branch
+  private void branch(ExprContext cond, boolean value, Label target) {
+    if (constants.get(cond) != null) {
+      branchOn(cond, value, target);
+    } else if (cond instanceof ParensExprContext) {
+      branch(((ParensExprContext) cond).expr(), value, target);
+    } else if (cond instanceof UnOpExprContext
+        && ((UnOpExprContext) cond).unaryOper().getText().equals("!")) {
+      branch(((UnOpExprContext) cond).expr(), !value, target);
+    } else if (shortCircuit.contains(cond)) {
+      // the left operand decides the result when it is the value that the
+      // whole of an && is if false, or of an || if true
+      boolean decides = cond instanceof BinOpPrec6ExprContext;
+      List<ExprContext> operands = decides
+          ? ((BinOpPrec6ExprContext) cond).expr()
+          : ((BinOpPrec5ExprContext) cond).expr();
+      if (value == decides) {
+        branch(operands.get(0), value, target);
+        branch(operands.get(1), value, target);
+      } else {
+        Label skip = writer.getLabelLPair()[0];
+        branch(operands.get(0), !value, skip);
+        branch(operands.get(1), value, target);
+        writer.addLabel(skip);
+      }
+    } else if (cond instanceof BinOpPrec3ExprContext
+        || cond instanceof BinOpPrec4ExprContext) {
+      branchOnCompare(cond, value, target);
+    } else {
+      branchOn(cond, value, target);
+    }
+  }
+
+  // branch to target if the comparison cond is value, on the flags of the
+  // comparison rather than its boolean result
+  private void branchOnCompare(ExprContext cond, boolean value,
+      Label target) {
+    List<ExprContext> operands;
+    Inst taken;
+    Inst otherwise;
+    if (cond instanceof BinOpPrec3ExprContext) {
+      BinOpPrec3ExprContext compare = (BinOpPrec3ExprContext) cond;
+      operands = compare.expr();
+      if (compare.GRT() != null) {
+        taken = Inst.BGT;
+        otherwise = Inst.BLE;
+      } else if (compare.GRT_EQUAL() != null) {
+        taken = Inst.BGE;
+        otherwise = Inst.BLT;
+      } else if (compare.LESS() != null) {
+        taken = Inst.BLT;
+        otherwise = Inst.BGE;
+      } else {
+        taken = Inst.BLE;
+        otherwise = Inst.BGT;
+      }
+    } else {
+      BinOpPrec4ExprContext compare = (BinOpPrec4ExprContext) cond;
+      operands = compare.expr();
+      taken = compare.EQUAL() != null ? Inst.BEQ : Inst.BNE;
+      otherwise = compare.EQUAL() != null ? Inst.BNE : Inst.BEQ;
+    }
+    VReg left = visitOperand(operands.get(0));
+    // a small constant is compared with straight away
+    Integer right = getInt(operands.get(1));
+    if (right != null && right >= 0 && right < 256) {
+      writer.addInst(Inst.CMP, left, new Imm(right));
+    } else {
+      writer.addInst(Inst.CMP, left, visitOperand(operands.get(1)));
+    }
+    writer.addInst(value ? taken : otherwise, target);
+  }
+
+  // branch to target if the value of cond is value
+  private void branchOn(ExprContext cond, boolean value, Label target) {
+    VReg condition = visitOperand(cond);
+    writer.addInst(Inst.CMP, condition, new Imm(value ? 1 : 0));
+    writer.addInst(Inst.BEQ, target);
+  }
+
   @Override
   public Void visitScopingStat(ScopingStatContext ctx) {
     buildStatInNewScope(ctx.stat());
@@ -297,22 +655,61 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitCompStat(CompStatContext ctx) {
-    if (ctx.stat(0) instanceof ReturnStatContext
-        || ctx.stat(0) instanceof ExitStatContext) {
-      visit(ctx.stat(0));
-      return null;
+    for (StatContext c : ctx.stat()) {
+      visit(c);
+      // the statements after one that cannot complete are never run
+      if (!completes(c)) {
+        break;
+      }
     }
-    return visitChildren(ctx);
+    return null;
+  }
+
+  // whether control can reach the end of ctx, there is no way out of a while
+  // loop whose condition is true other than return and exit
+  private boolean completes(StatContext ctx) {
+    if (ctx instanceof ReturnStatContext || ctx instanceof ExitStatContext
+        || isTailCall(ctx)) {
+      return false;
+    } else if (ctx instanceof CompStatContext) {
+      for (StatContext c : ((CompStatContext) ctx).stat()) {
+        if (!completes(c)) {
+          return false;
+        }
+      }
+      return true;
+    } else if (ctx instanceof ScopingStatContext) {
+      return completes(((ScopingStatContext) ctx).stat());
+    } else if (ctx instanceof IfStatContext) {
+      IfStatContext ifStat = (IfStatContext) ctx;
+      if (isKnown(ifStat.expr())) {
+        return completes(ifStat.stat(isTrue(ifStat.expr()) ? 0 : 1));
+      }
+      return completes(ifStat.stat(0)) || completes(ifStat.stat(1));
+    } else if (ctx instanceof WhileStatContext) {
+      WhileStatContext whileStat = (WhileStatContext) ctx;
+      return !isKnown(whileStat.expr()) || !isTrue(whileStat.expr());
+    }
+    return true;
+  }
+
+  @Override
+  public Void visitRhsExpr(RhsExprContext ctx) {
+    return visit(ctx.expr());
+  }
+
+  @Override
+  public Void visitParensExpr(ParensExprContext ctx) {
+    return visit(ctx.expr());
   }
 
   @Override
   public Void visitLhsIdent(LhsIdentContext ctx) {
-    String ident = ctx.ident().getText();
-    int offset = st.lookupAllI(ident) - sp;
+    int offset = symbols.get(ctx.ident()).getOffset() - sp;
     if (ctx.getParent() instanceof AssignStatContext) {
-      store(Utils.getType(st.lookupAllT(ident)), offset, "r4", "sp");
+      store(types.get(ctx), offset, reg, Reg.SP);
     } else {
-      writer.addInst(Inst.ADD, "r4, sp, #" + offset);
+      writer.addInst(Inst.ADD, reg, Reg.SP, new Imm(offset));
     }
     return null;
   }
@@ -320,38 +717,57 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
   @Override
   public Void visitArrayElem(ArrayElemContext ctx) {
     boolean isRead = ctx.getParent() instanceof ArrayElemExprContext;
-    Reg previousReg = isRead ? reg : reg.next();
-    reg = isRead ? reg.next() : reg.next().next();
+    VReg address = writer.newReg();
 
-    String ident = ctx.ident().getText();
-    int offset = st.lookupAllI(ident) - sp;
-    writer.addInst(Inst.ADD, previousReg + ", sp, #" + offset);
+    Symbol symbol = symbols.get(ctx.ident());
+    if (symbol.getReg() != null) {
+      writer.addInst(Inst.MOV, address, symbol.getReg());
+    } else {
+      writer.addInst(Inst.LDR, address,
+          new Mem(Reg.SP, symbol.getOffset() - sp));
+    }
 
-    Type type = Utils.getType(ctx, st);
-    int level = ((ArrayType) Utils.getType(ctx.ident(), st)).getLevel();
+    Type type = types.get(ctx);
+    int level = ((ArrayType) types.get(ctx.ident())).getLevel();
     for (int i = 0; i < ctx.expr().size(); i++) {
-      visit(ctx.expr(i));
-      writer.addInst(Inst.LDR, previousReg + ", [" + previousReg + "]");
-      writer.addInst(Inst.MOV, "r0, " + reg);
-      writer.addInst(Inst.MOV, "r1, " + previousReg);
-      writer.addInst(Inst.BL, writer.p_check_array_bounds());
-      writer.addInst(Inst.ADD, previousReg + ", " + previousReg + ", #4");
+      VReg index = visitOperand(ctx.expr(i));
+      if (i > 0) {
+        writer.addInst(Inst.LDR, address, new Mem(address));
+      }
+      if (i > 0 || !inBounds.contains(ctx.expr(i))) {
+        writer.addInst(Inst.MOV, Reg.R0, index);
+        writer.addInst(Inst.MOV, Reg.R1, address);
+        writer.addInst(Inst.BL, writer.p_check_array_bounds());
+      }
+      writer.addInst(Inst.ADD, address, address, new Imm(4));
       if (i < level - 1 || getSize(type) == 4) {
-        writer.addInst(Inst.ADD, previousReg + ", " + previousReg + ", " + reg
-            + ", LSL #2");
+        writer.addInst(Inst.ADD, address, address,
+            new Shift(index, Shift.Op.LSL, 2));
       } else {
-        writer.addInst(Inst.ADD, previousReg + ", " + previousReg + ", " + reg);
+        writer.addInst(Inst.ADD, address, address, index);
       }
     }
 
-    reg = reg.previous();
+    accessElem(ctx, isRead, type, address, 0);
+    return null;
+  }
+
+  // read the element of ctx at offset from address into reg, or put its
+  // address in reg if it is read into, or store reg in it if it is assigned
+  // to
+  private void accessElem(ParserRuleContext ctx, boolean isRead, Type type,
+      VReg address, int offset) {
     if (isRead) {
-      load(type, 0, "r4", reg.toString());
+      load(type, offset, reg, address);
+    } else if (ctx.getParent().getParent() instanceof ReadStatContext) {
+      if (offset == 0) {
+        writer.addInst(Inst.MOV, reg, address);
+      } else {
+        writer.addInst(Inst.ADD, reg, address, new Imm(offset));
+      }
     } else {
-      store(type, 0, "r4", reg.toString());
-      reg = reg.previous();
+      store(type, offset, reg, address);
     }
-    return null;
   }
 
   @Override
@@ -359,7 +775,7 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
     Type type;
     int size;
     if (ctx.expr().size() != 0) {
-      type = Utils.getType(ctx.expr(0), st);
+      type = types.get(ctx.expr(0));
       size = getSize(type);
     } else {
       type = null;
@@ -367,62 +783,114 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
     }
     int offset = 4;
 
-    writer.addInst(Inst.LDR, "r0, =" + (ctx.expr().size() * size + offset));
-    writer.addInst(Inst.BL, "malloc");
-    writer.addInst(Inst.MOV, reg + ", r0");
+    writer.addInst(Inst.LDR, Reg.R0,
+        new Literal(ctx.expr().size() * size + offset));
+    writer.addInst(Inst.BL, writer.malloc());
+    writer.addInst(Inst.MOV, reg, Reg.R0);
 
-    Reg previousReg = reg;
-    reg = reg.next();
     for (ExprContext c : ctx.expr()) {
-      visit(c);
-      store(type, offset, reg.toString(), previousReg.toString());
+      store(type, offset, visitOperand(c), reg);
       offset += size;
     }
 
-    writer.addInst(Inst.LDR, reg + ", =" + ctx.expr().size());
-    writer.addInst(Inst.STR, reg + ", [" + previousReg + "]");
-    reg = reg.previous();
+    VReg length = writer.newReg();
+    writer.addInst(Inst.LDR, length, new Literal(ctx.expr().size()));
+    writer.addInst(Inst.STR, length, new Mem(reg));
     return null;
   }
 
   @Override
   public Void visitRhsNewPair(RhsNewPairContext ctx) {
-    writer.addInst(Inst.LDR, "r0, =8");
-    writer.addInst(Inst.BL, "malloc");
-    writer.addInst(Inst.MOV, "r4, r0");
+    // the elements are kept in the pair, each in a word of its own
+    writer.addInst(Inst.LDR, Reg.R0, new Literal(8));
+    writer.addInst(Inst.BL, writer.malloc());
+    writer.addInst(Inst.MOV, reg, Reg.R0);
 
-    reg = reg.next();
     for (int i = 0; i < ctx.expr().size(); i++) {
-      visit(ctx.expr(i));
-      Type type = Utils.getType(ctx.expr(i), st);
-      writer.addInst(Inst.LDR, "r0, =" + getSize(type));
-      writer.addInst(Inst.BL, "malloc");
-      store(type, 0, "r5", "r0");
-      if (i == 0) {
-        writer.addInst(Inst.STR, "r0, [r4]");
-      } else {
-        writer.addInst(Inst.STR, "r0, [r4, #4]");
-      }
+      VReg elem = visitOperand(ctx.expr(i));
+      store(types.get(ctx.expr(i)), 4 * i, elem, reg);
     }
-    reg = reg.previous();
     return null;
   }
 
   @Override
   public Void visitRhsCall(RhsCallContext ctx) {
+    FuncContext func = calls.get(ctx);
+    if (inlined.contains(func)) {
+      inline(ctx, func);
+      return null;
+    }
     if (ctx.argList() != null) {
       visit(ctx.argList());
     }
 
-    FuncContext func = Utils.getFuncWithSameSignature(ctx, st);
-    writer.addInst(Inst.BL, fl.get(func));
+    writer.addInst(Inst.BL, new Label(fl.get(func)));
     int size = paramSize(func);
     addSP(size);
     sp += size;
-    writer.addInst(Inst.MOV, "r4, r0");
+    writer.addInst(Inst.MOV, reg, Reg.R0);
     return null;
   }
 
+  // put the body of func in place of the call ctx, its parameters are kept in
+  // new registers and its locals in the frame of the caller
+  private void inline(RhsCallContext ctx, FuncContext func) {
+    List<ParamContext> params = func.paramList() == null
+        ? new ArrayList<ParamContext>() : func.paramList().param();
+    // the arguments are evaluated in the same order as for a call
+    VReg[] args = new VReg[params.size()];
+    for (int i = params.size() - 1; i >= 0; i--) {
+      ExprContext arg = ctx.argList().expr(i);
+      args[i] = visitInNewReg(arg);
+      // a char argument is passed as a byte
+      if (Utils.isSameBaseType(types.get(arg), BaseLiter.CHAR)
+          && !isByte(arg)) {
+        writer.addInst(Inst.SXTB, args[i], args[i]);
+      }
+    }
+    for (int i = 0; i < params.size(); i++) {
+      symbols.get(params.get(i).ident()).setReg(args[i]);
+    }
+
+    VReg previousResult = inlineResult;
+    Label previousEnd = inlineEnd;
+    int previousSp = inlineSp;
+    inlineResult = reg;
+    inlineEnd = writer.getLabelLPair()[0];
+    inlineSp = sp;
+    buildStat(func.stat());
+    writer.addLabel(inlineEnd);
+    inlineResult = previousResult;
+    inlineEnd = previousEnd;
+    inlineSp = previousSp;
+
+    for (ParamContext param : params) {
+      symbols.get(param.ident()).setReg(null);
+    }
+  }
+
+  // evaluate the arguments, store them over the parameters of the caller and
+  // leave its frame, the function called returns to the caller's caller which
+  // removes the parameters
+  private void tailCall(RhsCallContext ctx) {
+    FuncContext func = calls.get(ctx);
+    List<ExprContext> exprs = ctx.argList() == null
+        ? new ArrayList<ExprContext>() : ctx.argList().expr();
+    VReg[] args = new VReg[exprs.size()];
+    for (int i = exprs.size() - 1; i >= 0; i--) {
+      args[i] = visitOperand(exprs.get(i));
+    }
+    int offset = 4;
+    for (int i = 0; i < args.length; i++) {
+      Type type = types.get(exprs.get(i));
+      store(type, offset - sp, args[i], Reg.SP);
+      offset += getSize(type);
+    }
+    addSP(-sp);
+    writer.addInst(Inst.POP, new RegList(Reg.LR));
+    writer.addInst(Inst.B, new Label(fl.get(func)));
+  }
+
   private static int paramSize(FuncContext ctx) {
     if (ctx.paramList() == null) {
       return 0;
@@ -438,12 +906,12 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
   @Override
   public Void visitArgList(ArgListContext ctx) {
     for (int i = ctx.expr().size() - 1; i >= 0; i--) {
-      visit(ctx.expr(i));
-      int size = getSize(Utils.getType(ctx.expr(i), st));
+      VReg arg = visitOperand(ctx.expr(i));
+      int size = getSize(types.get(ctx.expr(i)));
       if (size == 1) {
-        writer.addInst(Inst.STRB, "r4, [sp, #-1]!");
+        writer.addInst(Inst.STRB, arg, new Mem(Reg.SP, -1, true));
       } else {
-        writer.addInst(Inst.STR, "r4, [sp, #-4]!");
+        writer.addInst(Inst.STR, arg, new Mem(Reg.SP, -4, true));
       }
       sp -= size;
     }
@@ -453,173 +921,298 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
   @Override
   public Void visitPairElem(PairElemContext ctx) {
     boolean isRead = ctx.getParent() instanceof AssignRhsContext;
-    if (!isRead) {
-      reg = reg.next();
-    }
-    visit(ctx.expr()); // puts res of expr in reg
-    writer.addInst(Inst.MOV, "r0, " + reg);
-    writer.addInst(Inst.BL, writer.p_check_null_pointer());
-    if (ctx.FST() != null) {
-      // get the first elem, offset = 0
-      writer.addInst(Inst.LDR, reg + ", [" + reg + "]");
-    } else {
-      // get the second elem, offset = 4
-      writer.addInst(Inst.LDR, reg + ", [" + reg + ", #4]");
-    }
-    Type type = Utils.getType(ctx, st);
-    if (isRead) {
-      load(type, 0, "r4", reg.toString());
-    } else {
-      store(type, 0, "r4", reg.toString());
-      reg = reg.previous();
+    VReg address = visitInNewReg(ctx.expr());
+    if (!nonNull.contains(ctx.expr())) {
+      writer.addInst(Inst.MOV, Reg.R0, address);
+      writer.addInst(Inst.BL, writer.p_check_null_pointer());
     }
+    // the first elem is at offset 0, the second at offset 4
+    accessElem(ctx, isRead, types.get(ctx), address,
+        ctx.FST() != null ? 0 : 4);
     return null;
   }
 
   @Override
   public Void visitIntLiter(IntLiterContext ctx) {
-    writer.addInst(Inst.LDR, reg + ", =" + Integer.parseInt(ctx.getText()));
+    writer.addInst(Inst.LDR, reg, new Literal(Integer.parseInt(ctx.getText())));
     return null;
   }
 
   @Override
   public Void visitBoolLiter(BoolLiterContext ctx) {
     if (ctx.getText().equals("true")) {
-      writer.addInst(Inst.MOV, reg + ", #1");
+      writer.addInst(Inst.MOV, reg, new Imm(1));
     } else {
-      writer.addInst(Inst.MOV, reg + ", #0");
+      writer.addInst(Inst.MOV, reg, new Imm(0));
     }
     return null;
   }
 
   @Override
   public Void visitCharLiter(CharLiterContext ctx) {
-    String c = ctx.getText();
-    switch (c.charAt(2)) {
+    String text = ctx.getText();
+    Imm c = Imm.ofChar(text.charAt(1));
+    switch (text.charAt(2)) {
       case '0':
-        c = "0";
+        c = new Imm(0);
         break;
       case 'b':
-        c = "8";
+        c = new Imm(8);
         break;
       case 't':
-        c = "9";
+        c = new Imm(9);
         break;
       case 'n':
-        c = "10";
+        c = new Imm(10);
         break;
       case 'f':
-        c = "12";
+        c = new Imm(12);
         break;
       case 'r':
-        c = "13";
+        c = new Imm(13);
         break;
       case '\"':
-        c = "\'\"\'";
-        break;
       case '\\':
-        c = "\'\\\'";
+        c = Imm.ofChar(text.charAt(2));
         break;
     }
-    writer.addInst(Inst.MOV, reg + ", #" + c);
+    writer.addInst(Inst.MOV, reg, c);
     return null;
   }
 
   @Override
   public Void visitStringLiter(StringLiterContext ctx) {
     String s = ctx.getText();
-    String msg = writer.addMsg(s.substring(1, s.length() - 1));
-    writer.addInst(Inst.LDR, reg + ", =" + msg);
+    Label msg = writer.addMsg(s.substring(1, s.length() - 1));
+    writer.addInst(Inst.LDR, reg, new Literal(msg));
     return null;
   }
 
   @Override
   public Void visitPairLiter(PairLiterContext ctx) {
-    writer.addInst(Inst.LDR, reg + ", =0");
+    writer.addInst(Inst.LDR, reg, new Literal(0));
     return null;
   }
 
   @Override
   public Void visitIdentExpr(IdentExprContext ctx) {
-    String ident = ctx.ident().getText();
-    int offset = st.lookupAllI(ident) - sp;
-    load(Utils.getType(st.lookupAllT(ident)), offset, reg.toString(), "sp");
+    Symbol symbol = symbols.get(ctx.ident());
+    if (symbol.getReg() != null) {
+      writer.addInst(Inst.MOV, reg, symbol.getReg());
+      return null;
+    }
+    int offset = symbol.getOffset() - sp;
+    load(types.get(ctx), offset, reg, Reg.SP);
     return null;
   }
 
   @Override
   public Void visitUnOpExpr(UnOpExprContext ctx) {
-    visit(ctx.expr());
+    VReg value = visitOperand(ctx.expr());
     if (ctx.unaryOper().UNARY_OPER() != null) {
       String operator = ctx.unaryOper().UNARY_OPER().getText();
       if (operator.equals("len")) {
-        // length of array stored as first elem in array, visiting expr will
-        // put start of array into reg
-        writer.addInst(Inst.LDR, reg + ", [" + reg + "]");
+        // length of array stored as first elem in array, value is the start
+        // of the array
+        writer.addInst(Inst.LDR, reg, new Mem(value));
       } else if (operator.equals("!")) {
-        // negate reg, as this is value of evaluated bool expr
-        writer.addInst(Inst.EOR, reg + ", " + reg + ", #1");
-      } // do nothing if ord or chr, chars treated as nums in ass
+        // negate value, as this is value of evaluated bool expr
+        writer.addInst(Inst.EOR, reg, value, new Imm(1));
+      } else {
+        // ord or chr, chars treated as nums in ass
+        writer.addInst(Inst.MOV, reg, value);
+      }
     } else {
       // only minus left
-      writer.addInst(Inst.RSBS, reg + ", " + reg + ", #0");
-      writer.addInst(Inst.BLVS, writer.p_throw_overflow_error());
+      if (noOverflow.contains(ctx)) {
+        writer.addInst(Inst.RSB, reg, value, new Imm(0));
+      } else {
+        writer.addInst(Inst.RSBS, reg, value, new Imm(0));
+        writer.addInst(Inst.BLVS, writer.p_throw_overflow_error());
+      }
     }
     return null;
   }
 
-  private void visitBinOpExprChildren(List<ExprContext> expr) {
+  // visit the operands, the left one into reg, returns the register holding
+  // the right one
+  private VReg visitBinOpExprChildren(List<ExprContext> expr) {
     visit(expr.get(0));
-    if (reg == Reg.R10) {
-      writer.addInst(Inst.PUSH, "{r10}");
-      pushedReg++;
-    } else {
-      reg = reg.next();
-    }
+    return visitOperand(expr.get(1));
+  }
 
-    visit(expr.get(1));
-    if (pushedReg > 0) {
-      writer.addInst(Inst.POP, "{r11}");
-      pushedReg--;
-    } else {
-      reg = reg.previous();
-    }
+  // the registers holding the values of both operands
+  private VReg[] visitOperands(List<ExprContext> expr) {
+    VReg left = visitOperand(expr.get(0));
+    return new VReg[] { left, visitOperand(expr.get(1)) };
   }
 
   @Override
   public Void visitBinOpPrec1Expr(BinOpPrec1ExprContext ctx) {
-    visitBinOpExprChildren(ctx.expr());
-    Reg nextReg = reg.next();
-
-    if (ctx.MULT() != null) {
-      writer.addInst(Inst.SMULL, reg + ", " + nextReg + ", " + reg + ", "
-          + nextReg);
-      writer.addInst(Inst.CMP, nextReg + ", " + reg + ", ASR #31");
+    Integer left = getInt(ctx.expr(0));
+    Integer right = getInt(ctx.expr(1));
+    boolean check = !noOverflow.contains(ctx);
+    if (ctx.MULT() != null && right != null
+        && multiplyBy(ctx.expr(0), right, check)
+        || ctx.MULT() != null && left != null
+            && multiplyBy(ctx.expr(1), left, check)
+        || ctx.MULT() == null && right != null
+            && divideBy(ctx.expr(0), right, ctx.DIV() != null)) {
+      return null;
+    }
+    VReg[] operands = visitOperands(ctx.expr());
+
+    if (ctx.MULT() != null && noOverflow.contains(ctx)) {
+      writer.addInst(Inst.MUL, reg, operands[0], operands[1]);
+    } else if (ctx.MULT() != null) {
+      VReg high = writer.newReg();
+      writer.addInst(Inst.SMULL, reg, high, operands[0], operands[1]);
+      writer.addInst(Inst.CMP, high, new Shift(reg, Shift.Op.ASR, 31));
       writer.addInst(Inst.BLNE, writer.p_throw_overflow_error());
     } else {
-      writer.addInst(Inst.MOV, "r0, " + reg);
-      writer.addInst(Inst.MOV, "r1, " + nextReg);
-      writer.addInst(Inst.BL, writer.p_check_divide_by_zero());
+      writer.addInst(Inst.MOV, Reg.R0, operands[0]);
+      writer.addInst(Inst.MOV, Reg.R1, operands[1]);
+      if (right == null || right == 0) {
+        writer.addInst(Inst.BL, writer.p_check_divide_by_zero());
+      }
       if (ctx.DIV() != null) {
-        writer.addInst(Inst.BL, "__aeabi_idiv");
-        writer.addInst(Inst.MOV, reg + ", r0");
+        writer.addInst(Inst.BL, new Label("__aeabi_idiv"));
+        writer.addInst(Inst.MOV, reg, Reg.R0);
       } else { // ctx.MOD() != null case
-        writer.addInst(Inst.BL, "__aeabi_idivmod");
-        writer.addInst(Inst.MOV, reg + ", r1");
+        writer.addInst(Inst.BL, new Label("__aeabi_idivmod"));
+        writer.addInst(Inst.MOV, reg, Reg.R1);
       }
     }
     return null;
   }
 
+  // the value of ctx if it is known and not an error
+  private Integer getInt(ExprContext ctx) {
+    Constant constant = constants.get(ctx);
+    return constant == null || constant.isError() ? null
+        : constant.getValue();
+  }
+
+  // multiply other by the constant c with moves, shifts and adds, false if
+  // nothing is generated as c needs a multiply
+  private boolean multiplyBy(ExprContext other, int c, boolean check) {
+    int k = 31 - Integer.numberOfLeadingZeros(c);
+    boolean power = c > 1 && Integer.bitCount(c) == 1;
+    boolean above = !check && c > 2 && Integer.bitCount(c - 1) == 1;
+    boolean below = !check && c > 2 && Integer.bitCount(c + 1) == 1;
+    if (c < -1 || c > 1 && !power && !above && !below) {
+      return false;
+    }
+    VReg x = visitOperand(other);
+    if (c == 0) {
+      writer.addInst(Inst.MOV, reg, new Imm(0));
+    } else if (c == 1) {
+      writer.addInst(Inst.MOV, reg, x);
+    } else if (c == -1 && !check) {
+      writer.addInst(Inst.RSB, reg, x, new Imm(0));
+    } else if (c == -1) {
+      writer.addInst(Inst.RSBS, reg, x, new Imm(0));
+      writer.addInst(Inst.BLVS, writer.p_throw_overflow_error());
+    } else if (power && !check) {
+      writer.addInst(Inst.MOV, reg, new Shift(x, Shift.Op.LSL, k));
+    } else if (power) {
+      // the shift overflows if shifting back does not give x
+      VReg product = reg == x ? writer.newReg() : reg;
+      writer.addInst(Inst.MOV, product, new Shift(x, Shift.Op.LSL, k));
+      writer.addInst(Inst.CMP, x, new Shift(product, Shift.Op.ASR, k));
+      writer.addInst(Inst.BLNE, writer.p_throw_overflow_error());
+      if (product != reg) {
+        writer.addInst(Inst.MOV, reg, product);
+      }
+    } else if (above) {
+      writer.addInst(Inst.ADD, reg, x, new Shift(x, Shift.Op.LSL, k));
+    } else {
+      writer.addInst(Inst.RSB, reg, x, new Shift(x, Shift.Op.LSL, k + 1));
+    }
+    return true;
+  }
+
+  // divide dividend by the constant d, or take its remainder if not div, with
+  // shifts and multiplies, false if nothing is generated as d needs a call
+  private boolean divideBy(ExprContext dividend, int d, boolean div) {
+    if (d == 0 || d == Integer.MIN_VALUE) {
+      return false;
+    }
+    VReg x = visitOperand(dividend);
+    // the remainder has the sign of the dividend only
+    int n = Math.abs(d);
+    int k = 31 - Integer.numberOfLeadingZeros(n);
+    if (n == 1 && !div) {
+      writer.addInst(Inst.MOV, reg, new Imm(0));
+    } else if (d == 1) {
+      writer.addInst(Inst.MOV, reg, x);
+    } else if (d == -1) {
+      // the smallest int wraps, as __aeabi_idiv does
+      writer.addInst(Inst.RSB, reg, x, new Imm(0));
+    } else if (Integer.bitCount(n) == 1) {
+      // a negative dividend is biased by n - 1 to round towards zero
+      VReg q = writer.newReg();
+      if (k == 1) {
+        writer.addInst(Inst.ADD, q, x, new Shift(x, Shift.Op.LSR, 31));
+      } else {
+        writer.addInst(Inst.MOV, q, new Shift(x, Shift.Op.ASR, 31));
+        writer.addInst(Inst.ADD, q, x, new Shift(q, Shift.Op.LSR, 32 - k));
+      }
+      if (div && d > 0) {
+        writer.addInst(Inst.MOV, reg, new Shift(q, Shift.Op.ASR, k));
+      } else if (div) {
+        writer.addInst(Inst.MOV, q, new Shift(q, Shift.Op.ASR, k));
+        writer.addInst(Inst.RSB, reg, q, new Imm(0));
+      } else {
+        writer.addInst(Inst.MOV, q, new Shift(q, Shift.Op.ASR, k));
+        writer.addInst(Inst.SUB, reg, x, new Shift(q, Shift.Op.LSL, k));
+      }
+    } else if (div) {
+      divideByMagic(x, d, reg);
+    } else {
+      VReg q = writer.newReg();
+      divideByMagic(x, n, q);
+      VReg product = writer.newReg();
+      writer.addInst(Inst.LDR, product, new Literal(n));
+      writer.addInst(Inst.MUL, product, q, product);
+      writer.addInst(Inst.SUB, reg, x, product);
+    }
+    return true;
+  }
+
+  // put x / d in quotient with a multiply by the magic number of d
+  private void divideByMagic(VReg x, int d, VReg quotient) {
+    Divisor divisor = new Divisor(d);
+    int m = divisor.getMultiplier();
+    VReg q = writer.newReg();
+    VReg low = writer.newReg();
+    writer.addInst(Inst.LDR, q, new Literal(m));
+    writer.addInst(Inst.SMULL, low, q, x, q);
+    if (d > 0 && m < 0) {
+      writer.addInst(Inst.ADD, q, q, x);
+    } else if (d < 0 && m > 0) {
+      writer.addInst(Inst.SUB, q, q, x);
+    }
+    if (divisor.getShift() > 0) {
+      writer.addInst(Inst.MOV, q,
+          new Shift(q, Shift.Op.ASR, divisor.getShift()));
+    }
+    writer.addInst(Inst.ADD, quotient, q, new Shift(q, Shift.Op.LSR, 31));
+  }
+
   @Override
   public Void visitBinOpPrec2Expr(BinOpPrec2ExprContext ctx) {
-    visitBinOpExprChildren(ctx.expr());
-    Reg nextReg = reg.next();
+    VReg[] operands = visitOperands(ctx.expr());
 
+    if (noOverflow.contains(ctx)) {
+      writer.addInst(ctx.PLUS() != null ? Inst.ADD : Inst.SUB, reg,
+          operands[0], operands[1]);
+      return null;
+    }
     if (ctx.PLUS() != null) {
-      writer.addInst(Inst.ADDS, reg + ", " + reg + ", " + nextReg);
+      writer.addInst(Inst.ADDS, reg, operands[0], operands[1]);
     } else {
-      writer.addInst(Inst.SUBS, reg + ", " + reg + ", " + nextReg);
+      writer.addInst(Inst.SUBS, reg, operands[0], operands[1]);
     }
     writer.addInst(Inst.BLVS, writer.p_throw_overflow_error());
     return null;
@@ -627,59 +1220,77 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitBinOpPrec3Expr(BinOpPrec3ExprContext ctx) {
-    visitBinOpExprChildren(ctx.expr());
-    Reg nextReg = reg.next();
+    VReg nextReg = visitBinOpExprChildren(ctx.expr());
 
-    writer.addInst(Inst.CMP, reg + ", " + nextReg);
+    writer.addInst(Inst.CMP, reg, nextReg);
     if (ctx.GRT() != null) {
-      writer.addInst(Inst.MOVGT, reg + ", #1");
-      writer.addInst(Inst.MOVLE, reg + ", #0");
+      writer.addInst(Inst.MOVGT, reg, new Imm(1));
+      writer.addInst(Inst.MOVLE, reg, new Imm(0));
     } else if (ctx.GRT_EQUAL() != null) {
-      writer.addInst(Inst.MOVGE, reg + ", #1");
-      writer.addInst(Inst.MOVLT, reg + ", #0");
+      writer.addInst(Inst.MOVGE, reg, new Imm(1));
+      writer.addInst(Inst.MOVLT, reg, new Imm(0));
     } else if (ctx.LESS() != null) {
-      writer.addInst(Inst.MOVLT, reg + ", #1");
-      writer.addInst(Inst.MOVGE, reg + ", #0");
+      writer.addInst(Inst.MOVLT, reg, new Imm(1));
+      writer.addInst(Inst.MOVGE, reg, new Imm(0));
     } else {
-      writer.addInst(Inst.MOVLE, reg + ", #1");
-      writer.addInst(Inst.MOVGT, reg + ", #0");
+      writer.addInst(Inst.MOVLE, reg, new Imm(1));
+      writer.addInst(Inst.MOVGT, reg, new Imm(0));
     }
     return null;
   }
 
   @Override
   public Void visitBinOpPrec4Expr(BinOpPrec4ExprContext ctx) {
-    visitBinOpExprChildren(ctx.expr());
-    Reg nextReg = reg.next();
+    VReg nextReg = visitBinOpExprChildren(ctx.expr());
 
-    writer.addInst(Inst.CMP, reg + ", " + nextReg);
+    writer.addInst(Inst.CMP, reg, nextReg);
     if (ctx.EQUAL() != null) {
-      writer.addInst(Inst.MOVEQ, reg + ", #1");
-      writer.addInst(Inst.MOVNE, reg + ", #0");
+      writer.addInst(Inst.MOVEQ, reg, new Imm(1));
+      writer.addInst(Inst.MOVNE, reg, new Imm(0));
     } else {
-      writer.addInst(Inst.MOVNE, reg + ", #1");
-      writer.addInst(Inst.MOVEQ, reg + ", #0");
+      writer.addInst(Inst.MOVNE, reg, new Imm(1));
+      writer.addInst(Inst.MOVEQ, reg, new Imm(0));
     }
     return null;
   }
 
   @Override
   public Void visitBinOpPrec5Expr(BinOpPrec5ExprContext ctx) {
-    visitBinOpExprChildren(ctx.expr());
-    Reg nextReg = reg.next();
-    writer.addInst(Inst.AND, reg + ", " + reg + ", " + nextReg);
+    if (shortCircuit.contains(ctx)) {
+      visitShortCircuit(ctx.expr(), false);
+      return null;
+    }
+    VReg[] operands = visitOperands(ctx.expr());
+    writer.addInst(Inst.AND, reg, operands[0], operands[1]);
     return null;
   }
 
   @Override
   public Void visitBinOpPrec6Expr(BinOpPrec6ExprContext ctx) {
-    visitBinOpExprChildren(ctx.expr());
-    Reg nextReg = reg.next();
-    writer.addInst(Inst.ORR, reg + ", " + reg + ", " + nextReg);
+    if (shortCircuit.contains(ctx)) {
+      visitShortCircuit(ctx.expr(), true);
+      return null;
+    }
+    VReg[] operands = visitOperands(ctx.expr());
+    writer.addInst(Inst.ORR, reg, operands[0], operands[1]);
     return null;
   }
 
-  private void store(Type type, int offset, String rd, String rn) {
+  // the value of the left operand if it is decides, else that of the right
+  // one, which is skipped if it is not needed
+  private void visitShortCircuit(List<ExprContext> expr, boolean decides) {
+    // the operands may read reg, so it is set at the end
+    VReg value = writer.newReg();
+    Label end = writer.getLabelLPair()[0];
+    visitInReg(expr.get(0), value);
+    writer.addInst(Inst.CMP, value, new Imm(decides ? 1 : 0));
+    writer.addInst(Inst.BEQ, end);
+    visitInReg(expr.get(1), value);
+    writer.addLabel(end);
+    writer.addInst(Inst.MOV, reg, value);
+  }
+
+  private void store(Type type, int offset, Register rd, Register rn) {
     Inst inst;
     if (getSize(type) == 1) {
       inst = Inst.STRB;
@@ -689,7 +1300,7 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
     storeAndLoadHelper(inst, offset, rd, rn);
   }
 
-  private void load(Type type, int offset, String rd, String rn) {
+  private void load(Type type, int offset, Register rd, Register rn) {
     Inst inst;
     if (getSize(type) == 1) {
       inst = Inst.LDRSB;
@@ -699,12 +1310,9 @@ public class CodeGeneratorVisitor extends WACCParserBaseVisitor<Void> {
     storeAndLoadHelper(inst, offset, rd, rn);
   }
 
-  private void storeAndLoadHelper(Inst inst, int offset, String rd, String rn) {
-    if (offset == 0) {
-      writer.addInst(inst, rd + ", [" + rn + "]");
-    } else {
-      writer.addInst(inst, rd + ", [" + rn + ", #" + offset + "]");
-    }
+  private void storeAndLoadHelper(Inst inst, int offset, Register rd,
+      Register rn) {
+    writer.addInst(inst, rd, new Mem(rn, offset));
   }
 
 }
@@ -1,35 +1,107 @@
 package wacc.visitor.code_generator;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-
-public class CodeWriter {
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Collects the program as lists of structured instructions, one Routine per
+// function, main and runtime helper. A routine is rendered as text once the
+// next one starts. In streaming mode the text section goes straight to the
+// output file while the data section and helpers are spooled to temporary
+// segments and appended by writeToFile, so memory use does not grow with the
+// length of the program.
+public class CodeWriter implements AutoCloseable {
+
+  private static final Pattern MSG = Pattern.compile("\\bmsg_(\\d+)\\b");
+  private static final Pattern LABEL_L = Pattern.compile("\\bL(\\d+)\\b");
+  private static final Pattern PLACEHOLDER =
+      Pattern.compile("@m(\\d+)@|@l(\\d+)@|\\b(p_[a-z_]+)");
 
   private final PrintWriter file;
-  private final StringBuilder data;
-  private final StringBuilder text;
-  private final List<StringBuilder> textP = new ArrayList<>();
-  private final Set<String> definedP = new HashSet<>();
+  private final Segment out;
+  private final Segment dataSpool;
+  private final Segment textPSpool;
+  private Routine data = new Routine();
+  // the routines that have not been rendered yet
+  private final List<Routine> text = new ArrayList<>();
+  private final List<Routine> textP = new ArrayList<>();
+  private final Set<Label> definedP = new HashSet<>();
+  private final List<Pass> passes = new ArrayList<>();
+  // the rendered text section, only used when not streaming
+  private final StringBuilder code = new StringBuilder();
+  // the strings added since the current routine started, msgs.get(0) is
+  // msg_<msgBase>
+  private final List<String> msgs = new ArrayList<>();
+  private int msgBase;
   private int msgCount;
   private int lCount;
+  private int vRegCount;
+  private int fragmentL;
+  // whether the heap is served by p_arena_alloc and p_arena_free
+  private boolean arena;
 
   public CodeWriter(PrintWriter file) {
     this.file = file;
-    this.data = new StringBuilder("\t.data\n\n");
-    this.text = new StringBuilder("\t.text\n\n\t.global main\n");
+    this.out = null;
+    this.dataSpool = null;
+    this.textPSpool = null;
+    this.msgCount = -1;
+    this.lCount = -1;
+  }
+
+  // streaming mode, the text section is written to out as it is generated
+  public CodeWriter(Segment out) throws IOException {
+    this.file = null;
+    this.out = out;
+    // the spools are only deleted when closed
+    this.dataSpool = Segment.temporary();
+    try {
+      this.textPSpool = Segment.temporary();
+    } catch (IOException e) {
+      dataSpool.close();
+      throw e;
+    }
     this.msgCount = -1;
     this.lCount = -1;
+    out.write("\t.text\n\n\t.global main\n");
+  }
+
+  // allocate from an arena instead of with malloc and free, see
+  // p_arena_alloc
+  public void useArena() {
+    arena = true;
+  }
+
+  // the routine that allocates r0 bytes and returns the block in r0
+  public Label malloc() {
+    return arena ? p_arena_alloc() : new Label("malloc");
+  }
+
+  private Label free() {
+    return arena ? p_arena_free() : new Label("free");
+  }
+
+  // n words of zeros in the data section
+  private Label addWords(String name, int n) {
+    Label label = new Label(name);
+    data.add(new Directive(".align 2"));
+    data.add(label);
+    data.add(new Directive(".space " + 4 * n));
+    return label;
   }
 
-  public String addMsg(String ascii) {
+  public Label addMsg(String ascii) {
     msgCount++;
-    String label = "msg_" + msgCount;
-    addLabelToSB(label, data);
-    data.append("\t\t.word " + wordInAscii(ascii) + "\n");
-    data.append("\t\t.ascii\t\"" + ascii + "\"\n");
+    Label label = new Label("msg_" + msgCount);
+    msgs.add(ascii);
+    data.add(label);
+    data.add(new Directive(".word " + wordInAscii(ascii)));
+    data.add(new Directive(".ascii\t\"" + ascii + "\""));
     return label;
   }
 
@@ -44,313 +116,680 @@ public class CodeWriter {
     return count;
   }
 
-  private void addLabelToSB(String label, StringBuilder sb) {
-    sb.append("\t" + label + ":\n");
+  // start the code of a new function
+  public void addRoutine(String name) {
+    flush();
+    msgs.clear();
+    msgBase = msgCount + 1;
+    vRegCount = 0;
+    Routine routine = new Routine();
+    routine.add(new Label(name));
+    text.add(routine);
   }
 
-  private void addInstToSB(Inst inst, String args, StringBuilder sb) {
-    sb.append("\t\t" + inst + " " + args + "\n");
+  // run pass on every function and main before it is rendered
+  public void addPass(Pass pass) {
+    passes.add(pass);
   }
 
-  public void addLabel(String label) {
-    addLabelToSB(label, text);
+  // run the passes on the routines that are complete and render them
+  private String renderPending() {
+    StringBuilder sb = new StringBuilder();
+    for (Routine routine : text) {
+      if (!routine.isVerbatim()) {
+        for (Pass pass : passes) {
+          pass.apply(routine);
+        }
+      }
+      routine.render(sb);
+    }
+    text.clear();
+    return sb.toString();
   }
 
-  public void addInst(Inst inst, String args) {
-    addInstToSB(inst, args, text);
+  // render the routines that are complete, when streaming they are written out
+  // along with the data and helpers generated so far
+  private void flush() {
+    emit(renderPending());
+  }
+
+  private void emit(String rendered) {
+    if (out == null) {
+      code.append(rendered);
+      return;
+    }
+    out.write(rendered);
+    StringBuilder sb = new StringBuilder();
+    data.render(sb);
+    data = new Routine();
+    dataSpool.write(sb);
+    sb.setLength(0);
+    for (Routine routine : textP) {
+      routine.render(sb);
+    }
+    textP.clear();
+    textPSpool.write(sb);
+  }
+
+  private Routine current() {
+    return text.get(text.size() - 1);
+  }
+
+  // a new virtual register of the current function
+  public VReg newReg() {
+    return new VReg(vRegCount++);
+  }
+
+  public void addLabel(Label label) {
+    current().add(label);
+  }
+
+  public void addInst(Inst inst, Operand... operands) {
+    current().addInst(inst, operands);
   }
 
   public void addLtorg() {
-    text.append("\t\t.ltorg\n");
+    current().add(new Directive(".ltorg"));
   }
 
-  public String[] getLabelLPair() {
-    String[] lpair = new String[2];
+  public Label[] getLabelLPair() {
+    Label[] lpair = new Label[2];
     for (int i = 0; i < lpair.length; i++) {
       lpair[i] = getLabelL();
     }
     return lpair;
   }
 
-  private String getLabelL() {
+  private Label getLabelL() {
     lCount++;
-    return "L" + lCount;
+    return new Label("L" + lCount);
+  }
+
+  // start recording the code of a function so it can be reused later
+  public void beginFragment() {
+    flush();
+    fragmentL = lCount + 1;
+  }
+
+  // the code emitted since beginFragment with its msg_N and LN labels replaced
+  // by placeholders, see Fragment
+  public Fragment endFragment() {
+    String rendered = renderPending();
+    emit(rendered);
+    List<String> fragmentMsgs = new ArrayList<>();
+    Matcher m = MSG.matcher(rendered);
+    StringBuffer sb = new StringBuffer();
+    while (m.find()) {
+      fragmentMsgs.add(msgs.get(Integer.parseInt(m.group(1)) - msgBase));
+      m.appendReplacement(sb, "@m" + (fragmentMsgs.size() - 1) + "@");
+    }
+    m.appendTail(sb);
+
+    m = LABEL_L.matcher(sb.toString());
+    sb = new StringBuffer();
+    while (m.find()) {
+      int offset = Integer.parseInt(m.group(1)) - fragmentL;
+      m.appendReplacement(sb, "@l" + offset + "@");
+    }
+    m.appendTail(sb);
+    return new Fragment(sb.toString(), fragmentMsgs, lCount + 1 - fragmentL);
+  }
+
+  // splice a previously generated function into the program, its strings and
+  // labels are renumbered and the helpers it calls are defined in the same
+  // order as when it was generated, so the output is identical
+  public void addFragment(Fragment fragment) {
+    int base = lCount + 1;
+    lCount += fragment.getLabelCount();
+    Matcher m = PLACEHOLDER.matcher(fragment.getTemplate());
+    StringBuffer sb = new StringBuffer();
+    while (m.find()) {
+      String replacement;
+      if (m.group(1) != null) {
+        int i = Integer.parseInt(m.group(1));
+        replacement = addMsg(fragment.getMsgs().get(i)).getName();
+      } else if (m.group(2) != null) {
+        replacement = "L" + (base + Integer.parseInt(m.group(2)));
+      } else {
+        replacement = p(m.group(3)).getName();
+      }
+      m.appendReplacement(sb, Matcher.quoteReplacement(replacement));
+    }
+    m.appendTail(sb);
+    Routine routine = new Routine();
+    routine.add(new Verbatim(sb.toString()));
+    text.add(routine);
+  }
+
+  private Label p(String label) {
+    switch (label) {
+      case "p_throw_runtime_error":
+        return p_throw_runtime_error();
+      case "p_throw_overflow_error":
+        return p_throw_overflow_error();
+      case "p_throw_divide_by_zero":
+        return p_throw_divide_by_zero();
+      case "p_check_divide_by_zero":
+        return p_check_divide_by_zero();
+      case "p_check_null_pointer":
+        return p_check_null_pointer();
+      case "p_check_array_bounds":
+        return p_check_array_bounds();
+      case "p_print_ln":
+        return p_print_ln();
+      case "p_print_int":
+        return p_print_int();
+      case "p_print_bool":
+        return p_print_bool();
+      case "p_print_string":
+        return p_print_string();
+      case "p_print_reference":
+        return p_print_reference();
+      case "p_read_int":
+        return p_read_int();
+      case "p_read_char":
+        return p_read_char();
+      case "p_free_pair":
+        return p_free_pair();
+      case "p_free_non_null_pair":
+        return p_free_non_null_pair();
+      case "p_free_array":
+        return p_free_array();
+      case "p_arena_alloc":
+        return p_arena_alloc();
+      case "p_arena_free":
+        return p_arena_free();
+      default:
+        throw new IllegalArgumentException("Unknown helper " + label);
+    }
   }
 
-  private StringBuilder initP(String label) {
+  private Routine initP(Label label) {
     definedP.add(label);
-    StringBuilder sb = new StringBuilder();
-    textP.add(sb);
-    addLabelToSB(label, sb);
-    return sb;
+    Routine routine = new Routine();
+    textP.add(routine);
+    routine.add(label);
+    return routine;
   }
 
-  public String p_throw_runtime_error() {
-    String label = "p_throw_runtime_error";
+  public Label p_throw_runtime_error() {
+    Label label = new Label("p_throw_runtime_error");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
+    Routine routine = initP(label);
 
-    addInstToSB(Inst.BL, p_print_string(), sb);
-    addInstToSB(Inst.MOV, "r0, #-1", sb);
-    addInstToSB(Inst.BL, "exit", sb);
+    routine.addInst(Inst.BL, p_print_string());
+    routine.addInst(Inst.MOV, Reg.R0, new Imm(-1));
+    routine.addInst(Inst.BL, new Label("exit"));
     return label;
   }
 
-  public String p_throw_overflow_error() {
-    String label = "p_throw_overflow_error";
+  public Label p_throw_overflow_error() {
+    Label label = new Label("p_throw_overflow_error");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
+    Routine routine = initP(label);
 
-    String msg = addMsg("OverflowError: the result is too small/large to "
+    Label msg = addMsg("OverflowError: the result is too small/large to "
         + "store in a 4-byte signed-integer.\\n\\0");
-    addInstToSB(Inst.LDR, "r0, =" + msg, sb);
-    addInstToSB(Inst.BL, p_throw_runtime_error(), sb);
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.BL, p_throw_runtime_error());
     return label;
   }
 
-  public String p_check_divide_by_zero() {
-    String label = "p_check_divide_by_zero";
+  public Label p_throw_divide_by_zero() {
+    Label label = new Label("p_throw_divide_by_zero");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
+    Routine routine = initP(label);
 
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.CMP, "r1, #0", sb);
-    String msg = addMsg("DivideByZeroError: divide or modulo by zero\\n\\0");
-    addInstToSB(Inst.LDREQ, "r0, =" + msg, sb);
-    addInstToSB(Inst.BLEQ, p_throw_runtime_error(), sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    Label msg = addMsg("DivideByZeroError: divide or modulo by zero\\n\\0");
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.BL, p_throw_runtime_error());
     return label;
   }
 
-  public String p_check_null_pointer() {
-    String label = "p_check_null_pointer";
+  public Label p_check_divide_by_zero() {
+    Label label = new Label("p_check_divide_by_zero");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
+    Routine routine = initP(label);
 
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.CMP, "r0, #0", sb);
-    String msg = addMsg("NullReferenceError: dereference a null reference\\n\\0");
-    addInstToSB(Inst.LDREQ, "r0, =" + msg, sb);
-    addInstToSB(Inst.BLEQ, p_throw_runtime_error(), sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.CMP, Reg.R1, new Imm(0));
+    routine.addInst(Inst.BLEQ, p_throw_divide_by_zero());
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
     return label;
   }
 
-  public String p_check_array_bounds() {
-    String label = "p_check_array_bounds";
+  public Label p_check_null_pointer() {
+    Label label = new Label("p_check_null_pointer");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
-
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.CMP, "r0, #0", sb);
-    String msg0 = addMsg("ArrayIndexOutOfBoundsError: negative index\\n\\0");
-    addInstToSB(Inst.LDRLT, "r0, =" + msg0, sb);
-    addInstToSB(Inst.BLLT, p_throw_runtime_error(), sb);
-    addInstToSB(Inst.LDR, "r1, [r1]", sb);
-    addInstToSB(Inst.CMP, "r0, r1", sb);
-    String msg1 = addMsg("ArrayIndexOutOfBoundsError: index too large\\n\\0");
-    addInstToSB(Inst.LDRCS, "r0, =" + msg1, sb);
-    addInstToSB(Inst.BLCS, p_throw_runtime_error(), sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.CMP, Reg.R0, new Imm(0));
+    Label msg = addMsg("NullReferenceError: dereference a null reference\\n\\0");
+    routine.addInst(Inst.LDREQ, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.BLEQ, p_throw_runtime_error());
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
     return label;
   }
 
-  public String p_print_ln() {
-    String label = "p_print_ln";
+  public Label p_check_array_bounds() {
+    Label label = new Label("p_check_array_bounds");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.CMP, Reg.R0, new Imm(0));
+    Label msg0 = addMsg("ArrayIndexOutOfBoundsError: negative index\\n\\0");
+    routine.addInst(Inst.LDRLT, Reg.R0, new Literal(msg0));
+    routine.addInst(Inst.BLLT, p_throw_runtime_error());
+    routine.addInst(Inst.LDR, Reg.R1, new Mem(Reg.R1));
+    routine.addInst(Inst.CMP, Reg.R0, Reg.R1);
+    Label msg1 = addMsg("ArrayIndexOutOfBoundsError: index too large\\n\\0");
+    routine.addInst(Inst.LDRCS, Reg.R0, new Literal(msg1));
+    routine.addInst(Inst.BLCS, p_throw_runtime_error());
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
+    return label;
+  }
+
+  public Label p_print_ln() {
+    Label label = new Label("p_print_ln");
+    if (definedP.contains(label)) {
+      return label;
+    }
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    Label msg = addMsg("\\0");
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, new Imm(4));
+    routine.addInst(Inst.BL, new Label("puts"));
+    routine.addInst(Inst.MOV, Reg.R0, new Imm(0));
+    routine.addInst(Inst.BL, new Label("fflush"));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
+    return label;
+  }
 
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    String msg = addMsg("\\0");
-    addInstToSB(Inst.LDR, "r0, =" + msg, sb);
-    addInstToSB(Inst.ADD, "r0, r0, #4", sb);
-    addInstToSB(Inst.BL, "puts", sb);
-    addInstToSB(Inst.MOV, "r0, #0", sb);
-    addInstToSB(Inst.BL, "fflush", sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+  public Label p_print_int() {
+    Label label = new Label("p_print_int");
+    if (definedP.contains(label)) {
+      return label;
+    }
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.MOV, Reg.R1, Reg.R0);
+    Label msg = addMsg("%d\\0");
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, new Imm(4));
+    routine.addInst(Inst.BL, new Label("printf"));
+    routine.addInst(Inst.MOV, Reg.R0, new Imm(0));
+    routine.addInst(Inst.BL, new Label("fflush"));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
     return label;
   }
 
-  public String p_print_int() {
-    String label = "p_print_int";
+  public Label p_print_bool() {
+    Label label = new Label("p_print_bool");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
-
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.MOV, "r1, r0", sb);
-    String msg = addMsg("%d\\0");
-    addInstToSB(Inst.LDR, "r0, =" + msg, sb);
-    addInstToSB(Inst.ADD, "r0, r0, #4", sb);
-    addInstToSB(Inst.BL, "printf", sb);
-    addInstToSB(Inst.MOV, "r0, #0", sb);
-    addInstToSB(Inst.BL, "fflush", sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.CMP, Reg.R0, new Imm(0));
+    Label msg0 = addMsg("true\\0");
+    routine.addInst(Inst.LDRNE, Reg.R0, new Literal(msg0));
+    Label msg1 = addMsg("false\\0");
+    routine.addInst(Inst.LDREQ, Reg.R0, new Literal(msg1));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, new Imm(4));
+    routine.addInst(Inst.BL, new Label("printf"));
+    routine.addInst(Inst.MOV, Reg.R0, new Imm(0));
+    routine.addInst(Inst.BL, new Label("fflush"));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
     return label;
   }
 
-  public String p_print_bool() {
-    String label = "p_print_bool";
+  public Label p_print_string() {
+    Label label = new Label("p_print_string");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
-
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.CMP, "r0, #0", sb);
-    String msg0 = addMsg("true\\0");
-    addInstToSB(Inst.LDRNE, "r0, =" + msg0, sb);
-    String msg1 = addMsg("false\\0");
-    addInstToSB(Inst.LDREQ, "r0, =" + msg1, sb);
-    addInstToSB(Inst.ADD, "r0, r0, #4", sb);
-    addInstToSB(Inst.BL, "printf", sb);
-    addInstToSB(Inst.MOV, "r0, #0", sb);
-    addInstToSB(Inst.BL, "fflush", sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.LDR, Reg.R1, new Mem(Reg.R0));
+    routine.addInst(Inst.ADD, Reg.R2, Reg.R0, new Imm(4));
+    Label msg = addMsg("%.*s\\0");
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, new Imm(4));
+    routine.addInst(Inst.BL, new Label("printf"));
+    routine.addInst(Inst.MOV, Reg.R0, new Imm(0));
+    routine.addInst(Inst.BL, new Label("fflush"));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
     return label;
   }
 
-  public String p_print_string() {
-    String label = "p_print_string";
+  public Label p_print_reference() {
+    Label label = new Label("p_print_reference");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
-
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.LDR, "r1, [r0]", sb);
-    addInstToSB(Inst.ADD, "r2, r0, #4", sb);
-    String msg = addMsg("%.*s\\0");
-    addInstToSB(Inst.LDR, "r0, =" + msg, sb);
-    addInstToSB(Inst.ADD, "r0, r0, #4", sb);
-    addInstToSB(Inst.BL, "printf", sb);
-    addInstToSB(Inst.MOV, "r0, #0", sb);
-    addInstToSB(Inst.BL, "fflush", sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.MOV, Reg.R1, Reg.R0);
+    Label msg = addMsg("%p\\0");
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, new Imm(4));
+    routine.addInst(Inst.BL, new Label("printf"));
+    routine.addInst(Inst.MOV, Reg.R0, new Imm(0));
+    routine.addInst(Inst.BL, new Label("fflush"));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
     return label;
   }
 
-  public String p_print_reference() {
-    String label = "p_print_reference";
+  public Label p_read_int() {
+    Label label = new Label("p_read_int");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
-
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.MOV, "r1, r0", sb);
-    String msg = addMsg("%p\\0");
-    addInstToSB(Inst.LDR, "r0, =" + msg, sb);
-    addInstToSB(Inst.ADD, "r0, r0, #4", sb);
-    addInstToSB(Inst.BL, "printf", sb);
-    addInstToSB(Inst.MOV, "r0, #0", sb);
-    addInstToSB(Inst.BL, "fflush", sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.MOV, Reg.R1, Reg.R0);
+    Label msg = addMsg("%d\\0");
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, new Imm(4));
+    routine.addInst(Inst.BL, new Label("scanf"));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
     return label;
   }
 
-  public String p_read_int() {
-    String label = "p_read_int";
+  public Label p_read_char() {
+    Label label = new Label("p_read_char");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.MOV, Reg.R1, Reg.R0);
+    Label msg = addMsg(" %c\\0");
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, new Imm(4));
+    routine.addInst(Inst.BL, new Label("scanf"));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
+    return label;
+  }
 
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.MOV, "r1, r0", sb);
-    String msg = addMsg("%d\\0");
-    addInstToSB(Inst.LDR, "r0, =" + msg, sb);
-    addInstToSB(Inst.ADD, "r0, r0, #4", sb);
-    addInstToSB(Inst.BL, "scanf", sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+  public Label p_free_pair() {
+    Label label = new Label("p_free_pair");
+    if (definedP.contains(label)) {
+      return label;
+    }
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.CMP, Reg.R0, new Imm(0));
+    Label msg = addMsg("NullReferenceError: dereference a null reference\\n\\0");
+    routine.addInst(Inst.LDREQ, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.BEQ, p_throw_runtime_error());
+    addFreePair(routine);
     return label;
   }
 
-  public String p_read_char() {
-    String label = "p_read_char";
+  // p_free_pair for a pair known not to be null
+  public Label p_free_non_null_pair() {
+    Label label = new Label("p_free_non_null_pair");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
+    Routine routine = initP(label);
 
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.MOV, "r1, r0", sb);
-    String msg = addMsg(" %c\\0");
-    addInstToSB(Inst.LDR, "r0, =" + msg, sb);
-    addInstToSB(Inst.ADD, "r0, r0, #4", sb);
-    addInstToSB(Inst.BL, "scanf", sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    addFreePair(routine);
     return label;
   }
 
-  public String p_free_pair() {
-    String label = "p_free_pair";
+  // the elements are kept in the pair, so it is a single block to free
+  private void addFreePair(Routine routine) {
+    routine.addInst(Inst.BL, free());
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
+  }
+
+  public Label p_free_array() {
+    Label label = new Label("p_free_array");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
-
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.CMP, "r0, #0", sb);
-    String msg = addMsg("NullReferenceError: dereference a null reference\\n\\0");
-    addInstToSB(Inst.LDREQ, "r0, =" + msg, sb);
-    addInstToSB(Inst.BEQ, p_throw_runtime_error(), sb);
-    addInstToSB(Inst.PUSH, "{r0}", sb);
-    addInstToSB(Inst.LDR, "r0, [r0]", sb);
-    addInstToSB(Inst.BL, "free", sb);
-    addInstToSB(Inst.CMP, "r0, #0", sb);
-    addInstToSB(Inst.MOVNE, "r0, #134", sb);
-    addInstToSB(Inst.BLNE, "exit", sb);
-    addInstToSB(Inst.LDR, "r0, [sp]", sb);
-    addInstToSB(Inst.LDR, "r0, [r0, #4]", sb);
-    addInstToSB(Inst.BL, "free", sb);
-    addInstToSB(Inst.POP, "{r0}", sb);
-    addInstToSB(Inst.BL, "free", sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.CMP, Reg.R0, new Imm(0));
+    Label msg = addMsg("NullReferenceError: dereference a null reference\\n\\0");
+    routine.addInst(Inst.LDREQ, Reg.R0, new Literal(msg));
+    routine.addInst(Inst.BEQ, p_throw_runtime_error());
+    routine.addInst(Inst.BL, free());
+    routine.addInst(Inst.CMP, Reg.R0, new Imm(0));
+    routine.addInst(Inst.MOVNE, Reg.R0, new Imm(134));
+    routine.addInst(Inst.BLNE, new Label("exit"));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
     return label;
   }
 
-  public String p_free_array() {
-    String label = "p_free_array";
+  // Blocks of up to ARENA_CLASSES * 8 bytes, including a word before the block
+  // that holds its size, are cut from chunks of ARENA_CHUNK bytes obtained
+  // from malloc, and freed blocks are kept in a list for each size to be
+  // handed out again. Larger blocks come straight from malloc. The number of
+  // allocations, bytes asked for, frees, blocks handed out again and chunks
+  // are counted in arena_stats and printed to stderr at exit.
+  private static final int ARENA_CLASSES = 32;
+  private static final int ARENA_CHUNK = 65536;
+
+  public Label p_arena_alloc() {
+    Label label = new Label("p_arena_alloc");
     if (definedP.contains(label)) {
       return label;
     }
-    StringBuilder sb = initP(label);
-
-    addInstToSB(Inst.PUSH, "{lr}", sb);
-    addInstToSB(Inst.CMP, "r0, #0", sb);
-    String msg = addMsg("NullReferenceError: dereference a null reference\\n\\0");
-    addInstToSB(Inst.LDREQ, "r0, =" + msg, sb);
-    addInstToSB(Inst.BEQ, p_throw_runtime_error(), sb);
-    addInstToSB(Inst.BL, "free", sb);
-    addInstToSB(Inst.CMP, "r0, #0", sb);
-    addInstToSB(Inst.MOVNE, "r0, #134", sb);
-    addInstToSB(Inst.BLNE, "exit", sb);
-    addInstToSB(Inst.POP, "{pc}", sb);
+    Routine routine = initP(label);
+    Label stats = addWords("arena_stats", 5);
+    Label lists = addWords("arena_free", ARENA_CLASSES + 1);
+    Label chunk = addWords("arena_chunk", 2);
+    Label bump = new Label("arena_bump");
+    Label refill = new Label("arena_refill");
+    Label large = new Label("arena_large");
+    Label first = new Label("arena_first");
+    Label counted = new Label("arena_counted");
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.LDR, Reg.R3, new Literal(stats));
+    addCount(routine, 0, Reg.R2);
+    routine.addInst(Inst.CMP, Reg.R2, new Imm(1));
+    routine.addInst(Inst.BEQ, first);
+    routine.add(counted);
+    routine.addInst(Inst.LDR, Reg.R2, new Mem(Reg.R3, 4));
+    routine.addInst(Inst.ADD, Reg.R2, Reg.R2, Reg.R0);
+    routine.addInst(Inst.STR, Reg.R2, new Mem(Reg.R3, 4));
+    // the size of the block with its size word, a multiple of 8
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, new Imm(11));
+    routine.addInst(Inst.MOV, Reg.R0, new Shift(Reg.R0, Shift.Op.LSR, 3));
+    routine.addInst(Inst.MOV, Reg.R0, new Shift(Reg.R0, Shift.Op.LSL, 3));
+    routine.addInst(Inst.CMP, Reg.R0, new Imm(ARENA_CLASSES * 8));
+    routine.addInst(Inst.BGT, large);
+    // the list of the blocks of this size is word size / 8 of arena_free
+    routine.addInst(Inst.LDR, Reg.R1, new Literal(lists));
+    routine.addInst(Inst.ADD, Reg.R1, Reg.R1,
+        new Shift(Reg.R0, Shift.Op.LSR, 1));
+    routine.addInst(Inst.LDR, Reg.R2, new Mem(Reg.R1));
+    routine.addInst(Inst.CMP, Reg.R2, new Imm(0));
+    routine.addInst(Inst.BEQ, bump);
+    routine.addInst(Inst.LDR, Reg.R12, new Mem(Reg.R2));
+    routine.addInst(Inst.STR, Reg.R12, new Mem(Reg.R1));
+    addCount(routine, 12, Reg.R1);
+    routine.addInst(Inst.MOV, Reg.R0, Reg.R2);
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
+    routine.add(bump);
+    routine.addInst(Inst.LDR, Reg.R1, new Literal(chunk));
+    routine.addInst(Inst.LDR, Reg.R2, new Mem(Reg.R1));
+    routine.addInst(Inst.LDR, Reg.R3, new Mem(Reg.R1, 4));
+    routine.addInst(Inst.SUB, Reg.R3, Reg.R3, Reg.R2);
+    routine.addInst(Inst.CMP, Reg.R3, Reg.R0);
+    routine.addInst(Inst.BLT, refill);
+    routine.addInst(Inst.ADD, Reg.R3, Reg.R2, Reg.R0);
+    routine.addInst(Inst.STR, Reg.R3, new Mem(Reg.R1));
+    routine.addInst(Inst.STR, Reg.R0, new Mem(Reg.R2));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R2, new Imm(4));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
+    // the rest of the current chunk is too small for the block
+    routine.add(refill);
+    routine.addInst(Inst.PUSH, new RegList(Reg.R0));
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(ARENA_CHUNK));
+    routine.addInst(Inst.BL, new Label("malloc"));
+    routine.addInst(Inst.LDR, Reg.R1, new Literal(chunk));
+    routine.addInst(Inst.STR, Reg.R0, new Mem(Reg.R1));
+    routine.addInst(Inst.LDR, Reg.R2, new Literal(ARENA_CHUNK));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, Reg.R2);
+    routine.addInst(Inst.STR, Reg.R0, new Mem(Reg.R1, 4));
+    routine.addInst(Inst.LDR, Reg.R3, new Literal(stats));
+    addCount(routine, 16, Reg.R2);
+    routine.addInst(Inst.POP, new RegList(Reg.R0));
+    routine.addInst(Inst.B, bump);
+    routine.add(large);
+    routine.addInst(Inst.PUSH, new RegList(Reg.R0));
+    routine.addInst(Inst.BL, new Label("malloc"));
+    routine.addInst(Inst.POP, new RegList(Reg.R1));
+    routine.addInst(Inst.STR, Reg.R1, new Mem(Reg.R0));
+    routine.addInst(Inst.ADD, Reg.R0, Reg.R0, new Imm(4));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
+    // the statistics are printed at exit once there is a first allocation
+    routine.add(first);
+    routine.addInst(Inst.PUSH, new RegList(Reg.R0));
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(p_arena_stats()));
+    routine.addInst(Inst.BL, new Label("atexit"));
+    routine.addInst(Inst.POP, new RegList(Reg.R0));
+    routine.addInst(Inst.LDR, Reg.R3, new Literal(stats));
+    routine.addInst(Inst.B, counted);
+    return label;
+  }
+
+  // add 1 to the count at offset of arena_stats, whose address is in r3,
+  // leaving the count in reg
+  private static void addCount(Routine routine, int offset, Reg reg) {
+    routine.addInst(Inst.LDR, reg, new Mem(Reg.R3, offset));
+    routine.addInst(Inst.ADD, reg, reg, new Imm(1));
+    routine.addInst(Inst.STR, reg, new Mem(Reg.R3, offset));
+  }
+
+  // put the block in r0 from p_arena_alloc back in the list of its size
+  public Label p_arena_free() {
+    Label label = new Label("p_arena_free");
+    if (definedP.contains(label)) {
+      return label;
+    }
+    p_arena_alloc();
+    Routine routine = initP(label);
+    Label large = new Label("arena_free_large");
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.LDR, Reg.R3, new Literal(new Label("arena_stats")));
+    addCount(routine, 8, Reg.R2);
+    routine.addInst(Inst.LDR, Reg.R1, new Mem(Reg.R0, -4));
+    routine.addInst(Inst.CMP, Reg.R1, new Imm(ARENA_CLASSES * 8));
+    routine.addInst(Inst.BGT, large);
+    routine.addInst(Inst.LDR, Reg.R2, new Literal(new Label("arena_free")));
+    routine.addInst(Inst.ADD, Reg.R2, Reg.R2,
+        new Shift(Reg.R1, Shift.Op.LSR, 1));
+    routine.addInst(Inst.LDR, Reg.R3, new Mem(Reg.R2));
+    routine.addInst(Inst.STR, Reg.R3, new Mem(Reg.R0));
+    routine.addInst(Inst.STR, Reg.R0, new Mem(Reg.R2));
+    // the callers of free test r0 afterwards
+    routine.addInst(Inst.MOV, Reg.R0, new Imm(0));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
+    routine.add(large);
+    routine.addInst(Inst.SUB, Reg.R0, Reg.R0, new Imm(4));
+    routine.addInst(Inst.BL, new Label("free"));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
+    return label;
+  }
+
+  // print the counts of arena_stats to stderr
+  private Label p_arena_stats() {
+    Label label = new Label("p_arena_stats");
+    if (definedP.contains(label)) {
+      return label;
+    }
+    Routine routine = initP(label);
+
+    routine.addInst(Inst.PUSH, new RegList(Reg.LR));
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(new Label("arena_stats")));
+    routine.addInst(Inst.LDR, Reg.R1, new Mem(Reg.R0, 8));
+    routine.addInst(Inst.LDR, Reg.R2, new Mem(Reg.R0, 12));
+    routine.addInst(Inst.LDR, Reg.R3, new Mem(Reg.R0, 16));
+    routine.addInst(Inst.PUSH, new RegList(Reg.R1, Reg.R2, Reg.R3));
+    routine.addInst(Inst.LDR, Reg.R2, new Mem(Reg.R0));
+    routine.addInst(Inst.LDR, Reg.R3, new Mem(Reg.R0, 4));
+    Label msg = addMsg("arena: %d allocations of %d bytes, %d frees, "
+        + "%d blocks reused, %d chunks\\n\\0");
+    routine.addInst(Inst.LDR, Reg.R1, new Literal(msg));
+    routine.addInst(Inst.ADD, Reg.R1, Reg.R1, new Imm(4));
+    routine.addInst(Inst.LDR, Reg.R0, new Literal(new Label("stderr")));
+    routine.addInst(Inst.LDR, Reg.R0, new Mem(Reg.R0));
+    routine.addInst(Inst.BL, new Label("fprintf"));
+    routine.addInst(Inst.ADD, Reg.SP, Reg.SP, new Imm(12));
+    routine.addInst(Inst.POP, new RegList(Reg.PC));
     return label;
   }
 
   public void writeToFile() {
+    flush();
+    if (out != null) {
+      textPSpool.appendTo(out);
+      if (msgCount != -1) {
+        out.write("\n\t.data\n\n");
+        dataSpool.appendTo(out);
+      }
+      return;
+    }
+    StringBuilder sb = new StringBuilder();
     if (msgCount != -1) {
-      file.write(data.toString());
-      file.write("\n");
+      sb.append("\t.data\n\n");
+      data.render(sb);
+      sb.append("\n");
     }
-    file.write(text.toString());
-    for (StringBuilder sb : textP) {
-      file.write(sb.toString());
+    sb.append("\t.text\n\n\t.global main\n");
+    sb.append(code);
+    for (Routine routine : textP) {
+      routine.render(sb);
+    }
+    file.write(sb.toString());
+  }
+
+  @Override
+  public void close() {
+    if (out == null) {
+      file.close();
+      return;
+    }
+    try {
+      out.close();
+    } finally {
+      try {
+        dataSpool.close();
+      } finally {
+        textPSpool.close();
+      }
     }
   }
 
@@ -0,0 +1,17 @@
+package wacc.visitor.code_generator;
+
+// An assembler directive such as .ltorg or .word 5.
+public class Directive implements Line {
+
+  private final String text;
+
+  public Directive(String text) {
+    this.text = text;
+  }
+
+  @Override
+  public void render(StringBuilder sb) {
+    sb.append("\t\t").append(text).append('\n');
+  }
+
+}
@@ -0,0 +1,54 @@
+package wacc.visitor.code_generator;
+
+// The magic number that divides by a constant d, the quotient rounded towards
+// zero is the high word of n * multiplier, plus n if d > 0 and the multiplier
+// is negative, minus n if d < 0 and the multiplier is positive, shifted right
+// arithmetically by shift, plus 1 if that is negative (Hacker's Delight 10-1).
+// d is neither -1, 0 nor 1 and not the smallest int.
+class Divisor {
+
+  private static final long TWO_31 = 1L << 31;
+
+  private final int multiplier;
+  private final int shift;
+
+  Divisor(int d) {
+    long ad = Math.abs((long) d);
+    long t = TWO_31 + (d < 0 ? 1 : 0);
+    long anc = t - 1 - t % ad;
+    int p = 31;
+    long q1 = TWO_31 / anc;
+    long r1 = TWO_31 - q1 * anc;
+    long q2 = TWO_31 / ad;
+    long r2 = TWO_31 - q2 * ad;
+    long delta;
+    do {
+      p++;
+      q1 *= 2;
+      r1 *= 2;
+      if (r1 >= anc) {
+        q1++;
+        r1 -= anc;
+      }
+      q2 *= 2;
+      r2 *= 2;
+      if (r2 >= ad) {
+        q2++;
+        r2 -= ad;
+      }
+      delta = ad - r2;
+    } while (q1 < delta || q1 == delta && r1 == 0);
+    int m = (int) (q2 + 1);
+    multiplier = d < 0 ? -m : m;
+    shift = p - 32;
+  }
+
+  int getMultiplier() {
+    return multiplier;
+  }
+
+  int getShift() {
+    return shift;
+  }
+
+}
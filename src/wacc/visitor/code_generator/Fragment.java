@@ -0,0 +1,33 @@
+package wacc.visitor.code_generator;
+
+import java.util.List;
+
+// The code generated for one function with its program-wide names factored
+// out: string literals are referred to as @m<i>@ (index into msgs) and local
+// branch labels as @l<i>@ (offset from the first label of the function), so
+// the fragment can be spliced into another program by CodeWriter.addFragment.
+public class Fragment {
+
+  private final String template;
+  private final List<String> msgs;
+  private final int labelCount;
+
+  public Fragment(String template, List<String> msgs, int labelCount) {
+    this.template = template;
+    this.msgs = msgs;
+    this.labelCount = labelCount;
+  }
+
+  public String getTemplate() {
+    return template;
+  }
+
+  public List<String> getMsgs() {
+    return msgs;
+  }
+
+  public int getLabelCount() {
+    return labelCount;
+  }
+
+}
@@ -0,0 +1,35 @@
+package wacc.visitor.code_generator;
+
+// An immediate value, #n, characters are rendered quoted as #'c'.
+public class Imm implements Operand {
+
+  private final int value;
+  private final boolean isChar;
+
+  public Imm(int value) {
+    this(value, false);
+  }
+
+  private Imm(int value, boolean isChar) {
+    this.value = value;
+    this.isChar = isChar;
+  }
+
+  public static Imm ofChar(char c) {
+    return new Imm(c, true);
+  }
+
+  public int getValue() {
+    return value;
+  }
+
+  public boolean isChar() {
+    return isChar;
+  }
+
+  @Override
+  public String toString() {
+    return isChar ? "#'" + (char) value + "'" : "#" + value;
+  }
+
+}
@@ -1,5 +1,8 @@
 package wacc.visitor.code_generator;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Inst {
   MOV,
   MOVGT,
@@ -20,6 +23,11 @@ public enum Inst {
   STRB,
   B,
   BEQ,
+  BNE,
+  BGT,
+  BGE,
+  BLT,
+  BLE,
   BL,
   BLCS,
   BLEQ,
@@ -30,10 +38,38 @@ public enum Inst {
   ADDS,
   SUB,
   SUBS,
+  RSB,
   RSBS,
+  MUL,
   SMULL,
   CMP,
   AND,
   ORR,
-  EOR;
+  EOR,
+  SXTB;
+
+  private static final Set<Inst> CONDITIONAL = EnumSet.of(MOVGT, MOVLE,
+      MOVGE, MOVLT, MOVEQ, MOVNE, LDRCS, LDREQ, LDRNE, LDRLT, BEQ, BNE, BGT,
+      BGE, BLT, BLE, BLCS, BLEQ, BLVS, BLNE, BLLT);
+
+  private static final Set<Inst> BRANCHES =
+      EnumSet.of(B, BEQ, BNE, BGT, BGE, BLT, BLE);
+
+  private static final Set<Inst> CALLS =
+      EnumSet.of(BL, BLCS, BLEQ, BLVS, BLNE, BLLT);
+
+  // whether the instruction is only executed under a condition on the flags
+  public boolean isConditional() {
+    return CONDITIONAL.contains(this);
+  }
+
+  // whether the instruction is a jump to a label, not a call
+  public boolean isBranch() {
+    return BRANCHES.contains(this);
+  }
+
+  public boolean isCall() {
+    return CALLS.contains(this);
+  }
+
 }
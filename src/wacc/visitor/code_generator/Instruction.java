@@ -0,0 +1,118 @@
+package wacc.visitor.code_generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class Instruction implements Line {
+
+  private final Inst inst;
+  private final List<Operand> operands;
+
+  public Instruction(Inst inst, Operand... operands) {
+    this.inst = inst;
+    this.operands = Collections.unmodifiableList(Arrays.asList(operands));
+  }
+
+  public Inst getInst() {
+    return inst;
+  }
+
+  public List<Operand> getOperands() {
+    return operands;
+  }
+
+  public Operand getOperand(int i) {
+    return operands.get(i);
+  }
+
+  // whether the instruction returns from the routine
+  public boolean isReturn() {
+    return inst == Inst.POP
+        && ((RegList) operands.get(0)).getRegs().contains(Reg.PC);
+  }
+
+  // whether the instruction calls exit or a helper that throws a runtime
+  // error, so control never reaches the next line
+  public boolean isExit() {
+    if (inst != Inst.BL || !(operands.get(0) instanceof Label)) {
+      return false;
+    }
+    String target = ((Label) operands.get(0)).getName();
+    return target.equals("exit") || target.startsWith("p_throw_");
+  }
+
+  // the registers written by the operands, the stack pointer and the registers
+  // overwritten by calls are not included
+  public List<Register> getDefs() {
+    List<Register> defs = new ArrayList<>();
+    for (int i = 0; i < operands.size(); i++) {
+      Operand operand = operands.get(i);
+      if (isDef(i)) {
+        addRegisters(operand, defs);
+      } else if (operand instanceof Mem && ((Mem) operand).isWriteback()) {
+        defs.add(((Mem) operand).getBase());
+      }
+    }
+    return defs;
+  }
+
+  // the registers read by the operands, including the destination of a
+  // conditional instruction which may keep its old value
+  public List<Register> getUses() {
+    List<Register> uses = new ArrayList<>();
+    for (int i = 0; i < operands.size(); i++) {
+      if (!isDef(i) || inst.isConditional()) {
+        addRegisters(operands.get(i), uses);
+      }
+    }
+    return uses;
+  }
+
+  private boolean isDef(int i) {
+    switch (inst) {
+      case STR:
+      case STRB:
+      case CMP:
+      case PUSH:
+        return false;
+      case SMULL:
+        return i < 2;
+      default:
+        return i == 0;
+    }
+  }
+
+  private static void addRegisters(Operand operand, List<Register> regs) {
+    if (operand instanceof Register) {
+      regs.add((Register) operand);
+    } else if (operand instanceof Shift) {
+      regs.add(((Shift) operand).getReg());
+    } else if (operand instanceof Mem) {
+      regs.add(((Mem) operand).getBase());
+    } else if (operand instanceof RegList) {
+      regs.addAll(((RegList) operand).getRegs());
+    }
+  }
+
+  @Override
+  public void render(StringBuilder sb) {
+    sb.append("\t\t").append(inst).append(' ');
+    for (int i = 0; i < operands.size(); i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(operands.get(i));
+    }
+    sb.append('\n');
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    render(sb);
+    return sb.toString().trim();
+  }
+
+}
@@ -0,0 +1,37 @@
+package wacc.visitor.code_generator;
+
+// A label, used both as the target operand of branches and literals and, as a
+// Line, for its definition.
+public class Label implements Operand, Line {
+
+  private final String name;
+
+  public Label(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public void render(StringBuilder sb) {
+    sb.append('\t').append(name).append(":\n");
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof Label && ((Label) obj).name.equals(name);
+  }
+
+  @Override
+  public int hashCode() {
+    return name.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+}
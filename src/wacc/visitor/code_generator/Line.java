@@ -0,0 +1,9 @@
+package wacc.visitor.code_generator;
+
+// One line of the generated program: an Instruction, a Label definition or an
+// assembler Directive.
+public interface Line {
+
+  void render(StringBuilder sb);
+
+}
@@ -0,0 +1,37 @@
+package wacc.visitor.code_generator;
+
+// The operand of the LDR pseudo instruction, =n or =label, which the assembler
+// places in the next literal pool.
+public class Literal implements Operand {
+
+  private final int value;
+  private final Label label;
+
+  public Literal(int value) {
+    this.value = value;
+    this.label = null;
+  }
+
+  public Literal(Label label) {
+    this.value = 0;
+    this.label = label;
+  }
+
+  public boolean isLabel() {
+    return label != null;
+  }
+
+  public int getValue() {
+    return value;
+  }
+
+  public Label getLabel() {
+    return label;
+  }
+
+  @Override
+  public String toString() {
+    return "=" + (label == null ? Integer.toString(value) : label.toString());
+  }
+
+}
@@ -0,0 +1,45 @@
+package wacc.visitor.code_generator;
+
+// A memory operand [base, #offset], with writeback [base, #offset]! the base
+// register is updated before the access.
+public class Mem implements Operand {
+
+  private final Register base;
+  private final int offset;
+  private final boolean writeback;
+
+  public Mem(Register base) {
+    this(base, 0, false);
+  }
+
+  public Mem(Register base, int offset) {
+    this(base, offset, false);
+  }
+
+  public Mem(Register base, int offset, boolean writeback) {
+    this.base = base;
+    this.offset = offset;
+    this.writeback = writeback;
+  }
+
+  public Register getBase() {
+    return base;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public boolean isWriteback() {
+    return writeback;
+  }
+
+  @Override
+  public String toString() {
+    if (offset == 0 && !writeback) {
+      return "[" + base + "]";
+    }
+    return "[" + base + ", #" + offset + "]" + (writeback ? "!" : "");
+  }
+
+}
@@ -0,0 +1,5 @@
+package wacc.visitor.code_generator;
+
+// An operand of an Instruction, toString renders it as ARM assembly.
+public interface Operand {
+}
@@ -0,0 +1,9 @@
+package wacc.visitor.code_generator;
+
+// A transformation of the instructions of a routine, run by the CodeWriter on
+// every function and main once its code is complete.
+public interface Pass {
+
+  void apply(Routine routine);
+
+}
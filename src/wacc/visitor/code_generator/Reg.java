@@ -1,17 +1,7 @@
 package wacc.visitor.code_generator;
 
-public enum Reg {
-  R4, R5, R6, R7, R8, R9, R10, R11;
-
-  private static final Reg[] values = values();
-
-  public Reg next() {
-    return values[this.ordinal() + 1];
-  }
-
-  public Reg previous() {
-    return values[this.ordinal() - 1];
-  }
+public enum Reg implements Register {
+  R0, R1, R2, R3, R4, R5, R6, R7, R8, R9, R10, R11, R12, SP, LR, PC;
 
   @Override
   public String toString() {
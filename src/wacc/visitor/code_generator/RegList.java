@@ -0,0 +1,32 @@
+package wacc.visitor.code_generator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// The register list of PUSH and POP, e.g. {r4, lr}.
+public class RegList implements Operand {
+
+  private final List<Reg> regs;
+
+  public RegList(Reg... regs) {
+    this.regs = Collections.unmodifiableList(Arrays.asList(regs));
+  }
+
+  public List<Reg> getRegs() {
+    return regs;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < regs.size(); i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(regs.get(i));
+    }
+    return sb.append("}").toString();
+  }
+
+}
@@ -0,0 +1,6 @@
+package wacc.visitor.code_generator;
+
+// A register operand, either a physical Reg or a VReg that is given one by
+// the register allocator.
+public interface Register extends Operand {
+}
@@ -0,0 +1,40 @@
+package wacc.visitor.code_generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The lines of one function, main or runtime helper, in order.
+public class Routine {
+
+  private final List<Line> lines = new ArrayList<>();
+
+  public List<Line> getLines() {
+    return lines;
+  }
+
+  public void add(Line line) {
+    lines.add(line);
+  }
+
+  public void addInst(Inst inst, Operand... operands) {
+    lines.add(new Instruction(inst, operands));
+  }
+
+  // whether the routine is code spliced in already rendered, which passes
+  // leave alone
+  public boolean isVerbatim() {
+    for (Line line : lines) {
+      if (line instanceof Verbatim) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public void render(StringBuilder sb) {
+    for (Line line : lines) {
+      line.render(sb);
+    }
+  }
+
+}
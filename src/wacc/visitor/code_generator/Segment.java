@@ -0,0 +1,94 @@
+package wacc.visitor.code_generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+// A part of the assembly written through a buffered FileChannel, either the
+// output file itself or a temporary file that is appended to another segment
+// and deleted when closed.
+public class Segment implements AutoCloseable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final File temporary;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+  private Segment(File file, boolean temporary) throws IOException {
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.READ,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    this.temporary = temporary ? file : null;
+  }
+
+  public static Segment open(File file) throws IOException {
+    return new Segment(file, false);
+  }
+
+  public static Segment temporary() throws IOException {
+    File file = File.createTempFile("wacc", ".s");
+    return new Segment(file, true);
+  }
+
+  public void write(CharSequence s) {
+    byte[] bytes = s.toString().getBytes(StandardCharsets.UTF_8);
+    int offset = 0;
+    while (offset < bytes.length) {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      int length = Math.min(buffer.remaining(), bytes.length - offset);
+      buffer.put(bytes, offset, length);
+      offset += length;
+    }
+  }
+
+  private void flush() {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    buffer.clear();
+  }
+
+  // copy everything written to this segment to the end of out
+  public void appendTo(Segment out) {
+    flush();
+    out.flush();
+    try {
+      long size = channel.position();
+      long position = 0;
+      while (position < size) {
+        position += channel.transferTo(position, size - position, out.channel);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (channel.isOpen()) {
+        flush();
+        channel.close();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      if (temporary != null) {
+        temporary.delete();
+      }
+    }
+  }
+
+}
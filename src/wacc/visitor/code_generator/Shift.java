@@ -0,0 +1,37 @@
+package wacc.visitor.code_generator;
+
+// A shifted register operand, e.g. r5, LSL #2.
+public class Shift implements Operand {
+
+  public enum Op {
+    LSL, LSR, ASR;
+  }
+
+  private final Register reg;
+  private final Op op;
+  private final int amount;
+
+  public Shift(Register reg, Op op, int amount) {
+    this.reg = reg;
+    this.op = op;
+    this.amount = amount;
+  }
+
+  public Register getReg() {
+    return reg;
+  }
+
+  public Op getOp() {
+    return op;
+  }
+
+  public int getAmount() {
+    return amount;
+  }
+
+  @Override
+  public String toString() {
+    return reg + ", " + op + " #" + amount;
+  }
+
+}
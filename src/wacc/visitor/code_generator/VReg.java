@@ -0,0 +1,33 @@
+package wacc.visitor.code_generator;
+
+// A virtual register, the code generator uses a new one for every value and
+// the register allocator maps them to physical registers or stack slots.
+// Virtual registers are numbered from 0 in every routine.
+public class VReg implements Register {
+
+  private final int id;
+
+  public VReg(int id) {
+    this.id = id;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof VReg && ((VReg) obj).id == id;
+  }
+
+  @Override
+  public int hashCode() {
+    return id;
+  }
+
+  @Override
+  public String toString() {
+    return "v" + id;
+  }
+
+}
@@ -0,0 +1,18 @@
+package wacc.visitor.code_generator;
+
+// Code that is already rendered, such as a function spliced in from the
+// compilation cache.
+public class Verbatim implements Line {
+
+  private final String text;
+
+  public Verbatim(String text) {
+    this.text = text;
+  }
+
+  @Override
+  public void render(StringBuilder sb) {
+    sb.append(text);
+  }
+
+}
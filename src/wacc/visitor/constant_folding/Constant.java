@@ -0,0 +1,54 @@
+package wacc.visitor.constant_folding;
+
+import wacc.visitor.type.BaseLiter;
+
+// The value of an expression known at compile time, or the runtime error that
+// evaluating it always raises.
+public class Constant {
+
+  public enum Error {
+    OVERFLOW, DIVIDE_BY_ZERO;
+  }
+
+  private final BaseLiter type;
+  private final int value;
+  private final Error error;
+
+  private Constant(BaseLiter type, int value, Error error) {
+    this.type = type;
+    this.value = value;
+    this.error = error;
+  }
+
+  public static Constant of(BaseLiter type, int value) {
+    return new Constant(type, value, null);
+  }
+
+  public static Constant of(boolean value) {
+    return of(BaseLiter.BOOL, value ? 1 : 0);
+  }
+
+  public static Constant error(Error error) {
+    return new Constant(null, 0, error);
+  }
+
+  // the type of the value, null for an error
+  public BaseLiter getType() {
+    return type;
+  }
+
+  // the value, chars and bools are their codes and 0 or 1
+  public int getValue() {
+    return value;
+  }
+
+  // the error raised, null if there is a value
+  public Error getError() {
+    return error;
+  }
+
+  public boolean isError() {
+    return error != null;
+  }
+
+}
@@ -0,0 +1,307 @@
+package wacc.visitor.constant_folding;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+
+import antlr.*;
+import antlr.WACCParser.*;
+import wacc.visitor.Symbol;
+import wacc.visitor.type.BaseLiter;
+
+// Evaluates the expressions whose operands are known at compile time the way
+// the generated code would, an operator that overflows or divides by zero
+// evaluates to the runtime error it raises. A local that is never assigned
+// after its declaration keeps the value it is declared with, so that value
+// and the length of an array literal it is declared with are propagated to
+// its uses.
+public class ConstantFolder extends WACCParserBaseVisitor<Constant> {
+
+  private final ParseTreeProperty<Symbol> symbols;
+  private final Set<FuncContext> skipped;
+  private final ParseTreeProperty<Constant> constants =
+      new ParseTreeProperty<>();
+  // the variables assigned or read into after their declaration
+  private final Set<Symbol> assigned = new HashSet<>();
+  private final Map<Symbol, Constant> values = new HashMap<>();
+  private final Map<Symbol, Integer> lengths = new HashMap<>();
+
+  // symbols are the variables recorded by semantic analysis, the functions in
+  // skipped have not been analysed and are not folded
+  public ConstantFolder(ParseTreeProperty<Symbol> symbols,
+      Set<FuncContext> skipped) {
+    this.symbols = symbols;
+    this.skipped = skipped;
+  }
+
+  // the values of the expressions that are known, and of the locals at the
+  // identifiers they are declared with
+  public ParseTreeProperty<Constant> getConstants() {
+    return constants;
+  }
+
+  @Override
+  protected Constant aggregateResult(Constant aggregate, Constant nextResult) {
+    return null;
+  }
+
+  @Override
+  public Constant visitProgram(ProgramContext ctx) {
+    findAssigned(ctx);
+    return visitChildren(ctx);
+  }
+
+  @Override
+  public Constant visitFunc(FuncContext ctx) {
+    return skipped.contains(ctx) ? null : visitChildren(ctx);
+  }
+
+  private void findAssigned(ParseTree ctx) {
+    if (ctx instanceof FuncContext && skipped.contains(ctx)) {
+      return;
+    }
+    AssignLhsContext lhs = null;
+    if (ctx instanceof AssignStatContext) {
+      lhs = ((AssignStatContext) ctx).assignLhs();
+    } else if (ctx instanceof ReadStatContext) {
+      lhs = ((ReadStatContext) ctx).assignLhs();
+    }
+    if (lhs instanceof LhsIdentContext) {
+      assigned.add(symbols.get(((LhsIdentContext) lhs).ident()));
+    }
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      findAssigned(ctx.getChild(i));
+    }
+  }
+
+  @Override
+  public Constant visitVarDeclStat(VarDeclStatContext ctx) {
+    Constant value = visit(ctx.assignRhs());
+    Symbol symbol = symbols.get(ctx.ident());
+    if (assigned.contains(symbol)) {
+      return null;
+    }
+    if (value != null && !value.isError()) {
+      // a char variable holds the sign extended byte of its value
+      if (value.getType() == BaseLiter.CHAR) {
+        value = Constant.of(BaseLiter.CHAR, (byte) value.getValue());
+      }
+      values.put(symbol, value);
+      constants.put(ctx.ident(), value);
+    } else if (ctx.assignRhs() instanceof RhsArrayLiterContext) {
+      lengths.put(symbol, ((RhsArrayLiterContext) ctx.assignRhs())
+          .arrayLiter().expr().size());
+    }
+    return null;
+  }
+
+  @Override
+  public Constant visitRhsExpr(RhsExprContext ctx) {
+    return visit(ctx.expr());
+  }
+
+  private Constant record(ExprContext ctx, Constant constant) {
+    if (constant != null) {
+      constants.put(ctx, constant);
+    }
+    return constant;
+  }
+
+  @Override
+  public Constant visitIntExpr(IntExprContext ctx) {
+    return record(ctx,
+        Constant.of(BaseLiter.INT, Integer.parseInt(ctx.getText())));
+  }
+
+  @Override
+  public Constant visitBoolExpr(BoolExprContext ctx) {
+    return record(ctx, Constant.of(ctx.getText().equals("true")));
+  }
+
+  @Override
+  public Constant visitCharExpr(CharExprContext ctx) {
+    return record(ctx,
+        Constant.of(BaseLiter.CHAR, getCharValue(ctx.getText())));
+  }
+
+  // the code of a character literal such as 'a' or '\n'
+  private static int getCharValue(String text) {
+    if (text.charAt(1) != '\\') {
+      return text.charAt(1);
+    }
+    switch (text.charAt(2)) {
+      case '0':
+        return 0;
+      case 'b':
+        return 8;
+      case 't':
+        return 9;
+      case 'n':
+        return 10;
+      case 'f':
+        return 12;
+      case 'r':
+        return 13;
+      default:
+        return text.charAt(2);
+    }
+  }
+
+  @Override
+  public Constant visitIdentExpr(IdentExprContext ctx) {
+    return record(ctx, values.get(symbols.get(ctx.ident())));
+  }
+
+  @Override
+  public Constant visitParensExpr(ParensExprContext ctx) {
+    return record(ctx, visit(ctx.expr()));
+  }
+
+  @Override
+  public Constant visitUnOpExpr(UnOpExprContext ctx) {
+    Constant operand = visit(ctx.expr());
+    if (ctx.unaryOper().MINUS() != null) {
+      if (operand == null || operand.isError()) {
+        return record(ctx, operand);
+      }
+      return record(ctx, toInt(-(long) operand.getValue()));
+    }
+    String operator = ctx.unaryOper().UNARY_OPER().getText();
+    if (operator.equals("len")) {
+      if (ctx.expr() instanceof IdentExprContext) {
+        Integer length = lengths.get(
+            symbols.get(((IdentExprContext) ctx.expr()).ident()));
+        if (length != null) {
+          return record(ctx, Constant.of(BaseLiter.INT, length));
+        }
+      }
+      return null;
+    }
+    if (operand == null || operand.isError()) {
+      return record(ctx, operand);
+    }
+    int value = operand.getValue();
+    switch (operator) {
+      case "!":
+        return record(ctx, Constant.of(value == 0));
+      case "ord":
+        return record(ctx, Constant.of(BaseLiter.INT, value));
+      default: // chr
+        return record(ctx, Constant.of(BaseLiter.CHAR, value));
+    }
+  }
+
+  // the error evaluating left and then right raises before the operator is
+  // applied, null if neither is known to raise one
+  private static Constant getError(Constant left, Constant right) {
+    if (left != null && left.isError()) {
+      return left;
+    } else if (left != null && right != null && right.isError()) {
+      return right;
+    }
+    return null;
+  }
+
+  private static Constant toInt(long value) {
+    if (value != (int) value) {
+      return Constant.error(Constant.Error.OVERFLOW);
+    }
+    return Constant.of(BaseLiter.INT, (int) value);
+  }
+
+  @Override
+  public Constant visitBinOpPrec1Expr(BinOpPrec1ExprContext ctx) {
+    Constant left = visit(ctx.expr(0));
+    Constant right = visit(ctx.expr(1));
+    Constant error = getError(left, right);
+    if (error != null || left == null || right == null) {
+      return record(ctx, error);
+    }
+    long a = left.getValue();
+    long b = right.getValue();
+    if (ctx.MULT() != null) {
+      return record(ctx, toInt(a * b));
+    } else if (b == 0) {
+      return record(ctx, Constant.error(Constant.Error.DIVIDE_BY_ZERO));
+    }
+    // the quotient of the smallest int by -1 wraps around like the library
+    // division does
+    return record(ctx, Constant.of(BaseLiter.INT,
+        (int) (ctx.DIV() != null ? a / b : a % b)));
+  }
+
+  @Override
+  public Constant visitBinOpPrec2Expr(BinOpPrec2ExprContext ctx) {
+    Constant left = visit(ctx.expr(0));
+    Constant right = visit(ctx.expr(1));
+    Constant error = getError(left, right);
+    if (error != null || left == null || right == null) {
+      return record(ctx, error);
+    }
+    long a = left.getValue();
+    long b = right.getValue();
+    return record(ctx, toInt(ctx.PLUS() != null ? a + b : a - b));
+  }
+
+  @Override
+  public Constant visitBinOpPrec3Expr(BinOpPrec3ExprContext ctx) {
+    Constant left = visit(ctx.expr(0));
+    Constant right = visit(ctx.expr(1));
+    Constant error = getError(left, right);
+    if (error != null || left == null || right == null) {
+      return record(ctx, error);
+    }
+    int a = left.getValue();
+    int b = right.getValue();
+    if (ctx.GRT() != null) {
+      return record(ctx, Constant.of(a > b));
+    } else if (ctx.GRT_EQUAL() != null) {
+      return record(ctx, Constant.of(a >= b));
+    } else if (ctx.LESS() != null) {
+      return record(ctx, Constant.of(a < b));
+    } else {
+      return record(ctx, Constant.of(a <= b));
+    }
+  }
+
+  @Override
+  public Constant visitBinOpPrec4Expr(BinOpPrec4ExprContext ctx) {
+    Constant left = visit(ctx.expr(0));
+    Constant right = visit(ctx.expr(1));
+    Constant error = getError(left, right);
+    if (error != null || left == null || right == null) {
+      return record(ctx, error);
+    }
+    boolean equal = left.getValue() == right.getValue();
+    return record(ctx, Constant.of(ctx.EQUAL() != null ? equal : !equal));
+  }
+
+  @Override
+  public Constant visitBinOpPrec5Expr(BinOpPrec5ExprContext ctx) {
+    Constant left = visit(ctx.expr(0));
+    Constant right = visit(ctx.expr(1));
+    Constant error = getError(left, right);
+    if (error != null || left == null || right == null) {
+      return record(ctx, error);
+    }
+    return record(ctx,
+        Constant.of(left.getValue() != 0 && right.getValue() != 0));
+  }
+
+  @Override
+  public Constant visitBinOpPrec6Expr(BinOpPrec6ExprContext ctx) {
+    Constant left = visit(ctx.expr(0));
+    Constant right = visit(ctx.expr(1));
+    Constant error = getError(left, right);
+    if (error != null || left == null || right == null) {
+      return record(ctx, error);
+    }
+    return record(ctx,
+        Constant.of(left.getValue() != 0 || right.getValue() != 0));
+  }
+
+}
@@ -0,0 +1,80 @@
+package wacc.visitor.dead_code;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+
+import antlr.WACCParser.*;
+
+// The functions that may be called from the main program, directly or through
+// other functions. The calls of a function that has not been analysed are not
+// resolved, every function with the name it calls is assumed to be called.
+// A resolved call of an inlined function does not call it, but makes the calls
+// in its body.
+public class CallGraph {
+
+  private CallGraph() {
+  }
+
+  // calls are the functions called by the calls resolved by semantic
+  // analysis, inlined are the functions whose calls are inlined
+  public static Set<FuncContext> getReachable(ProgramContext ctx,
+      ParseTreeProperty<FuncContext> calls, Set<FuncContext> inlined) {
+    Set<FuncContext> reachable = new HashSet<>();
+    Set<FuncContext> expanded = new HashSet<>();
+    Deque<ParseTree> worklist = new ArrayDeque<>();
+    worklist.push(ctx.stat());
+    while (!worklist.isEmpty()) {
+      for (RhsCallContext call : getCalls(worklist.pop())) {
+        FuncContext resolved = calls.get(call);
+        if (resolved != null && inlined.contains(resolved)) {
+          if (expanded.add(resolved)) {
+            worklist.push(resolved.stat());
+          }
+          continue;
+        }
+        for (FuncContext func : getCallees(ctx, call, calls)) {
+          if (reachable.add(func)) {
+            worklist.push(func.stat());
+          }
+        }
+      }
+    }
+    return reachable;
+  }
+
+  private static Set<FuncContext> getCallees(ProgramContext ctx,
+      RhsCallContext call, ParseTreeProperty<FuncContext> calls) {
+    Set<FuncContext> callees = new HashSet<>();
+    if (calls.get(call) != null) {
+      callees.add(calls.get(call));
+    } else {
+      for (FuncContext func : ctx.func()) {
+        if (func.ident().getText().equals(call.ident().getText())) {
+          callees.add(func);
+        }
+      }
+    }
+    return callees;
+  }
+
+  private static Set<RhsCallContext> getCalls(ParseTree ctx) {
+    Set<RhsCallContext> result = new HashSet<>();
+    addCalls(ctx, result);
+    return result;
+  }
+
+  private static void addCalls(ParseTree ctx, Set<RhsCallContext> result) {
+    if (ctx instanceof RhsCallContext) {
+      result.add((RhsCallContext) ctx);
+    }
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      addCalls(ctx.getChild(i), result);
+    }
+  }
+
+}
@@ -0,0 +1,147 @@
+package wacc.visitor.inlining;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+
+import antlr.WACCParser.*;
+import wacc.visitor.Symbol;
+
+// Chooses the functions whose calls are replaced by their bodies. A function
+// can be inlined if it has been analysed, cannot call itself and none of its
+// parameters is read into, since they are kept in registers. It is inlined
+// if its body is small, so that the code saved at each call makes up for the
+// copies, or if it is called from a single place and is not too big for its
+// locals to share the registers of the caller.
+public class Inliner {
+
+  // the size of a body, counted in statements and expressions, up to which
+  // the function is inlined at every call
+  private static final int SMALL = 16;
+
+  // the size up to which a function called from a single place is inlined
+  private static final int SINGLE_CALL = 64;
+
+  private Inliner() {
+  }
+
+  // calls and symbols are the functions and variables recorded by semantic
+  // analysis, the functions in skipped have not been analysed
+  public static Set<FuncContext> getInlined(ProgramContext ctx,
+      ParseTreeProperty<FuncContext> calls, ParseTreeProperty<Symbol> symbols,
+      Set<FuncContext> skipped) {
+    // the functions each function may call, and how many calls there are of
+    // each function
+    Map<FuncContext, List<FuncContext>> callees = new HashMap<>();
+    Map<FuncContext, Integer> sites = new HashMap<>();
+    for (FuncContext func : ctx.func()) {
+      callees.put(func, new ArrayList<FuncContext>());
+      sites.put(func, 0);
+    }
+    List<RhsCallContext> mainCalls = new ArrayList<>();
+    addCalls(ctx.stat(), mainCalls);
+    countSites(ctx, mainCalls, calls, sites);
+    for (FuncContext func : ctx.func()) {
+      List<RhsCallContext> funcCalls = new ArrayList<>();
+      addCalls(func.stat(), funcCalls);
+      callees.get(func).addAll(countSites(ctx, funcCalls, calls, sites));
+    }
+
+    Set<FuncContext> inlined = new HashSet<>();
+    for (FuncContext func : ctx.func()) {
+      int size = getSize(func.stat());
+      if (!skipped.contains(func) && !callsItself(func, callees)
+          && !readsParam(func, func.stat(), symbols)
+          && (size <= SMALL || sites.get(func) == 1 && size <= SINGLE_CALL)) {
+        inlined.add(func);
+      }
+    }
+    return inlined;
+  }
+
+  private static void addCalls(ParseTree ctx, List<RhsCallContext> result) {
+    if (ctx instanceof RhsCallContext) {
+      result.add((RhsCallContext) ctx);
+    }
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      addCalls(ctx.getChild(i), result);
+    }
+  }
+
+  // count the calls of each function, a call that has not been resolved
+  // counts for every function with the name it calls, returns the functions
+  // called
+  private static List<FuncContext> countSites(ProgramContext ctx,
+      List<RhsCallContext> funcCalls, ParseTreeProperty<FuncContext> calls,
+      Map<FuncContext, Integer> sites) {
+    List<FuncContext> called = new ArrayList<>();
+    for (RhsCallContext call : funcCalls) {
+      if (calls.get(call) != null) {
+        called.add(calls.get(call));
+      } else {
+        for (FuncContext func : ctx.func()) {
+          if (func.ident().getText().equals(call.ident().getText())) {
+            called.add(func);
+          }
+        }
+      }
+    }
+    for (FuncContext func : called) {
+      sites.put(func, sites.get(func) + 1);
+    }
+    return called;
+  }
+
+  private static boolean callsItself(FuncContext func,
+      Map<FuncContext, List<FuncContext>> callees) {
+    Set<FuncContext> visited = new HashSet<>();
+    List<FuncContext> worklist = new ArrayList<>(callees.get(func));
+    while (!worklist.isEmpty()) {
+      FuncContext next = worklist.remove(worklist.size() - 1);
+      if (next == func) {
+        return true;
+      } else if (visited.add(next)) {
+        worklist.addAll(callees.get(next));
+      }
+    }
+    return false;
+  }
+
+  // the number of statements and expressions in ctx
+  private static int getSize(ParseTree ctx) {
+    int size = ctx instanceof StatContext || ctx instanceof ExprContext
+        ? 1 : 0;
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      size += getSize(ctx.getChild(i));
+    }
+    return size;
+  }
+
+  private static boolean readsParam(FuncContext func, ParseTree ctx,
+      ParseTreeProperty<Symbol> symbols) {
+    if (ctx instanceof ReadStatContext
+        && ((ReadStatContext) ctx).assignLhs() instanceof LhsIdentContext
+        && func.paramList() != null) {
+      Symbol symbol = symbols.get(((LhsIdentContext)
+          ((ReadStatContext) ctx).assignLhs()).ident());
+      for (ParamContext param : func.paramList().param()) {
+        if (symbols.get(param.ident()) == symbol) {
+          return true;
+        }
+      }
+    }
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      if (readsParam(func, ctx.getChild(i), symbols)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
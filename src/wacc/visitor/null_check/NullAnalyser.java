@@ -0,0 +1,250 @@
+package wacc.visitor.null_check;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+import org.antlr.v4.runtime.tree.RuleNode;
+
+import antlr.*;
+import antlr.WACCParser.*;
+import wacc.visitor.Symbol;
+import wacc.visitor.type.PairType;
+
+// Finds the pair variables that cannot be null where their elements are
+// accessed or they are freed, so that the null check can be left out. A pair
+// is not null once it is given a new pair or a pair that is not null, once
+// one of its elements has been accessed, since the access exits if it is, and
+// in the branch of a condition that compares it to null. What is known after
+// a branch is what is known after both, and a loop is analysed again until
+// what is known at its start no longer changes.
+public class NullAnalyser extends WACCParserBaseVisitor<Void> {
+
+  private final ParseTreeProperty<Symbol> symbols;
+  private final Set<FuncContext> skipped;
+  // whether each pair accessed or freed was not null the last time it was
+  // analysed, which is when what is known is the least
+  private final Map<ExprContext, Boolean> nonNull = new HashMap<>();
+  // the pair variables that are not null before the statement being
+  // analysed, null if it cannot be reached, the sets are shared between
+  // branches and are copied before they change
+  private Set<Symbol> state = new HashSet<>();
+
+  // symbols are the variables recorded by semantic analysis, the functions in
+  // skipped have not been analysed and are not analysed either
+  public NullAnalyser(ParseTreeProperty<Symbol> symbols,
+      Set<FuncContext> skipped) {
+    this.symbols = symbols;
+    this.skipped = skipped;
+  }
+
+  // the pairs accessed or freed that are never null
+  public Set<ExprContext> getNonNull() {
+    Set<ExprContext> result = new HashSet<>();
+    for (Map.Entry<ExprContext, Boolean> e : nonNull.entrySet()) {
+      if (e.getValue()) {
+        result.add(e.getKey());
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public Void visit(ParseTree tree) {
+    return state == null ? null : super.visit(tree);
+  }
+
+  @Override
+  public Void visitChildren(RuleNode node) {
+    return state == null ? null : super.visitChildren(node);
+  }
+
+  @Override
+  public Void visitProgram(ProgramContext ctx) {
+    for (FuncContext func : ctx.func()) {
+      if (!skipped.contains(func)) {
+        state = new HashSet<>();
+        visit(func.stat());
+      }
+    }
+    state = new HashSet<>();
+    visit(ctx.stat());
+    return null;
+  }
+
+  @Override
+  public Void visitVarDeclStat(VarDeclStatContext ctx) {
+    visit(ctx.assignRhs());
+    define(symbols.get(ctx.ident()), ctx.assignRhs());
+    return null;
+  }
+
+  @Override
+  public Void visitAssignStat(AssignStatContext ctx) {
+    // the right hand side is evaluated first
+    visit(ctx.assignRhs());
+    if (ctx.assignLhs() instanceof LhsIdentContext) {
+      define(symbols.get(((LhsIdentContext) ctx.assignLhs()).ident()),
+          ctx.assignRhs());
+    } else {
+      visit(ctx.assignLhs());
+    }
+    return null;
+  }
+
+  // give symbol the value of rhs
+  private void define(Symbol symbol, AssignRhsContext rhs) {
+    if (state == null) {
+      return;
+    }
+    boolean isNonNull = rhs instanceof RhsNewPairContext
+        || rhs instanceof RhsExprContext
+            && isNonNull(((RhsExprContext) rhs).expr());
+    state = new HashSet<>(state);
+    state.remove(symbol);
+    if (isNonNull) {
+      state.add(symbol);
+    }
+  }
+
+  @Override
+  public Void visitPairElem(PairElemContext ctx) {
+    visitChildren(ctx);
+    check(ctx.expr());
+    return null;
+  }
+
+  @Override
+  public Void visitFreeStat(FreeStatContext ctx) {
+    visitChildren(ctx);
+    if (ctx.expr() instanceof IdentExprContext
+        && symbols.get(((IdentExprContext) ctx.expr()).ident()).getType()
+            instanceof PairType) {
+      check(ctx.expr());
+    }
+    return null;
+  }
+
+  // record whether the pair ctx is known not to be null, it is not afterwards
+  private void check(ExprContext ctx) {
+    if (state == null) {
+      return;
+    }
+    nonNull.put(ctx, isNonNull(ctx));
+    Symbol symbol = getPair(ctx);
+    if (symbol != null && !state.contains(symbol)) {
+      state = new HashSet<>(state);
+      state.add(symbol);
+    }
+  }
+
+  private boolean isNonNull(ExprContext ctx) {
+    Symbol symbol = getPair(ctx);
+    return symbol != null && state.contains(symbol);
+  }
+
+  // the pair variable ctx is, null if it is not one
+  private Symbol getPair(ExprContext ctx) {
+    while (ctx instanceof ParensExprContext) {
+      ctx = ((ParensExprContext) ctx).expr();
+    }
+    if (!(ctx instanceof IdentExprContext)) {
+      return null;
+    }
+    Symbol symbol = symbols.get(((IdentExprContext) ctx).ident());
+    return symbol.getType() instanceof PairType ? symbol : null;
+  }
+
+  @Override
+  public Void visitReturnStat(ReturnStatContext ctx) {
+    state = null;
+    return null;
+  }
+
+  @Override
+  public Void visitExitStat(ExitStatContext ctx) {
+    state = null;
+    return null;
+  }
+
+  @Override
+  public Void visitIfStat(IfStatContext ctx) {
+    if (state == null) {
+      return null;
+    }
+    Set<Symbol> before = state;
+    state = narrow(before, ctx.expr(), true);
+    visit(ctx.stat(0));
+    Set<Symbol> then = state;
+    state = narrow(before, ctx.expr(), false);
+    visit(ctx.stat(1));
+    state = join(then, state);
+    return null;
+  }
+
+  @Override
+  public Void visitWhileStat(WhileStatContext ctx) {
+    if (state == null) {
+      return null;
+    }
+    Set<Symbol> entry = state;
+    Set<Symbol> start = entry;
+    while (true) {
+      state = narrow(start, ctx.expr(), true);
+      visit(ctx.stat());
+      Set<Symbol> next = join(start, state);
+      if (next.equals(start)) {
+        break;
+      }
+      start = next;
+    }
+    state = narrow(start, ctx.expr(), false);
+    return null;
+  }
+
+  private static Set<Symbol> join(Set<Symbol> a, Set<Symbol> b) {
+    if (a == null) {
+      return b;
+    } else if (b == null) {
+      return a;
+    }
+    Set<Symbol> join = new HashSet<>(a);
+    join.retainAll(b);
+    return join;
+  }
+
+  // what is known once cond is found to be value
+  private Set<Symbol> narrow(Set<Symbol> before, ExprContext cond,
+      boolean value) {
+    if (cond instanceof ParensExprContext) {
+      return narrow(before, ((ParensExprContext) cond).expr(), value);
+    } else if (cond instanceof UnOpExprContext
+        && ((UnOpExprContext) cond).unaryOper().getText().equals("!")) {
+      return narrow(before, ((UnOpExprContext) cond).expr(), !value);
+    } else if (cond instanceof BinOpPrec5ExprContext && value) {
+      BinOpPrec5ExprContext and = (BinOpPrec5ExprContext) cond;
+      return narrow(narrow(before, and.expr(0), true), and.expr(1), true);
+    } else if (cond instanceof BinOpPrec6ExprContext && !value) {
+      BinOpPrec6ExprContext or = (BinOpPrec6ExprContext) cond;
+      return narrow(narrow(before, or.expr(0), false), or.expr(1), false);
+    } else if (cond instanceof BinOpPrec4ExprContext) {
+      BinOpPrec4ExprContext compare = (BinOpPrec4ExprContext) cond;
+      Symbol symbol = null;
+      if (compare.expr(1) instanceof PairExprContext) {
+        symbol = getPair(compare.expr(0));
+      } else if (compare.expr(0) instanceof PairExprContext) {
+        symbol = getPair(compare.expr(1));
+      }
+      if (symbol != null && value == (compare.NOT_EQUAL() != null)) {
+        Set<Symbol> after = new HashSet<>(before);
+        after.add(symbol);
+        return after;
+      }
+    }
+    return before;
+  }
+
+}
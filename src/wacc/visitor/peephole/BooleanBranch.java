@@ -0,0 +1,89 @@
+package wacc.visitor.peephole;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import wacc.visitor.code_generator.*;
+
+// A comparison whose boolean result is only tested by a branch branches on
+// the flags directly:
+//   CMP r4, r5
+//   MOVGT r4, #1              CMP r4, r5
+//   MOVLE r4, #0        =>    BLE L
+//   CMP r4, #0
+//   BEQ L
+// when neither the boolean nor the flags are used after the branch.
+public class BooleanBranch implements Rule {
+
+  // the branch taken under the same condition as each conditional move
+  private static final Map<Inst, Inst> BRANCH = new EnumMap<>(Inst.class);
+  // the conditional move under the opposite condition
+  private static final Map<Inst, Inst> INVERSE = new EnumMap<>(Inst.class);
+
+  static {
+    BRANCH.put(Inst.MOVEQ, Inst.BEQ);
+    BRANCH.put(Inst.MOVNE, Inst.BNE);
+    BRANCH.put(Inst.MOVGT, Inst.BGT);
+    BRANCH.put(Inst.MOVGE, Inst.BGE);
+    BRANCH.put(Inst.MOVLT, Inst.BLT);
+    BRANCH.put(Inst.MOVLE, Inst.BLE);
+    INVERSE.put(Inst.MOVEQ, Inst.MOVNE);
+    INVERSE.put(Inst.MOVNE, Inst.MOVEQ);
+    INVERSE.put(Inst.MOVGT, Inst.MOVLE);
+    INVERSE.put(Inst.MOVLE, Inst.MOVGT);
+    INVERSE.put(Inst.MOVGE, Inst.MOVLT);
+    INVERSE.put(Inst.MOVLT, Inst.MOVGE);
+  }
+
+  @Override
+  public String getName() {
+    return "boolean-branch";
+  }
+
+  @Override
+  public int apply(List<Line> lines) {
+    Liveness liveness = new Liveness(lines);
+    int removed = 0;
+    for (int j = lines.size() - 1; j >= 3; j--) {
+      Instruction branch = getInstruction(lines, j);
+      Instruction test = getInstruction(lines, j - 1);
+      Instruction second = getInstruction(lines, j - 2);
+      Instruction first = getInstruction(lines, j - 3);
+      if (branch == null || test == null || second == null || first == null
+          || branch.getInst() != Inst.BEQ || test.getInst() != Inst.CMP
+          || !INVERSE.containsKey(first.getInst())
+          || second.getInst() != INVERSE.get(first.getInst())) {
+        continue;
+      }
+      Reg reg = Effects.getDest(first);
+      int a = getImm(first.getOperand(1));
+      int b = getImm(second.getOperand(1));
+      int v = getImm(test.getOperand(1));
+      if (second.getOperand(0) != reg || test.getOperand(0) != reg
+          || a + b != 1 || a * b != 0 || (v != 0 && v != 1)
+          || liveness.isLiveAfter(j, reg) || liveness.isFlagsLiveAfter(j)) {
+        continue;
+      }
+      // the move that sets the register to v on the same condition
+      Inst taken = a == v ? first.getInst() : second.getInst();
+      lines.set(j, new Instruction(BRANCH.get(taken), branch.getOperand(0)));
+      lines.subList(j - 3, j).clear();
+      removed += 3;
+      j -= 3;
+    }
+    return removed;
+  }
+
+  private static Instruction getInstruction(List<Line> lines, int i) {
+    Line line = lines.get(i);
+    return line instanceof Instruction ? (Instruction) line : null;
+  }
+
+  // the value of an immediate operand, -1 for any other operand
+  private static int getImm(Operand operand) {
+    return operand instanceof Imm && !((Imm) operand).isChar()
+        ? ((Imm) operand).getValue() : -1;
+  }
+
+}
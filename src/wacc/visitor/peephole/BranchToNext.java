@@ -0,0 +1,38 @@
+package wacc.visitor.peephole;
+
+import java.util.List;
+
+import wacc.visitor.code_generator.*;
+
+// B L is not needed when L follows it.
+public class BranchToNext implements Rule {
+
+  @Override
+  public String getName() {
+    return "branch-to-next";
+  }
+
+  @Override
+  public int apply(List<Line> lines) {
+    int removed = 0;
+    for (int i = lines.size() - 1; i >= 0; i--) {
+      if (!(lines.get(i) instanceof Instruction)) {
+        continue;
+      }
+      Instruction branch = (Instruction) lines.get(i);
+      if (branch.getInst() != Inst.B) {
+        continue;
+      }
+      for (int j = i + 1; j < lines.size() && lines.get(j) instanceof Label;
+          j++) {
+        if (lines.get(j).equals(branch.getOperand(0))) {
+          lines.remove(i);
+          removed++;
+          break;
+        }
+      }
+    }
+    return removed;
+  }
+
+}
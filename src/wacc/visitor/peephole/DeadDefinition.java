@@ -0,0 +1,35 @@
+package wacc.visitor.peephole;
+
+import java.util.List;
+
+import wacc.visitor.code_generator.*;
+
+// An instruction whose results are never used is removed, e.g. the copy of a
+// call result that is discarded.
+public class DeadDefinition implements Rule {
+
+  @Override
+  public String getName() {
+    return "dead-definition";
+  }
+
+  @Override
+  public int apply(List<Line> lines) {
+    Liveness liveness = new Liveness(lines);
+    int removed = 0;
+    for (int i = lines.size() - 1; i >= 0; i--) {
+      if (!(lines.get(i) instanceof Instruction)) {
+        continue;
+      }
+      Instruction instruction = (Instruction) lines.get(i);
+      if (Effects.isSimple(instruction)
+          && !instruction.getInst().isConditional()
+          && liveness.isDeadAfter(i, Effects.defs(instruction))) {
+        lines.remove(i);
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+}
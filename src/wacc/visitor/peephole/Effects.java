@@ -0,0 +1,154 @@
+package wacc.visitor.peephole;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import wacc.visitor.code_generator.*;
+
+// The registers and flags read and written by each instruction, as bit masks
+// indexed by Reg.ordinal() with FLAGS for the condition flags.
+class Effects {
+
+  static final int FLAGS = 1 << Reg.values().length;
+  static final int ALL = (FLAGS << 1) - 1;
+
+  // the arguments of a call and the registers it may overwrite
+  private static final int ARGS =
+      bit(Reg.R0) | bit(Reg.R1) | bit(Reg.R2) | bit(Reg.R3);
+  private static final int CALLER_SAVED =
+      ARGS | bit(Reg.R12) | bit(Reg.LR) | FLAGS;
+
+  // instructions that only write their first operand, and the flags for the
+  // S variants
+  private static final Set<Inst> SIMPLE = EnumSet.of(Inst.MOV, Inst.LDR,
+      Inst.LDRSB, Inst.ADD, Inst.ADDS, Inst.SUB, Inst.SUBS, Inst.RSB,
+      Inst.RSBS, Inst.MUL, Inst.AND, Inst.ORR, Inst.EOR, Inst.SXTB);
+
+  private Effects() {
+  }
+
+  static int bit(Reg reg) {
+    return 1 << reg.ordinal();
+  }
+
+  static boolean isSimple(Instruction instruction) {
+    return SIMPLE.contains(instruction.getInst())
+        && (defs(instruction) & ~FLAGS) == bit(getDest(instruction));
+  }
+
+  // whether control does not simply continue with the next instruction
+  static boolean endsBlock(Instruction instruction) {
+    Inst inst = instruction.getInst();
+    return inst.isBranch() || inst.isCall() || instruction.isReturn();
+  }
+
+  static Reg getDest(Instruction instruction) {
+    return (Reg) instruction.getOperand(0);
+  }
+
+  static int uses(Instruction instruction) {
+    Inst inst = instruction.getInst();
+    List<Operand> operands = instruction.getOperands();
+    int uses = inst.isConditional() ? FLAGS : 0;
+    switch (inst) {
+      case PUSH:
+        return uses | regs(operands.get(0)) | bit(Reg.SP);
+      case POP:
+        return uses | bit(Reg.SP);
+      case STR:
+      case STRB:
+      case CMP:
+        return uses | regs(operands, 0);
+      case SMULL:
+        return uses | regs(operands, 2);
+      default:
+        if (inst.isBranch()) {
+          return uses;
+        } else if (inst.isCall()) {
+          return uses | ARGS | bit(Reg.SP);
+        }
+        uses |= regs(operands, 1);
+        // a conditional write may leave the old value in place
+        if (inst.isConditional()) {
+          uses |= regs(operands.get(0));
+        }
+        return uses;
+    }
+  }
+
+  // everything the instruction may write, whether or not it is executed
+  static int defs(Instruction instruction) {
+    Inst inst = instruction.getInst();
+    List<Operand> operands = instruction.getOperands();
+    switch (inst) {
+      case PUSH:
+        return bit(Reg.SP);
+      case POP:
+        return regs(operands.get(0)) | bit(Reg.SP);
+      case STR:
+      case STRB:
+        return writeback(operands.get(1));
+      case CMP:
+        return FLAGS;
+      case SMULL:
+        return regs(operands.get(0)) | regs(operands.get(1));
+      case ADDS:
+      case SUBS:
+      case RSBS:
+        return regs(operands.get(0)) | FLAGS;
+      case LDR:
+      case LDRSB:
+      case LDRCS:
+      case LDREQ:
+      case LDRNE:
+      case LDRLT:
+        return regs(operands.get(0)) | writeback(operands.get(1));
+      default:
+        if (inst.isBranch()) {
+          return 0;
+        } else if (inst.isCall()) {
+          return CALLER_SAVED;
+        }
+        return regs(operands.get(0));
+    }
+  }
+
+  // what the instruction always overwrites
+  static int kills(Instruction instruction) {
+    return instruction.getInst().isConditional() ? 0 : defs(instruction);
+  }
+
+  private static int regs(List<Operand> operands, int from) {
+    int regs = 0;
+    for (int i = from; i < operands.size(); i++) {
+      regs |= regs(operands.get(i));
+    }
+    return regs;
+  }
+
+  private static int regs(Operand operand) {
+    if (operand instanceof Reg) {
+      return bit((Reg) operand);
+    } else if (operand instanceof Shift) {
+      return bit((Reg) ((Shift) operand).getReg());
+    } else if (operand instanceof Mem) {
+      return bit((Reg) ((Mem) operand).getBase());
+    } else if (operand instanceof RegList) {
+      int regs = 0;
+      for (Reg reg : ((RegList) operand).getRegs()) {
+        regs |= bit(reg);
+      }
+      return regs;
+    }
+    return 0;
+  }
+
+  private static int writeback(Operand operand) {
+    if (operand instanceof Mem && ((Mem) operand).isWriteback()) {
+      return bit((Reg) ((Mem) operand).getBase());
+    }
+    return 0;
+  }
+
+}
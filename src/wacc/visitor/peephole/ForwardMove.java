@@ -0,0 +1,95 @@
+package wacc.visitor.peephole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import wacc.visitor.code_generator.*;
+
+// A value computed into a register that is only copied elsewhere is computed
+// straight into the destination of the copy:
+//   LDR r4, [sp, #8]          LDR r0, [sp, #8]
+//   ...                 =>    ...
+//   MOV r0, r4
+// as long as nothing in between touches r0 or reads r4 and r4 is dead after
+// the copy.
+public class ForwardMove implements Rule {
+
+  // how far back the definition is looked for
+  private static final int WINDOW = 8;
+
+  @Override
+  public String getName() {
+    return "forward-move";
+  }
+
+  @Override
+  public int apply(List<Line> lines) {
+    Liveness liveness = new Liveness(lines);
+    int removed = 0;
+    for (int j = lines.size() - 1; j > 0; j--) {
+      if (!isCopy(lines.get(j)) || liveness.isLiveAfter(j,
+          (Reg) ((Instruction) lines.get(j)).getOperand(1))) {
+        continue;
+      }
+      Instruction copy = (Instruction) lines.get(j);
+      Reg dest = Effects.getDest(copy);
+      Reg src = (Reg) copy.getOperand(1);
+      int i = findDefinition(lines, j, dest, src);
+      if (i == -1) {
+        continue;
+      }
+      Instruction def = (Instruction) lines.get(i);
+      List<Operand> operands = new ArrayList<>(def.getOperands());
+      operands.set(0, dest);
+      lines.set(i, new Instruction(def.getInst(),
+          operands.toArray(new Operand[operands.size()])));
+      lines.remove(j);
+      removed++;
+      j = i;
+    }
+    return removed;
+  }
+
+  private static boolean isCopy(Line line) {
+    if (!(line instanceof Instruction)) {
+      return false;
+    }
+    Instruction move = (Instruction) line;
+    return move.getInst() == Inst.MOV && isGeneral(move.getOperand(0))
+        && isGeneral(move.getOperand(1))
+        && move.getOperand(0) != move.getOperand(1);
+  }
+
+  private static boolean isGeneral(Operand operand) {
+    return operand instanceof Reg && operand != Reg.SP && operand != Reg.LR
+        && operand != Reg.PC;
+  }
+
+  // the index of the instruction before j in the same block that defines src,
+  // or -1 if it cannot write dest instead
+  private static int findDefinition(List<Line> lines, int j, Reg dest,
+      Reg src) {
+    int both = Effects.bit(dest) | Effects.bit(src);
+    for (int i = j - 1; i >= 0 && i >= j - WINDOW; i--) {
+      if (!(lines.get(i) instanceof Instruction)) {
+        return -1;
+      }
+      Instruction instruction = (Instruction) lines.get(i);
+      if (Effects.endsBlock(instruction)) {
+        return -1;
+      }
+      if ((Effects.defs(instruction) & Effects.bit(src)) != 0) {
+        boolean simple = Effects.isSimple(instruction)
+            && !instruction.getInst().isConditional()
+            && Effects.getDest(instruction) == src;
+        return simple ? i : -1;
+      }
+      if (((Effects.uses(instruction) | Effects.defs(instruction)) & both)
+          != 0) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+}
@@ -0,0 +1,78 @@
+package wacc.visitor.peephole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import wacc.visitor.code_generator.*;
+
+// The registers and flags live after each line of a routine. Branches to
+// labels outside the routine are assumed to use everything, a return only
+// uses the result and the stack pointer and nothing is used after exiting.
+class Liveness {
+
+  private static final int EXIT = Effects.bit(Reg.R0) | Effects.bit(Reg.SP);
+
+  private final int[] liveOut;
+
+  Liveness(List<Line> lines) {
+    int n = lines.size();
+    Map<Label, Integer> labels = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      if (lines.get(i) instanceof Label) {
+        labels.put((Label) lines.get(i), i);
+      }
+    }
+    liveOut = new int[n];
+    int[] liveIn = new int[n + 1];
+    liveIn[n] = Effects.ALL;
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int i = n - 1; i >= 0; i--) {
+        Line line = lines.get(i);
+        int out = liveIn[i + 1];
+        int in;
+        if (line instanceof Instruction) {
+          Instruction instruction = (Instruction) line;
+          Inst inst = instruction.getInst();
+          if (instruction.isReturn()) {
+            out = EXIT;
+          } else if (instruction.isExit()) {
+            out = 0;
+          } else if (inst.isBranch()) {
+            Integer target = labels.get(instruction.getOperand(0));
+            int taken = target == null ? Effects.ALL : liveIn[target];
+            out = inst == Inst.B ? taken : out | taken;
+          }
+          in = Effects.uses(instruction)
+              | out & ~Effects.kills(instruction);
+        } else if (line instanceof Verbatim) {
+          out = Effects.ALL;
+          in = Effects.ALL;
+        } else {
+          in = out;
+        }
+        if (in != liveIn[i] || out != liveOut[i]) {
+          liveIn[i] = in;
+          liveOut[i] = out;
+          changed = true;
+        }
+      }
+    }
+  }
+
+  boolean isLiveAfter(int i, Reg reg) {
+    return (liveOut[i] & Effects.bit(reg)) != 0;
+  }
+
+  boolean isFlagsLiveAfter(int i) {
+    return (liveOut[i] & Effects.FLAGS) != 0;
+  }
+
+  // whether nothing the instruction at i writes is used afterwards
+  boolean isDeadAfter(int i, int defs) {
+    return (liveOut[i] & defs) == 0;
+  }
+
+}
@@ -0,0 +1,88 @@
+package wacc.visitor.peephole;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import wacc.visitor.Options;
+import wacc.visitor.code_generator.*;
+
+// Applies a set of rules to every routine until none of them matches and
+// counts the instructions each rule removed.
+public class PeepholeOptimiser implements Pass {
+
+  // the optimisation level from which all rules are enabled by default
+  public static final int LEVEL = 1;
+
+  private final List<Rule> rules;
+  private final Map<String, Integer> removed = new LinkedHashMap<>();
+
+  public PeepholeOptimiser(List<Rule> rules) {
+    this.rules = rules;
+    for (Rule rule : rules) {
+      removed.put(rule.getName(), 0);
+    }
+  }
+
+  // every rule, in the order they are applied
+  public static List<Rule> getRules() {
+    return Arrays.asList(new RedundantLoad(), new ForwardMove(),
+        new SelfMove(), new BooleanBranch(), new BranchToNext(),
+        new DeadDefinition());
+  }
+
+  // the optimiser selected by the options, null if no rule is enabled
+  public static PeepholeOptimiser of(Options options) {
+    List<String> names = options.getPeepholeRules();
+    if (names == null) {
+      return options.getLevel() >= LEVEL
+          ? new PeepholeOptimiser(getRules()) : null;
+    }
+    List<Rule> selected = new ArrayList<>();
+    for (String name : names) {
+      selected.add(getRule(name));
+    }
+    return selected.isEmpty() ? null : new PeepholeOptimiser(selected);
+  }
+
+  private static Rule getRule(String name) {
+    for (Rule rule : getRules()) {
+      if (rule.getName().equals(name)) {
+        return rule;
+      }
+    }
+    throw new IllegalArgumentException("Unknown peephole rule " + name);
+  }
+
+  @Override
+  public void apply(Routine routine) {
+    List<Line> lines = routine.getLines();
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (Rule rule : rules) {
+        int count = rule.apply(lines);
+        if (count > 0) {
+          removed.put(rule.getName(), removed.get(rule.getName()) + count);
+          changed = true;
+        }
+      }
+    }
+  }
+
+  // the number of instructions removed by each rule
+  public Map<String, Integer> getRemoved() {
+    return removed;
+  }
+
+  public void printStats(PrintStream out) {
+    for (Map.Entry<String, Integer> e : removed.entrySet()) {
+      out.println("peephole " + e.getKey() + ": " + e.getValue()
+          + " instruction(s) removed");
+    }
+  }
+
+}
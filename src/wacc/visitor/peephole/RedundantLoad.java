@@ -0,0 +1,55 @@
+package wacc.visitor.peephole;
+
+import java.util.List;
+
+import wacc.visitor.code_generator.*;
+
+// A load straight after a store to the same address reads back the stored
+// register:
+//   STR r4, [sp, #k]          STR r4, [sp, #k]
+//   LDR r5, [sp, #k]    =>    MOV r5, r4
+// and the load disappears if it is into the stored register.
+public class RedundantLoad implements Rule {
+
+  @Override
+  public String getName() {
+    return "redundant-load";
+  }
+
+  @Override
+  public int apply(List<Line> lines) {
+    int removed = 0;
+    for (int i = lines.size() - 1; i > 0; i--) {
+      if (!(lines.get(i) instanceof Instruction)
+          || !(lines.get(i - 1) instanceof Instruction)) {
+        continue;
+      }
+      Instruction load = (Instruction) lines.get(i);
+      Instruction store = (Instruction) lines.get(i - 1);
+      if (load.getInst() != Inst.LDR || store.getInst() != Inst.STR
+          || !isSameAddress(load.getOperand(1), store.getOperand(1))) {
+        continue;
+      }
+      Reg dest = Effects.getDest(load);
+      Reg stored = (Reg) store.getOperand(0);
+      if (dest == stored) {
+        lines.remove(i);
+        removed++;
+      } else {
+        lines.set(i, new Instruction(Inst.MOV, dest, stored));
+      }
+    }
+    return removed;
+  }
+
+  private static boolean isSameAddress(Operand a, Operand b) {
+    if (!(a instanceof Mem) || !(b instanceof Mem)) {
+      return false;
+    }
+    Mem m = (Mem) a;
+    Mem n = (Mem) b;
+    return !m.isWriteback() && !n.isWriteback() && m.getBase() == n.getBase()
+        && m.getOffset() == n.getOffset();
+  }
+
+}
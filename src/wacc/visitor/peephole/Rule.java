@@ -0,0 +1,17 @@
+package wacc.visitor.peephole;
+
+import java.util.List;
+
+import wacc.visitor.code_generator.Line;
+
+// A rewrite of short sequences of instructions. Rules scan the routine from
+// the end so that a rewrite never invalidates the liveness of the lines that
+// are still to be matched.
+public interface Rule {
+
+  String getName();
+
+  // rewrite every match in lines, returns the number of instructions removed
+  int apply(List<Line> lines);
+
+}
@@ -0,0 +1,31 @@
+package wacc.visitor.peephole;
+
+import java.util.List;
+
+import wacc.visitor.code_generator.*;
+
+// MOV r, r does nothing.
+public class SelfMove implements Rule {
+
+  @Override
+  public String getName() {
+    return "self-move";
+  }
+
+  @Override
+  public int apply(List<Line> lines) {
+    int removed = 0;
+    for (int i = lines.size() - 1; i >= 0; i--) {
+      if (lines.get(i) instanceof Instruction) {
+        Instruction move = (Instruction) lines.get(i);
+        if (move.getInst().name().startsWith("MOV")
+            && move.getOperand(0) == move.getOperand(1)) {
+          lines.remove(i);
+          removed++;
+        }
+      }
+    }
+    return removed;
+  }
+
+}
@@ -0,0 +1,63 @@
+package wacc.visitor.range_analysis;
+
+// The values an int may take, every int from lo to hi.
+public class Range {
+
+  public static final Range ALL =
+      new Range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+  private final int lo;
+  private final int hi;
+
+  private Range(int lo, int hi) {
+    this.lo = lo;
+    this.hi = hi;
+  }
+
+  // the ints from lo to hi, null if there are none
+  public static Range of(long lo, long hi) {
+    lo = Math.max(lo, Integer.MIN_VALUE);
+    hi = Math.min(hi, Integer.MAX_VALUE);
+    return lo <= hi ? new Range((int) lo, (int) hi) : null;
+  }
+
+  public int getLo() {
+    return lo;
+  }
+
+  public int getHi() {
+    return hi;
+  }
+
+  public Range join(Range other) {
+    return of(Math.min(lo, other.lo), Math.max(hi, other.hi));
+  }
+
+  // the values of both, null if there are none
+  public Range intersect(Range other) {
+    return of(Math.max(lo, other.lo), Math.min(hi, other.hi));
+  }
+
+  // this joined with next, a bound that moves goes straight to the end of the
+  // ints so that a loop is only analysed a few times
+  public Range widen(Range next) {
+    return of(next.lo < lo ? Integer.MIN_VALUE : lo,
+        next.hi > hi ? Integer.MAX_VALUE : hi);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof Range && ((Range) o).lo == lo && ((Range) o).hi == hi;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * lo + hi;
+  }
+
+  @Override
+  public String toString() {
+    return "[" + lo + ", " + hi + "]";
+  }
+
+}
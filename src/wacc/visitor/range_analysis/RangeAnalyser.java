@@ -0,0 +1,631 @@
+package wacc.visitor.range_analysis;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+import org.antlr.v4.runtime.tree.RuleNode;
+
+import antlr.*;
+import antlr.WACCParser.*;
+import wacc.visitor.Symbol;
+import wacc.visitor.type.ArrayType;
+import wacc.visitor.type.BaseLiter;
+import wacc.visitor.type.Utils;
+
+// Finds the values the int expressions of every function may take, by
+// following the values of its int locals through its statements. A condition
+// narrows the values of the variables it compares in the branch it guards,
+// and a loop is analysed again until what is known at its start no longer
+// changes. Besides their values, the analysis knows which arrays an int
+// variable is below the length of, from a guard such as i < len a or an
+// assignment such as i = len a - 1, so that the elements it indexes need no
+// bounds check. An expression that overflows raises an error, so its value is
+// one that fits in an int, and an expression whose exact value always fits
+// needs no overflow check. Both operands of && and || are evaluated, unless
+// the right one cannot raise an error, when skipping it makes no difference
+// but speed.
+public class RangeAnalyser extends WACCParserBaseVisitor<Range> {
+
+  private enum Op {
+    LT, LE, GT, GE, EQ, NE;
+
+    Op negate() {
+      switch (this) {
+        case LT:
+          return GE;
+        case LE:
+          return GT;
+        case GT:
+          return LE;
+        case GE:
+          return LT;
+        case EQ:
+          return NE;
+        default:
+          return EQ;
+      }
+    }
+
+    // the operator with its operands swapped
+    Op mirror() {
+      switch (this) {
+        case LT:
+          return GT;
+        case LE:
+          return GE;
+        case GT:
+          return LT;
+        case GE:
+          return LE;
+        default:
+          return this;
+      }
+    }
+  }
+
+  private final ParseTreeProperty<Symbol> symbols;
+  private final Set<FuncContext> skipped;
+  private final ParseTreeProperty<Range> ranges = new ParseTreeProperty<>();
+  // whether the first index of each array element was in bounds the last time
+  // it was analysed, which is when what is known is the least
+  private final Map<ExprContext, Boolean> inBounds = new HashMap<>();
+  // whether each +, -, * and unary - could not overflow the last time it was
+  // analysed
+  private final Map<ExprContext, Boolean> exact = new HashMap<>();
+  // whether the right operand of each && and || could not raise an error the
+  // last time it was analysed
+  private final Map<ExprContext, Boolean> shortCircuit = new HashMap<>();
+  // what is known before the statement being analysed, null if it cannot be
+  // reached
+  private State state = new State();
+  // whether the results are recorded, they are not while a condition narrows
+  // the values
+  private boolean recording = true;
+  // whether an expression analysed since this was last cleared may raise an
+  // error
+  private boolean mayRaise;
+
+  // symbols are the variables recorded by semantic analysis, the functions in
+  // skipped have not been analysed and are not analysed either
+  public RangeAnalyser(ParseTreeProperty<Symbol> symbols,
+      Set<FuncContext> skipped) {
+    this.symbols = symbols;
+    this.skipped = skipped;
+  }
+
+  // the values of the int expressions
+  public ParseTreeProperty<Range> getRanges() {
+    return ranges;
+  }
+
+  // the first indices of the array elements that are always in bounds
+  public Set<ExprContext> getInBounds() {
+    return getTrue(inBounds);
+  }
+
+  private static Set<ExprContext> getTrue(Map<ExprContext, Boolean> map) {
+    Set<ExprContext> result = new HashSet<>();
+    for (Map.Entry<ExprContext, Boolean> e : map.entrySet()) {
+      if (e.getValue()) {
+        result.add(e.getKey());
+      }
+    }
+    return result;
+  }
+
+  // the arithmetic expressions that never overflow
+  public Set<ExprContext> getNoOverflow() {
+    return getTrue(exact);
+  }
+
+  // the && and || expressions whose right operand is skipped when the left
+  // one decides the result
+  public Set<ExprContext> getShortCircuit() {
+    return getTrue(shortCircuit);
+  }
+
+  @Override
+  protected Range aggregateResult(Range aggregate, Range nextResult) {
+    return null;
+  }
+
+  @Override
+  public Range visit(ParseTree tree) {
+    return state == null ? null : super.visit(tree);
+  }
+
+  @Override
+  public Range visitChildren(RuleNode node) {
+    return state == null ? null : super.visitChildren(node);
+  }
+
+  @Override
+  public Range visitProgram(ProgramContext ctx) {
+    for (FuncContext func : ctx.func()) {
+      if (!skipped.contains(func)) {
+        state = new State();
+        visit(func.stat());
+      }
+    }
+    state = new State();
+    visit(ctx.stat());
+    return null;
+  }
+
+  // statements
+
+  @Override
+  public Range visitVarDeclStat(VarDeclStatContext ctx) {
+    Range value = visit(ctx.assignRhs());
+    define(symbols.get(ctx.ident()), ctx.assignRhs(), value);
+    return null;
+  }
+
+  @Override
+  public Range visitAssignStat(AssignStatContext ctx) {
+    if (!(ctx.assignLhs() instanceof LhsIdentContext)) {
+      return visitChildren(ctx);
+    }
+    Range value = visit(ctx.assignRhs());
+    define(symbols.get(((LhsIdentContext) ctx.assignLhs()).ident()),
+        ctx.assignRhs(), value);
+    return null;
+  }
+
+  // give symbol the value of rhs
+  private void define(Symbol symbol, AssignRhsContext rhs, Range value) {
+    if (state == null) {
+      return;
+    }
+    Set<Symbol> arrays = new HashSet<>();
+    Range length = null;
+    if (rhs instanceof RhsExprContext) {
+      arrays = getBelow(state, ((RhsExprContext) rhs).expr(), false);
+      length = getLength(((RhsExprContext) rhs).expr());
+    } else if (rhs instanceof RhsArrayLiterContext) {
+      int size = ((RhsArrayLiterContext) rhs).arrayLiter().expr().size();
+      length = Range.of(size, size);
+    }
+    // states are shared between the branches and iterations they are known
+    // in, so they are copied before they change
+    state = state.copy();
+    state.kill(symbol);
+    if (isInt(symbol)) {
+      if (value != null) {
+        state.setRange(symbol, value);
+      }
+      state.addBelow(symbol, arrays);
+    } else if (length != null) {
+      state.setLength(symbol, length);
+    }
+  }
+
+  @Override
+  public Range visitReadStat(ReadStatContext ctx) {
+    visitChildren(ctx);
+    if (state != null && ctx.assignLhs() instanceof LhsIdentContext) {
+      state = state.copy();
+      state.kill(symbols.get(((LhsIdentContext) ctx.assignLhs()).ident()));
+    }
+    return null;
+  }
+
+  @Override
+  public Range visitReturnStat(ReturnStatContext ctx) {
+    visitChildren(ctx);
+    state = null;
+    return null;
+  }
+
+  @Override
+  public Range visitExitStat(ExitStatContext ctx) {
+    visitChildren(ctx);
+    state = null;
+    return null;
+  }
+
+  @Override
+  public Range visitIfStat(IfStatContext ctx) {
+    if (state == null) {
+      return null;
+    }
+    visit(ctx.expr());
+    State before = state;
+    state = narrow(before, ctx.expr(), true);
+    visit(ctx.stat(0));
+    State then = state;
+    state = narrow(before, ctx.expr(), false);
+    visit(ctx.stat(1));
+    state = State.join(then, state);
+    return null;
+  }
+
+  @Override
+  public Range visitWhileStat(WhileStatContext ctx) {
+    if (state == null) {
+      return null;
+    }
+    State entry = state;
+    State start = entry;
+    while (true) {
+      visitLoop(ctx, start);
+      State next = start.widen(State.join(entry, state));
+      if (next.equals(start)) {
+        break;
+      }
+      start = next;
+    }
+    // the loop is analysed once more without widening, so that a bound the
+    // condition keeps is not lost
+    State next = State.join(entry, state);
+    if (!next.equals(start)) {
+      start = next;
+      visitLoop(ctx, start);
+    }
+    state = narrow(start, ctx.expr(), false);
+    return null;
+  }
+
+  // analyse the condition and the body of a loop when what is known at its
+  // start is start
+  private void visitLoop(WhileStatContext ctx, State start) {
+    state = start;
+    visit(ctx.expr());
+    state = narrow(start, ctx.expr(), true);
+    visit(ctx.stat());
+  }
+
+  // what is known once cond is found to be value, null if it cannot be
+  private State narrow(State before, ExprContext cond, boolean value) {
+    if (before == null) {
+      return null;
+    } else if (cond instanceof ParensExprContext) {
+      return narrow(before, ((ParensExprContext) cond).expr(), value);
+    } else if (cond instanceof BoolExprContext) {
+      return cond.getText().equals("true") == value ? before : null;
+    } else if (cond instanceof UnOpExprContext
+        && ((UnOpExprContext) cond).unaryOper().getText().equals("!")) {
+      return narrow(before, ((UnOpExprContext) cond).expr(), !value);
+    } else if (cond instanceof BinOpPrec5ExprContext) {
+      ExprContext left = ((BinOpPrec5ExprContext) cond).expr(0);
+      ExprContext right = ((BinOpPrec5ExprContext) cond).expr(1);
+      State both = narrow(narrow(before, left, true), right, value);
+      return value ? both : State.join(narrow(before, left, false), both);
+    } else if (cond instanceof BinOpPrec6ExprContext) {
+      ExprContext left = ((BinOpPrec6ExprContext) cond).expr(0);
+      ExprContext right = ((BinOpPrec6ExprContext) cond).expr(1);
+      State neither = narrow(narrow(before, left, false), right, value);
+      return value ? State.join(narrow(before, left, true), neither) : neither;
+    }
+
+    Op op;
+    ExprContext left;
+    ExprContext right;
+    if (cond instanceof BinOpPrec3ExprContext) {
+      BinOpPrec3ExprContext compare = (BinOpPrec3ExprContext) cond;
+      op = compare.GRT() != null ? Op.GT : compare.GRT_EQUAL() != null
+          ? Op.GE : compare.LESS() != null ? Op.LT : Op.LE;
+      left = compare.expr(0);
+      right = compare.expr(1);
+    } else if (cond instanceof BinOpPrec4ExprContext) {
+      BinOpPrec4ExprContext compare = (BinOpPrec4ExprContext) cond;
+      op = compare.EQUAL() != null ? Op.EQ : Op.NE;
+      left = compare.expr(0);
+      right = compare.expr(1);
+    } else {
+      return before;
+    }
+    if (!value) {
+      op = op.negate();
+    }
+    State after = before.copy();
+    if (!narrow(after, left, op, right)
+        || !narrow(after, right, op.mirror(), left)) {
+      return null;
+    }
+    return after;
+  }
+
+  // narrow the value of x in after so that x op e holds, returns false if it
+  // cannot hold
+  private boolean narrow(State after, ExprContext x, Op op, ExprContext e) {
+    x = strip(x);
+    if (!(x instanceof IdentExprContext)) {
+      return true;
+    }
+    Symbol symbol = symbols.get(((IdentExprContext) x).ident());
+    if (!isInt(symbol)) {
+      return true;
+    }
+    Range other = getRange(after, e);
+    if (other == null) {
+      other = Range.ALL;
+    }
+    long lo = Integer.MIN_VALUE;
+    long hi = Integer.MAX_VALUE;
+    switch (op) {
+      case LT:
+        hi = other.getHi() - 1L;
+        after.addBelow(symbol, getBelow(after, e, true));
+        break;
+      case LE:
+        hi = other.getHi();
+        after.addBelow(symbol, getBelow(after, e, false));
+        break;
+      case GT:
+        lo = other.getLo() + 1L;
+        break;
+      case GE:
+        lo = other.getLo();
+        break;
+      case EQ:
+        lo = other.getLo();
+        hi = other.getHi();
+        after.addBelow(symbol, getBelow(after, e, false));
+        break;
+      default:
+        break;
+    }
+    Range bound = Range.of(lo, hi);
+    if (bound == null) {
+      return false;
+    }
+    Range range = after.getRange(symbol).intersect(bound);
+    if (range == null) {
+      return false;
+    }
+    if (op == Op.NE && other.getLo() == other.getHi()) {
+      if (range.getLo() == other.getLo()) {
+        range = Range.of(range.getLo() + 1L, range.getHi());
+      } else if (range.getHi() == other.getHi()) {
+        range = Range.of(range.getLo(), range.getHi() - 1L);
+      }
+      if (range == null) {
+        return false;
+      }
+    }
+    after.setRange(symbol, range);
+    return true;
+  }
+
+  // the value of e when what is known is in, null if it may be any int
+  private Range getRange(State in, ExprContext e) {
+    State previousState = state;
+    boolean previousRecording = recording;
+    state = in;
+    recording = false;
+    Range range = visit(e);
+    state = previousState;
+    recording = previousRecording;
+    return range;
+  }
+
+  private static boolean isByte(ExprContext e) {
+    e = strip(e);
+    return e instanceof CharExprContext || e instanceof IdentExprContext
+        || e instanceof ArrayElemExprContext;
+  }
+
+  private static ExprContext strip(ExprContext e) {
+    while (e instanceof ParensExprContext) {
+      e = ((ParensExprContext) e).expr();
+    }
+    return e;
+  }
+
+  // the arrays e is below the length of when what is known is in, or at most
+  // the length of if orEqual
+  private Set<Symbol> getBelow(State in, ExprContext e, boolean orEqual) {
+    e = strip(e);
+    Set<Symbol> arrays = new HashSet<>();
+    if (e instanceof IdentExprContext) {
+      Symbol symbol = symbols.get(((IdentExprContext) e).ident());
+      if (isInt(symbol)) {
+        arrays.addAll(in.getBelow(symbol));
+      }
+    } else if (orEqual && getArray(e) != null) {
+      arrays.add(getArray(e));
+    } else if (e instanceof BinOpPrec2ExprContext
+        && ((BinOpPrec2ExprContext) e).MINUS() != null) {
+      // l - r is below l when r is positive
+      Range right = getRange(in, ((BinOpPrec2ExprContext) e).expr(1));
+      if (right != null && right.getLo() >= 0) {
+        arrays.addAll(getBelow(in, ((BinOpPrec2ExprContext) e).expr(0),
+            orEqual || right.getLo() >= 1));
+      }
+    }
+    return arrays;
+  }
+
+  // the array a if e is len a
+  private Symbol getArray(ExprContext e) {
+    if (e instanceof UnOpExprContext
+        && ((UnOpExprContext) e).unaryOper().getText().equals("len")
+        && strip(((UnOpExprContext) e).expr()) instanceof IdentExprContext) {
+      return symbols.get(((IdentExprContext)
+          strip(((UnOpExprContext) e).expr())).ident());
+    }
+    return null;
+  }
+
+  // the length of the array e, null if it is not known
+  private Range getLength(ExprContext e) {
+    e = strip(e);
+    if (e instanceof IdentExprContext) {
+      Symbol symbol = symbols.get(((IdentExprContext) e).ident());
+      if (symbol.getType() instanceof ArrayType) {
+        return state.getLength(symbol);
+      }
+    }
+    return null;
+  }
+
+  private static boolean isInt(Symbol symbol) {
+    return Utils.isSameBaseType(symbol.getType(), BaseLiter.INT);
+  }
+
+  // expressions
+
+  private Range record(ExprContext ctx, Range range) {
+    if (recording && range != null) {
+      ranges.put(ctx, range);
+    }
+    return range;
+  }
+
+  // record the value of an arithmetic expression, which may be any int if its
+  // operands are not known, and whether the exact value from lo to hi always
+  // fits in an int
+  private Range recordArithmetic(ExprContext ctx, long lo, long hi,
+      boolean known) {
+    boolean fits = known && lo >= Integer.MIN_VALUE && hi <= Integer.MAX_VALUE;
+    if (recording) {
+      exact.put(ctx, fits);
+    }
+    mayRaise |= !fits;
+    return known ? record(ctx, Range.of(lo, hi)) : null;
+  }
+
+  @Override
+  public Range visitRhsExpr(RhsExprContext ctx) {
+    return visit(ctx.expr());
+  }
+
+  @Override
+  public Range visitBinOpPrec5Expr(BinOpPrec5ExprContext ctx) {
+    visitOperands(ctx, ctx.expr());
+    return null;
+  }
+
+  @Override
+  public Range visitBinOpPrec6Expr(BinOpPrec6ExprContext ctx) {
+    visitOperands(ctx, ctx.expr());
+    return null;
+  }
+
+  // the right operand is evaluated even when the left one decides the
+  // result, so it is not narrowed by it, but it can be skipped if it cannot
+  // raise an error
+  private void visitOperands(ExprContext ctx, List<ExprContext> operands) {
+    visit(operands.get(0));
+    boolean previousMayRaise = mayRaise;
+    mayRaise = false;
+    visit(operands.get(1));
+    if (recording) {
+      shortCircuit.put(ctx, !mayRaise);
+    }
+    mayRaise |= previousMayRaise;
+  }
+
+  @Override
+  public Range visitIntExpr(IntExprContext ctx) {
+    int value = Integer.parseInt(ctx.getText());
+    return record(ctx, Range.of(value, value));
+  }
+
+  @Override
+  public Range visitIdentExpr(IdentExprContext ctx) {
+    Symbol symbol = symbols.get(ctx.ident());
+    return isInt(symbol) ? record(ctx, state.getRange(symbol)) : null;
+  }
+
+  @Override
+  public Range visitParensExpr(ParensExprContext ctx) {
+    return record(ctx, visit(ctx.expr()));
+  }
+
+  @Override
+  public Range visitArrayElem(ArrayElemContext ctx) {
+    Range index = visit(ctx.expr(0));
+    for (int i = 1; i < ctx.expr().size(); i++) {
+      visit(ctx.expr(i));
+    }
+    Symbol array = symbols.get(ctx.ident());
+    boolean isInBounds = index != null && index.getLo() >= 0
+        && (index.getHi() < state.getLength(array).getLo()
+            || getBelow(state, ctx.expr(0), false).contains(array));
+    if (recording) {
+      inBounds.put(ctx.expr(0), isInBounds);
+    }
+    // only the first index is known to be in bounds
+    mayRaise |= !isInBounds || ctx.expr().size() > 1;
+    return null;
+  }
+
+  @Override
+  public Range visitUnOpExpr(UnOpExprContext ctx) {
+    Range operand = visit(ctx.expr());
+    if (ctx.unaryOper().MINUS() != null) {
+      return operand == null ? recordArithmetic(ctx, 0, 0, false)
+          : recordArithmetic(ctx, -(long) operand.getHi(),
+              -(long) operand.getLo(), true);
+    }
+    switch (ctx.unaryOper().getText()) {
+      case "len":
+        Range length = getLength(ctx.expr());
+        return record(ctx,
+            length == null ? Range.of(0, Integer.MAX_VALUE) : length);
+      case "ord":
+        // a char literal, variable or array element is a sign extended byte,
+        // but chr keeps the whole int it is given
+        return record(ctx, isByte(ctx.expr())
+            ? Range.of(Byte.MIN_VALUE, Byte.MAX_VALUE) : operand);
+      case "chr":
+        return record(ctx, operand);
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public Range visitBinOpPrec1Expr(BinOpPrec1ExprContext ctx) {
+    Range left = visit(ctx.expr(0));
+    Range right = visit(ctx.expr(1));
+    if (ctx.MULT() == null) {
+      mayRaise |= right == null || right.getLo() <= 0 && right.getHi() >= 0;
+    }
+    if (left == null || right == null) {
+      return ctx.MULT() != null ? recordArithmetic(ctx, 0, 0, false) : null;
+    }
+    long a = left.getLo();
+    long b = left.getHi();
+    long c = right.getLo();
+    long d = right.getHi();
+    if (ctx.MULT() != null) {
+      return recordArithmetic(ctx, Math.min(Math.min(a * c, a * d),
+          Math.min(b * c, b * d)), Math.max(Math.max(a * c, a * d),
+          Math.max(b * c, b * d)), true);
+    }
+    // the divisor is not zero, so the quotient is no further from zero than
+    // the dividend, the remainder is nearer zero than the divisor and has the
+    // sign of the dividend
+    long dividend = Math.max(Math.abs(a), Math.abs(b));
+    if (ctx.DIV() != null) {
+      return record(ctx, c >= 0 && a >= 0 ? Range.of(0, b)
+          : Range.of(-dividend, dividend));
+    }
+    long divisor = Math.max(Math.abs(c), Math.abs(d)) - 1;
+    return record(ctx, Range.of(a >= 0 ? 0 : Math.max(a, -divisor),
+        b <= 0 ? 0 : Math.min(b, divisor)));
+  }
+
+  @Override
+  public Range visitBinOpPrec2Expr(BinOpPrec2ExprContext ctx) {
+    Range left = visit(ctx.expr(0));
+    Range right = visit(ctx.expr(1));
+    if (left == null || right == null) {
+      return recordArithmetic(ctx, 0, 0, false);
+    } else if (ctx.PLUS() != null) {
+      return recordArithmetic(ctx, (long) left.getLo() + right.getLo(),
+          (long) left.getHi() + right.getHi(), true);
+    }
+    return recordArithmetic(ctx, (long) left.getLo() - right.getHi(),
+        (long) left.getHi() - right.getLo(), true);
+  }
+
+}
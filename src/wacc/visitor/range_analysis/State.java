@@ -0,0 +1,133 @@
+package wacc.visitor.range_analysis;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import wacc.visitor.Symbol;
+
+// What is known about the locals at a point of a function: the values of its
+// int variables, the lengths of its array variables and the arrays each int
+// variable is below the length of. A variable that is not recorded may have
+// any value.
+class State {
+
+  private static final Range LENGTHS = Range.of(0, Integer.MAX_VALUE);
+
+  private final Map<Symbol, Range> ranges = new HashMap<>();
+  private final Map<Symbol, Range> lengths = new HashMap<>();
+  private final Map<Symbol, Set<Symbol>> below = new HashMap<>();
+
+  State copy() {
+    State copy = new State();
+    copy.ranges.putAll(ranges);
+    copy.lengths.putAll(lengths);
+    for (Map.Entry<Symbol, Set<Symbol>> e : below.entrySet()) {
+      copy.below.put(e.getKey(), new HashSet<>(e.getValue()));
+    }
+    return copy;
+  }
+
+  Range getRange(Symbol symbol) {
+    Range range = ranges.get(symbol);
+    return range == null ? Range.ALL : range;
+  }
+
+  void setRange(Symbol symbol, Range range) {
+    ranges.put(symbol, range);
+  }
+
+  Range getLength(Symbol array) {
+    Range length = lengths.get(array);
+    return length == null ? LENGTHS : length;
+  }
+
+  void setLength(Symbol array, Range length) {
+    lengths.put(array, length);
+  }
+
+  // the arrays symbol is below the length of
+  Set<Symbol> getBelow(Symbol symbol) {
+    Set<Symbol> arrays = below.get(symbol);
+    return arrays == null ? new HashSet<Symbol>() : new HashSet<>(arrays);
+  }
+
+  void addBelow(Symbol symbol, Set<Symbol> arrays) {
+    Set<Symbol> known = below.get(symbol);
+    if (known == null) {
+      below.put(symbol, new HashSet<>(arrays));
+    } else {
+      known.addAll(arrays);
+    }
+  }
+
+  // forget everything known about symbol, before it is given a new value
+  void kill(Symbol symbol) {
+    ranges.remove(symbol);
+    lengths.remove(symbol);
+    below.remove(symbol);
+    for (Set<Symbol> arrays : below.values()) {
+      arrays.remove(symbol);
+    }
+  }
+
+  // what is known after either a or b, null stands for a point that cannot
+  // be reached
+  static State join(State a, State b) {
+    if (a == null) {
+      return b;
+    } else if (b == null) {
+      return a;
+    }
+    State join = new State();
+    for (Map.Entry<Symbol, Range> e : a.ranges.entrySet()) {
+      if (b.ranges.containsKey(e.getKey())) {
+        join.ranges.put(e.getKey(),
+            e.getValue().join(b.ranges.get(e.getKey())));
+      }
+    }
+    for (Map.Entry<Symbol, Range> e : a.lengths.entrySet()) {
+      if (b.lengths.containsKey(e.getKey())) {
+        join.lengths.put(e.getKey(),
+            e.getValue().join(b.lengths.get(e.getKey())));
+      }
+    }
+    for (Map.Entry<Symbol, Set<Symbol>> e : a.below.entrySet()) {
+      if (b.below.containsKey(e.getKey())) {
+        Set<Symbol> arrays = new HashSet<>(e.getValue());
+        arrays.retainAll(b.below.get(e.getKey()));
+        join.below.put(e.getKey(), arrays);
+      }
+    }
+    return join;
+  }
+
+  // this joined with next, widening the ranges that grow
+  State widen(State next) {
+    State join = join(this, next);
+    for (Map.Entry<Symbol, Range> e : join.ranges.entrySet()) {
+      e.setValue(ranges.get(e.getKey()).widen(e.getValue()));
+    }
+    for (Map.Entry<Symbol, Range> e : join.lengths.entrySet()) {
+      e.setValue(lengths.get(e.getKey()).widen(e.getValue()));
+    }
+    return join;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof State)) {
+      return false;
+    }
+    State other = (State) o;
+    return ranges.equals(other.ranges) && lengths.equals(other.lengths)
+        && below.equals(other.below);
+  }
+
+  @Override
+  public int hashCode() {
+    return ranges.hashCode() ^ lengths.hashCode() ^ below.hashCode();
+  }
+
+}
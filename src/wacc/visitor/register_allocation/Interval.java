@@ -0,0 +1,67 @@
+package wacc.visitor.register_allocation;
+
+import wacc.visitor.code_generator.Reg;
+
+// The lines from the first to the last one where a virtual register is live,
+// and where it is kept: a register or, if it has been spilled, a stack slot.
+class Interval {
+
+  private final int id;
+  private int start = Integer.MAX_VALUE;
+  private int end = -1;
+  private Reg reg;
+  private boolean spilled;
+  private int slot;
+
+  Interval(int id) {
+    this.id = id;
+  }
+
+  int getId() {
+    return id;
+  }
+
+  int getStart() {
+    return start;
+  }
+
+  int getEnd() {
+    return end;
+  }
+
+  // extend the interval to cover line i
+  void cover(int i) {
+    start = Math.min(start, i);
+    end = Math.max(end, i);
+  }
+
+  boolean isEmpty() {
+    return end == -1;
+  }
+
+  Reg getReg() {
+    return reg;
+  }
+
+  void setReg(Reg reg) {
+    this.reg = reg;
+  }
+
+  int getSlot() {
+    return slot;
+  }
+
+  void spill() {
+    reg = null;
+    spilled = true;
+  }
+
+  boolean isSpilled() {
+    return spilled;
+  }
+
+  void setSlot(int slot) {
+    this.slot = slot;
+  }
+
+}
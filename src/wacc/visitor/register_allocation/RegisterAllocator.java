@@ -0,0 +1,506 @@
+package wacc.visitor.register_allocation;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import wacc.visitor.code_generator.*;
+
+// Linear scan allocation of the virtual registers of a routine. The interval
+// of every virtual register covers the lines where it is live; in order of
+// their start, intervals are given the lowest free register of POOL, and when
+// none is free the interval that ends last is spilled to a stack slot. A
+// spilled register is loaded into a SCRATCH register before every instruction
+// that reads it and stored after every instruction that writes it; an
+// instruction with more spilled operands than there are SCRATCH registers
+// borrows registers of POOL it does not use, pushing them around it. The
+// callee-saved registers the routine uses are pushed with the link register
+// and the spill slots lie between them and the locals, so accesses to the
+// parameters are moved past both. Both are removed again before a return or
+// a tail call.
+public class RegisterAllocator implements Pass {
+
+  // the registers values are kept in, preserved by the runtime helpers and
+  // the C library
+  private static final Reg[] POOL =
+      { Reg.R4, Reg.R5, Reg.R6, Reg.R7, Reg.R8, Reg.R9, Reg.R10 };
+
+  // registers for spilled values, enough for most instructions
+  private static final Reg[] SCRATCH = { Reg.R11, Reg.R12 };
+
+  private static final Comparator<Interval> BY_START =
+      Comparator.comparingInt(Interval::getStart)
+          .thenComparingInt(Interval::getId);
+
+  private static final Comparator<Interval> BY_END =
+      Comparator.comparingInt(Interval::getEnd)
+          .thenComparingInt(Interval::getId);
+
+  @Override
+  public void apply(Routine routine) {
+    List<Line> lines = routine.getLines();
+    Interval[] intervals = getIntervals(lines);
+    if (intervals.length == 0) {
+      return;
+    }
+    int slots = allocate(lines, intervals);
+    rewrite(lines, intervals, getSaved(intervals, slots), 4 * slots);
+  }
+
+  private static Interval[] getIntervals(List<Line> lines) {
+    int count = 0;
+    for (Line line : lines) {
+      if (line instanceof Instruction) {
+        Instruction instruction = (Instruction) line;
+        for (Register r : instruction.getUses()) {
+          count = Math.max(count, id(r) + 1);
+        }
+        for (Register r : instruction.getDefs()) {
+          count = Math.max(count, id(r) + 1);
+        }
+      }
+    }
+    Interval[] intervals = new Interval[count];
+    for (int v = 0; v < count; v++) {
+      intervals[v] = new Interval(v);
+    }
+    if (count == 0) {
+      return intervals;
+    }
+
+    // split the routine into basic blocks
+    int n = lines.size();
+    List<Integer> starts = new ArrayList<>();
+    Map<Label, Integer> blockOf = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      Line line = lines.get(i);
+      if (i == 0 || line instanceof Label || endsBlock(lines.get(i - 1))) {
+        starts.add(i);
+      }
+      if (line instanceof Label) {
+        blockOf.put((Label) line, starts.size() - 1);
+      }
+    }
+    int blocks = starts.size();
+    starts.add(n);
+
+    // the virtual registers read before being written and written in each
+    // block, and the blocks that may follow it
+    BitSet[] use = new BitSet[blocks];
+    BitSet[] def = new BitSet[blocks];
+    List<List<Integer>> successors = new ArrayList<>();
+    for (int b = 0; b < blocks; b++) {
+      use[b] = new BitSet(count);
+      def[b] = new BitSet(count);
+      for (int i = starts.get(b); i < starts.get(b + 1); i++) {
+        if (lines.get(i) instanceof Instruction) {
+          Instruction instruction = (Instruction) lines.get(i);
+          for (Register r : instruction.getUses()) {
+            if (r instanceof VReg && !def[b].get(id(r))) {
+              use[b].set(id(r));
+            }
+          }
+          for (Register r : instruction.getDefs()) {
+            if (r instanceof VReg) {
+              def[b].set(id(r));
+            }
+          }
+        }
+      }
+      List<Integer> next = new ArrayList<>();
+      Line last = lines.get(starts.get(b + 1) - 1);
+      boolean fallsThrough = true;
+      if (last instanceof Instruction) {
+        Instruction instruction = (Instruction) last;
+        if (instruction.isReturn()) {
+          fallsThrough = false;
+        } else if (instruction.getInst().isBranch()) {
+          Integer target = blockOf.get(instruction.getOperand(0));
+          if (target != null) {
+            next.add(target);
+          }
+          fallsThrough = instruction.getInst().isConditional();
+        }
+      }
+      if (fallsThrough && b + 1 < blocks) {
+        next.add(b + 1);
+      }
+      successors.add(next);
+    }
+
+    // the virtual registers live at the end of each block
+    BitSet[] liveIn = new BitSet[blocks];
+    BitSet[] liveOut = new BitSet[blocks];
+    for (int b = 0; b < blocks; b++) {
+      liveIn[b] = new BitSet(count);
+      liveOut[b] = new BitSet(count);
+    }
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int b = blocks - 1; b >= 0; b--) {
+        BitSet out = new BitSet(count);
+        for (int s : successors.get(b)) {
+          out.or(liveIn[s]);
+        }
+        BitSet in = (BitSet) out.clone();
+        in.andNot(def[b]);
+        in.or(use[b]);
+        if (!in.equals(liveIn[b]) || !out.equals(liveOut[b])) {
+          liveIn[b] = in;
+          liveOut[b] = out;
+          changed = true;
+        }
+      }
+    }
+
+    // every line a virtual register is live after, read or written on is
+    // covered by its interval
+    for (int b = 0; b < blocks; b++) {
+      BitSet live = (BitSet) liveOut[b].clone();
+      for (int i = starts.get(b + 1) - 1; i >= starts.get(b); i--) {
+        for (int v = live.nextSetBit(0); v >= 0; v = live.nextSetBit(v + 1)) {
+          intervals[v].cover(i);
+        }
+        if (lines.get(i) instanceof Instruction) {
+          Instruction instruction = (Instruction) lines.get(i);
+          for (Register r : instruction.getDefs()) {
+            if (r instanceof VReg) {
+              intervals[id(r)].cover(i);
+              live.clear(id(r));
+            }
+          }
+          for (Register r : instruction.getUses()) {
+            if (r instanceof VReg) {
+              intervals[id(r)].cover(i);
+              live.set(id(r));
+            }
+          }
+        }
+      }
+    }
+    return intervals;
+  }
+
+  private static boolean endsBlock(Line line) {
+    if (!(line instanceof Instruction)) {
+      return false;
+    }
+    Instruction instruction = (Instruction) line;
+    return instruction.getInst().isBranch() || instruction.isReturn();
+  }
+
+  private static int id(Register r) {
+    return r instanceof VReg ? ((VReg) r).getId() : -1;
+  }
+
+  // give every interval a register or a stack slot, returns the number of
+  // stack slots used
+  private static int allocate(List<Line> lines, Interval[] intervals) {
+    List<Interval> sorted = new ArrayList<>();
+    for (Interval interval : intervals) {
+      if (!interval.isEmpty()) {
+        sorted.add(interval);
+      }
+    }
+    sorted.sort(BY_START);
+    TreeSet<Interval> active = new TreeSet<>(BY_END);
+    TreeSet<Reg> free = new TreeSet<>();
+    for (Reg r : POOL) {
+      free.add(r);
+    }
+    List<Interval> spilled = new ArrayList<>();
+    for (Interval current : sorted) {
+      // a register read for the last time by the instruction that writes the
+      // current one can be reused for it
+      while (!active.isEmpty()
+          && active.first().getEnd() <= current.getStart()) {
+        free.add(active.pollFirst().getReg());
+      }
+      Reg hint = getHint(lines.get(current.getStart()), intervals);
+      if (hint != null && free.remove(hint)) {
+        current.setReg(hint);
+        active.add(current);
+        continue;
+      }
+      if (!free.isEmpty()) {
+        current.setReg(free.pollFirst());
+        active.add(current);
+        continue;
+      }
+      Interval last = active.last();
+      if (last.getEnd() > current.getEnd()) {
+        current.setReg(last.getReg());
+        active.remove(last);
+        last.spill();
+        spilled.add(last);
+        active.add(current);
+      } else {
+        current.spill();
+        spilled.add(current);
+      }
+    }
+    return allocateSlots(spilled);
+  }
+
+  // the register of the source of a move, so that the move can be removed if
+  // the source is not used afterwards
+  private static Reg getHint(Line line, Interval[] intervals) {
+    if (!(line instanceof Instruction)) {
+      return null;
+    }
+    Instruction instruction = (Instruction) line;
+    if (instruction.getInst() != Inst.MOV
+        || !(instruction.getOperand(1) instanceof VReg)) {
+      return null;
+    }
+    return intervals[id((VReg) instruction.getOperand(1))].getReg();
+  }
+
+  // the callee-saved registers used by the routine
+  private static Set<Reg> getSaved(Interval[] intervals, int slots) {
+    Set<Reg> saved = new TreeSet<>();
+    for (Interval interval : intervals) {
+      if (interval.getReg() != null) {
+        saved.add(interval.getReg());
+      }
+    }
+    if (slots > 0) {
+      saved.add(SCRATCH[0]);
+    }
+    return saved;
+  }
+
+  // give the spilled intervals stack slots, intervals that do not overlap
+  // share a slot, returns the number of slots
+  private static int allocateSlots(List<Interval> spilled) {
+    spilled.sort(BY_START);
+    TreeSet<Interval> active = new TreeSet<>(BY_END);
+    TreeSet<Integer> free = new TreeSet<>();
+    int slots = 0;
+    for (Interval current : spilled) {
+      while (!active.isEmpty()
+          && active.first().getEnd() < current.getStart()) {
+        free.add(active.pollFirst().getSlot());
+      }
+      current.setSlot(free.isEmpty() ? slots++ : free.pollFirst());
+      active.add(current);
+    }
+    return slots;
+  }
+
+  // replace the virtual registers by their registers, adding the code to
+  // save the callee-saved registers, to load and store the spilled ones and
+  // to reserve their stack slots
+  private static void rewrite(List<Line> lines, Interval[] intervals,
+      Set<Reg> saved, int spillSize) {
+    // the bytes between the saved link register and the locals
+    int frame = 4 * saved.size() + spillSize;
+    StackDepth depth = frame > 0 ? new StackDepth(lines) : null;
+    List<Line> result = new ArrayList<>();
+    boolean entered = false;
+    for (int i = 0; i < lines.size(); i++) {
+      if (!(lines.get(i) instanceof Instruction)) {
+        result.add(lines.get(i));
+        continue;
+      }
+      Instruction instruction = (Instruction) lines.get(i);
+      if (frame == 0) {
+        addMapped(result, map(instruction, intervals, null, 0, 0));
+        continue;
+      }
+
+      if (!entered && isEntry(instruction)) {
+        result.add(new Instruction(Inst.PUSH, withSaved(saved, Reg.LR)));
+        if (spillSize > 0) {
+          result.add(new Instruction(Inst.SUB, Reg.SP, Reg.SP,
+              new Imm(spillSize)));
+        }
+        entered = true;
+        continue;
+      }
+      if (isExit(instruction)) {
+        if (spillSize > 0) {
+          result.add(new Instruction(Inst.ADD, Reg.SP, Reg.SP,
+              new Imm(spillSize)));
+        }
+        result.add(new Instruction(Inst.POP, withSaved(saved,
+            instruction.isReturn() ? Reg.PC : Reg.LR)));
+        continue;
+      }
+      Map<Interval, Reg> scratch = new LinkedHashMap<>();
+      List<Reg> borrowed = new ArrayList<>();
+      addSpilled(instruction.getUses(), instruction, intervals, scratch,
+          borrowed);
+      addSpilled(instruction.getDefs(), instruction, intervals, scratch,
+          borrowed);
+      int before = Math.max(depth.getDepthBefore(i), 0) + 4 * borrowed.size();
+      int after = Math.max(depth.getDepthAfter(i), 0) + 4 * borrowed.size();
+      RegList pushed = new RegList(borrowed.toArray(new Reg[0]));
+      if (!borrowed.isEmpty()) {
+        result.add(new Instruction(Inst.PUSH, pushed));
+      }
+      for (Map.Entry<Interval, Reg> e : scratch.entrySet()) {
+        if (isIn(e.getKey(), instruction.getUses())) {
+          result.add(new Instruction(Inst.LDR, e.getValue(),
+              slot(e.getKey(), before, spillSize)));
+        }
+      }
+      addMapped(result, map(instruction, intervals, scratch,
+          depth.getDepthBefore(i), frame));
+      for (Map.Entry<Interval, Reg> e : scratch.entrySet()) {
+        if (isIn(e.getKey(), instruction.getDefs())) {
+          result.add(new Instruction(Inst.STR, e.getValue(),
+              slot(e.getKey(), after, spillSize)));
+        }
+      }
+      if (!borrowed.isEmpty()) {
+        result.add(new Instruction(Inst.POP, pushed));
+      }
+    }
+    lines.clear();
+    lines.addAll(result);
+  }
+
+  // the PUSH {lr} that starts the routine
+  private static boolean isEntry(Instruction instruction) {
+    return instruction.getInst() == Inst.PUSH
+        && ((RegList) instruction.getOperand(0)).getRegs().contains(Reg.LR);
+  }
+
+  // the POP {pc} that returns, or the POP {lr} before a tail call
+  private static boolean isExit(Instruction instruction) {
+    return instruction.isReturn() || instruction.getInst() == Inst.POP
+        && ((RegList) instruction.getOperand(0)).getRegs().contains(Reg.LR);
+  }
+
+  private static RegList withSaved(Set<Reg> saved, Reg last) {
+    List<Reg> regs = new ArrayList<>(saved);
+    regs.add(last);
+    return new RegList(regs.toArray(new Reg[regs.size()]));
+  }
+
+  // add instruction unless it moves a register to itself
+  private static void addMapped(List<Line> result, Instruction instruction) {
+    if (instruction.getInst() != Inst.MOV
+        || instruction.getOperand(0) != instruction.getOperand(1)) {
+      result.add(instruction);
+    }
+  }
+
+  // give the spilled registers of regs a scratch register each, once SCRATCH
+  // runs out a register of POOL that instruction does not use is borrowed
+  private static void addSpilled(List<Register> regs, Instruction instruction,
+      Interval[] intervals, Map<Interval, Reg> scratch, List<Reg> borrowed) {
+    for (Register r : regs) {
+      if (r instanceof VReg && intervals[id(r)].isSpilled()
+          && !scratch.containsKey(intervals[id(r)])) {
+        if (scratch.size() < SCRATCH.length) {
+          scratch.put(intervals[id(r)], SCRATCH[scratch.size()]);
+          continue;
+        }
+        Reg reg = getUnused(instruction, intervals, borrowed);
+        borrowed.add(reg);
+        scratch.put(intervals[id(r)], reg);
+      }
+    }
+  }
+
+  // the lowest register of POOL that is neither an operand of instruction
+  // once allocated nor already borrowed
+  private static Reg getUnused(Instruction instruction, Interval[] intervals,
+      List<Reg> borrowed) {
+    Set<Reg> used = new TreeSet<>(borrowed);
+    List<Register> operands = new ArrayList<>(instruction.getUses());
+    operands.addAll(instruction.getDefs());
+    for (Register r : operands) {
+      if (r instanceof Reg) {
+        used.add((Reg) r);
+      } else if (!intervals[id(r)].isSpilled()) {
+        used.add(intervals[id(r)].getReg());
+      }
+    }
+    for (Reg r : POOL) {
+      if (!used.contains(r)) {
+        return r;
+      }
+    }
+    throw new IllegalStateException("No register to borrow");
+  }
+
+  private static boolean isIn(Interval interval, List<Register> regs) {
+    for (Register r : regs) {
+      if (id(r) == interval.getId()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // the stack slot of interval when depth bytes have been pushed since the
+  // start of the routine, not counting the saved registers and the slots
+  private static Mem slot(Interval interval, int depth, int spillSize) {
+    return new Mem(Reg.SP, depth + spillSize - 8 - 4 * interval.getSlot());
+  }
+
+  // instruction with its registers allocated and the stack offsets of the
+  // parameters moved past the frame, depth is the depth before instruction
+  private static Instruction map(Instruction instruction,
+      Interval[] intervals, Map<Interval, Reg> scratch, int depth,
+      int frame) {
+    List<Operand> operands = instruction.getOperands();
+    Operand[] mapped = new Operand[operands.size()];
+    for (int j = 0; j < mapped.length; j++) {
+      Operand operand = operands.get(j);
+      if (operand instanceof Register) {
+        mapped[j] = map((Register) operand, intervals, scratch);
+      } else if (operand instanceof Shift) {
+        Shift shift = (Shift) operand;
+        mapped[j] = new Shift(map(shift.getReg(), intervals, scratch),
+            shift.getOp(), shift.getAmount());
+      } else if (operand instanceof Mem) {
+        Mem mem = (Mem) operand;
+        int offset = mem.getOffset();
+        if (isParam(mem.getBase(), offset, mem.isWriteback(), depth,
+            frame)) {
+          offset += frame;
+        }
+        mapped[j] = new Mem(map(mem.getBase(), intervals, scratch), offset,
+            mem.isWriteback());
+      } else {
+        mapped[j] = operand;
+      }
+    }
+    // the address of a parameter
+    if (instruction.getInst() == Inst.ADD && operands.get(1) == Reg.SP
+        && operands.get(0) != Reg.SP && operands.get(2) instanceof Imm) {
+      int offset = ((Imm) operands.get(2)).getValue();
+      if (isParam(Reg.SP, offset, false, depth, frame)) {
+        mapped[2] = new Imm(offset + frame);
+      }
+    }
+    return new Instruction(instruction.getInst(), mapped);
+  }
+
+  private static boolean isParam(Register base, int offset, boolean writeback,
+      int depth, int frame) {
+    return frame > 0 && base == Reg.SP && !writeback && depth != -1
+        && depth - offset <= 0;
+  }
+
+  private static Reg map(Register r, Interval[] intervals,
+      Map<Interval, Reg> scratch) {
+    if (!(r instanceof VReg)) {
+      return (Reg) r;
+    }
+    Interval interval = intervals[id(r)];
+    return interval.isSpilled() ? scratch.get(interval) : interval.getReg();
+  }
+
+}
@@ -0,0 +1,97 @@
+package wacc.visitor.register_allocation;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import wacc.visitor.code_generator.*;
+
+// The number of bytes pushed onto the stack since the start of a routine
+// before each of its lines, following the control flow. Lines that cannot be
+// reached have depth -1.
+class StackDepth {
+
+  private final List<Line> lines;
+  private final int[] before;
+
+  StackDepth(List<Line> lines) {
+    this.lines = lines;
+    int n = lines.size();
+    Map<Label, Integer> labels = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      if (lines.get(i) instanceof Label) {
+        labels.put((Label) lines.get(i), i);
+      }
+    }
+    before = new int[n];
+    Arrays.fill(before, -1);
+    Deque<Integer> worklist = new ArrayDeque<>();
+    before[0] = 0;
+    worklist.push(0);
+    while (!worklist.isEmpty()) {
+      int i = worklist.pop();
+      int depth = getDepthAfter(i);
+      Line line = lines.get(i);
+      int next = i + 1;
+      if (line instanceof Instruction) {
+        Instruction instruction = (Instruction) line;
+        Inst inst = instruction.getInst();
+        if (instruction.isReturn()) {
+          continue;
+        }
+        if (inst.isBranch()) {
+          Integer target = labels.get(instruction.getOperand(0));
+          if (target != null && before[target] == -1) {
+            before[target] = depth;
+            worklist.push(target);
+          }
+          if (inst == Inst.B) {
+            continue;
+          }
+        }
+      }
+      if (next < n && before[next] == -1) {
+        before[next] = depth;
+        worklist.push(next);
+      }
+    }
+  }
+
+  int getDepthBefore(int i) {
+    return before[i];
+  }
+
+  int getDepthAfter(int i) {
+    if (before[i] == -1 || !(lines.get(i) instanceof Instruction)) {
+      return before[i];
+    }
+    Instruction instruction = (Instruction) lines.get(i);
+    List<Operand> operands = instruction.getOperands();
+    switch (instruction.getInst()) {
+      case PUSH:
+        return before[i] + 4 * ((RegList) operands.get(0)).getRegs().size();
+      case POP:
+        return before[i] - 4 * ((RegList) operands.get(0)).getRegs().size();
+      case SUB:
+      case ADD:
+        if (operands.get(0) == Reg.SP && operands.get(1) == Reg.SP) {
+          int size = ((Imm) operands.get(2)).getValue();
+          return instruction.getInst() == Inst.SUB
+              ? before[i] + size : before[i] - size;
+        }
+        return before[i];
+      default:
+        for (Operand operand : operands) {
+          if (operand instanceof Mem && ((Mem) operand).isWriteback()
+              && ((Mem) operand).getBase() == Reg.SP) {
+            return before[i] - ((Mem) operand).getOffset();
+          }
+        }
+        return before[i];
+    }
+  }
+
+}
@@ -1,22 +1,56 @@
 package wacc.visitor.semantic_error;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+import org.antlr.v4.runtime.tree.RuleNode;
 
 import antlr.*;
 import antlr.WACCParser.*;
+import wacc.visitor.Symbol;
 import wacc.visitor.SymbolTable;
 import wacc.visitor.type.*;
 
 public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
 
+  private final Set<FuncContext> checked;
+  private final ParseTreeProperty<Type> types = new ParseTreeProperty<>();
+  private final ParseTreeProperty<Symbol> symbols = new ParseTreeProperty<>();
+  private final ParseTreeProperty<FuncContext> calls =
+      new ParseTreeProperty<>();
   private SymbolTable st;
 
+  // the bodies of the functions in checked are known to be correct, only
+  // their signatures are added to the symbol table
+  public SemanticVisitor(Set<FuncContext> checked) {
+    this.checked = checked;
+  }
+
+  // the type of every expression, assignment side, array and pair element
+  // checked by this visitor
+  public ParseTreeProperty<Type> getTypes() {
+    return types;
+  }
+
+  // the variable every identifier of a variable is bound to
+  public ParseTreeProperty<Symbol> getSymbols() {
+    return symbols;
+  }
+
+  // the function every call resolves to
+  public ParseTreeProperty<FuncContext> getCalls() {
+    return calls;
+  }
+
   @Override
   public Void visitProgram(ProgramContext ctx) {
     st = new SymbolTable(null);
     for (FuncContext func : ctx.func()) {
       String ident = func.ident().getText();
-      if (!Utils.isDefinable(func, st)) {
+      if (!st.add(ident, Utils.getParamTypes(func), func)) {
         String signature = ident + "(";
         if (Utils.getParamSize(func) != 0) {
           for (ParamContext c : func.paramList().param()) {
@@ -27,8 +61,6 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
         signature += ")";
         String msg = "\"" + signature + "\" is already defined in this scope";
         throw new SemanticErrorException(ctx.getStart(), msg);
-      } else {
-        st.add(ident, func);
       }
     }
     return visitChildren(ctx);
@@ -36,6 +68,9 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitFunc(FuncContext ctx) {
+    if (checked.contains(ctx)) {
+      return null;
+    }
     st = new SymbolTable(st);
     if (ctx.paramList() != null) {
       visit(ctx.paramList());
@@ -49,11 +84,11 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
   public Void visitParamList(ParamListContext ctx) {
     for (ParamContext param : ctx.param()) {
       String ident = param.ident().getText();
-      if (st.lookupT(ident) != null) {
+      if (st.lookup(ident) != null) {
         String msg = "\"" + ident + "\" is already defined in this scope";
         throw new SemanticErrorException(ctx.getParent().getStart(), msg);
       } else {
-        st.add(ident, param.type());
+        declare(param.ident(), param.type());
       }
     }
     return null;
@@ -63,14 +98,14 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
   public Void visitVarDeclStat(VarDeclStatContext ctx) {
     visit(ctx.assignRhs());
     String ident = ctx.ident().getText();
-    if (st.lookupT(ident) != null) {
+    if (st.lookup(ident) != null) {
       String msg = "\"" + ident + "\" is already defined in this scope";
       throw new SemanticErrorException(ctx.getStart(), msg);
     } else {
-      st.add(ident, ctx.type());
+      declare(ctx.ident(), ctx.type());
     }
     Type identType = Utils.getType(ctx.type());
-    Type assignRhsType = Utils.getType(ctx.assignRhs(), st);
+    Type assignRhsType = getType(ctx.assignRhs());
     if (!identType.equals(assignRhsType)) {
       String assignRhs = ctx.assignRhs().getText();
       String msg = "Incompatible type at \"" + assignRhs + "\" (expected: "
@@ -82,8 +117,8 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitAssignStat(AssignStatContext ctx) {
-    Type assignLhsType = Utils.getType(ctx.assignLhs(), st);
-    Type assignRhsType = Utils.getType(ctx.assignRhs(), st);
+    Type assignLhsType = getType(ctx.assignLhs());
+    Type assignRhsType = getType(ctx.assignRhs());
     if (!assignLhsType.equals(assignRhsType)) {
       String assignRhs = ctx.assignRhs().getText();
       String msg = "Incompatible type at \"" + assignRhs + "\" (expected: "
@@ -95,7 +130,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitReadStat(ReadStatContext ctx) {
-    Type exprType = Utils.getType(ctx.assignLhs(), st);
+    Type exprType = getType(ctx.assignLhs());
     if (!(Utils.isSameBaseType(exprType, BaseLiter.INT) || Utils
         .isSameBaseType(exprType, BaseLiter.CHAR))) {
       String msg = "Incompatible type at \"" + ctx.assignLhs().getText()
@@ -107,7 +142,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitFreeStat(FreeStatContext ctx) {
-    Type exprType = Utils.getType(ctx.expr(), st);
+    Type exprType = getType(ctx.expr());
     if (!(exprType instanceof PairType || exprType instanceof ArrayType)) {
       String msg = "Incompatible type " + exprType;
       throw new SemanticErrorException(ctx.getStart(), msg);
@@ -127,7 +162,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
       context = context.getParent();
     }
     // Check return exp type matches func type
-    Type exprType = Utils.getType(ctx.expr(), st);
+    Type exprType = getType(ctx.expr());
     Type funcType = Utils.getType(((FuncContext) context).type());
     if (!exprType.equals(funcType)) {
       String msg = "Incompatible type at " + ctx.expr().getText()
@@ -139,7 +174,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitExitStat(ExitStatContext ctx) {
-    Type exprType = Utils.getType(ctx.expr(), st);
+    Type exprType = getType(ctx.expr());
     if (!Utils.isSameBaseType(exprType, BaseLiter.INT)) {
       String expr = ctx.expr().getText();
       String msg = "Incompatible type at \"" + expr + "\" (expected: "
@@ -151,7 +186,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitIfStat(IfStatContext ctx) {
-    Type exprType = Utils.getType(ctx.expr(), st);
+    Type exprType = getType(ctx.expr());
     if (!Utils.isSameBaseType(exprType, BaseLiter.BOOL)) {
       String expr = ctx.expr().getText();
       String msg = "Incompatible type at \"" + expr + "\" (expected: "
@@ -172,7 +207,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitWhileStat(WhileStatContext ctx) {
-    Type exprType = Utils.getType(ctx.expr(), st);
+    Type exprType = getType(ctx.expr());
     if (!Utils.isSameBaseType(exprType, BaseLiter.BOOL)) {
       String expr = ctx.expr().getText();
       String msg = "Incompatible type at \"" + expr + "\" (expected: "
@@ -198,7 +233,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
   @Override
   public Void visitIdent(IdentContext ctx) {
     String ident = ctx.getText();
-    if (st.lookupAllT(ident) == null && st.lookupAllF(ident).size() == 0) {
+    if (resolve(ctx) == null && !st.isFunction(ident)) {
       String msg = "\"" + ident + "\" is not defined in this scope";
       throw new SemanticErrorException(ctx.getParent().getStart(), msg);
     }
@@ -207,25 +242,14 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
 
   @Override
   public Void visitRhsCall(RhsCallContext ctx) {
-    if (!Utils.isCallable(ctx, st)) {
-      String signature = ctx.ident().getText() + "(";
-      if (Utils.getArgSize(ctx) != 0) {
-        for (ExprContext c : ctx.argList().expr()) {
-          signature += Utils.getType(c, st).toString() + ",";
-        }
-        signature = signature.substring(0, signature.length() - 1);
-      }
-      signature += ")";
-      String msg = "\"" + signature + "\" is not defined in this scope";
-      throw new SemanticErrorException(ctx.getStart(), msg);
-    }
+    resolve(ctx);
     return visitChildren(ctx);
   }
 
   @Override
   public Void visitArrayElem(ArrayElemContext ctx) {
     for (ExprContext c : ctx.expr()) {
-      Type exprType = Utils.getType(c, st);
+      Type exprType = getType(c);
       if (!Utils.isSameBaseType(exprType, BaseLiter.INT)) {
         String msg = "Incompatible type at \"" + c.getText()
             + "\" (expected: INT, actual: " + exprType + ")";
@@ -233,7 +257,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
       }
     }
 
-    Type identType = Utils.getType(ctx.ident(), st);
+    Type identType = getType(ctx.ident());
     if (!(identType instanceof ArrayType)
         || ((ArrayType) identType).getLevel() < ctx.expr().size()) {
       String expected = "T";
@@ -255,7 +279,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
     } else {
       oper = ctx.unaryOper().MINUS().getText();
     }
-    Type exprType = Utils.getType(ctx.expr(), st);
+    Type exprType = getType(ctx.expr());
     BaseLiter expectedType = null;
     switch (oper) {
       case "!":
@@ -290,7 +314,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
   public Void visitBinOpPrec1Expr(BinOpPrec1ExprContext ctx) {
     Type[] exprs = new Type[2];
     for (int i = 0; i < exprs.length; i++) {
-      exprs[i] = Utils.getType(ctx.expr(i), st);
+      exprs[i] = getType(ctx.expr(i));
       if (!Utils.isSameBaseType(exprs[i], BaseLiter.INT)) {
         String msg = "Incompatible type at \"" + ctx.expr(i).getText()
             + "\" (expected: INT, actual: " + exprs[i] + ")";
@@ -304,7 +328,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
   public Void visitBinOpPrec2Expr(BinOpPrec2ExprContext ctx) {
     Type[] exprs = new Type[2];
     for (int i = 0; i < exprs.length; i++) {
-      exprs[i] = Utils.getType(ctx.expr(i), st);
+      exprs[i] = getType(ctx.expr(i));
       if (!Utils.isSameBaseType(exprs[i], BaseLiter.INT)) {
         String msg = "Incompatible type at \"" + ctx.expr(i).getText()
             + "\" (expected: INT, actual: " + exprs[i] + ")";
@@ -318,7 +342,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
   public Void visitBinOpPrec3Expr(BinOpPrec3ExprContext ctx) {
     Type[] exprs = new Type[2];
     for (int i = 0; i < exprs.length; i++) {
-      exprs[i] = Utils.getType(ctx.expr(i), st);
+      exprs[i] = getType(ctx.expr(i));
       if (!(Utils.isSameBaseType(exprs[i], BaseLiter.INT) || Utils
           .isSameBaseType(exprs[i], BaseLiter.CHAR))) {
         String msg = "Incompatible type at \"" + ctx.expr(i).getText()
@@ -339,7 +363,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
   public Void visitBinOpPrec4Expr(BinOpPrec4ExprContext ctx) {
     Type[] exprs = new Type[2];
     for (int i = 0; i < exprs.length; i++) {
-      exprs[i] = Utils.getType(ctx.expr(i), st);
+      exprs[i] = getType(ctx.expr(i));
     }
 
     if (!exprs[0].equals(exprs[1])) {
@@ -354,7 +378,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
   public Void visitBinOpPrec5Expr(BinOpPrec5ExprContext ctx) {
     Type[] exprs = new Type[2];
     for (int i = 0; i < exprs.length; i++) {
-      exprs[i] = Utils.getType(ctx.expr(i), st);
+      exprs[i] = getType(ctx.expr(i));
       if (!Utils.isSameBaseType(exprs[i], BaseLiter.BOOL)) {
         String msg = "Incompatible type at \"" + ctx.expr(i).getText()
             + "\" (expected: BOOL, actual: " + exprs[i] + ")";
@@ -368,7 +392,7 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
   public Void visitBinOpPrec6Expr(BinOpPrec6ExprContext ctx) {
     Type[] exprs = new Type[2];
     for (int i = 0; i < exprs.length; i++) {
-      exprs[i] = Utils.getType(ctx.expr(i), st);
+      exprs[i] = getType(ctx.expr(i));
       if (!Utils.isSameBaseType(exprs[i], BaseLiter.BOOL)) {
         String msg = "Incompatible type at \"" + ctx.expr(i).getText()
             + "\" (expected: BOOL, actual: " + exprs[i] + ")";
@@ -378,4 +402,128 @@ public class SemanticVisitor extends WACCParserBaseVisitor<Void> {
     return visitChildren(ctx);
   }
 
+  // every expression is annotated with its type once its operands are checked
+  @Override
+  public Void visitChildren(RuleNode node) {
+    super.visitChildren(node);
+    if (node instanceof ExprContext) {
+      getType((ExprContext) node);
+    }
+    return null;
+  }
+
+  // the getType methods compute the type of a node at most once and record it
+  // in types, where code generation reads it back
+
+  private Type getType(ExprContext ctx) {
+    Type type = types.get(ctx);
+    if (type == null) {
+      if (ctx instanceof ParensExprContext) {
+        type = getType(((ParensExprContext) ctx).expr());
+      } else if (ctx instanceof ArrayElemExprContext) {
+        type = getType(((ArrayElemExprContext) ctx).arrayElem());
+      } else {
+        type = Utils.getType(ctx, st);
+      }
+      types.put(ctx, type);
+    }
+    return type;
+  }
+
+  private Type getType(IdentContext ctx) {
+    Type type = types.get(ctx);
+    if (type == null) {
+      Symbol symbol = resolve(ctx);
+      type = symbol == null ? Utils.getType(ctx, st) : symbol.getType();
+      types.put(ctx, type);
+    }
+    return type;
+  }
+
+  private void declare(IdentContext ctx, TypeContext type) {
+    Symbol symbol = new Symbol(Utils.getType(type), st.getDepth());
+    st.add(ctx.getText(), symbol);
+    symbols.put(ctx, symbol);
+  }
+
+  // the function ctx calls, resolved with a single lookup of the argument types
+  private FuncContext resolve(RhsCallContext ctx) {
+    FuncContext func = calls.get(ctx);
+    if (func == null) {
+      List<Type> argTypes = new ArrayList<>();
+      if (Utils.getArgSize(ctx) != 0) {
+        for (ExprContext c : ctx.argList().expr()) {
+          argTypes.add(getType(c));
+        }
+      }
+      func = Utils.getFunc(ctx, argTypes, st);
+      calls.put(ctx, func);
+    }
+    return func;
+  }
+
+  // the variable ctx refers to, identifiers are bound the first time they are
+  // resolved, before any later declaration in the same scope can shadow them
+  private Symbol resolve(IdentContext ctx) {
+    Symbol symbol = symbols.get(ctx);
+    if (symbol == null) {
+      symbol = st.lookupAll(ctx.getText());
+      if (symbol != null) {
+        symbols.put(ctx, symbol);
+      }
+    }
+    return symbol;
+  }
+
+  private Type getType(ArrayElemContext ctx) {
+    Type type = types.get(ctx);
+    if (type == null) {
+      getType(ctx.ident());
+      type = Utils.getType(ctx, st);
+      types.put(ctx, type);
+    }
+    return type;
+  }
+
+  private Type getType(PairElemContext ctx) {
+    Type type = types.get(ctx);
+    if (type == null) {
+      type = Utils.getType(ctx, st);
+      types.put(ctx, type);
+    }
+    return type;
+  }
+
+  private Type getType(AssignLhsContext ctx) {
+    Type type = types.get(ctx);
+    if (type == null) {
+      if (ctx instanceof LhsIdentContext) {
+        type = getType(((LhsIdentContext) ctx).ident());
+      } else if (ctx instanceof LhsArrayElemContext) {
+        type = getType(((LhsArrayElemContext) ctx).arrayElem());
+      } else {
+        type = getType(((LhsPairElemContext) ctx).pairElem());
+      }
+      types.put(ctx, type);
+    }
+    return type;
+  }
+
+  private Type getType(AssignRhsContext ctx) {
+    Type type = types.get(ctx);
+    if (type == null) {
+      if (ctx instanceof RhsExprContext) {
+        type = getType(((RhsExprContext) ctx).expr());
+      } else if (ctx instanceof RhsPairElemContext) {
+        type = getType(((RhsPairElemContext) ctx).pairElem());
+      } else if (ctx instanceof RhsCallContext) {
+        type = Utils.getType(resolve((RhsCallContext) ctx).type());
+      } else {
+        type = Utils.getType(ctx, st);
+      }
+      types.put(ctx, type);
+    }
+    return type;
+  }
+
 }
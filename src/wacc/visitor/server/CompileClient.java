@@ -0,0 +1,45 @@
+package wacc.visitor.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+// Thin client for CompileServer, it only forwards the request and relays the
+// reply so it never loads ANTLR or the compiler itself.
+public class CompileClient {
+
+  public static void main(String[] args) throws IOException {
+    SocketChannel server =
+        SocketChannel.open(UnixDomainSocketAddress.of(args[0]));
+
+    String source = new File(args[1]).getAbsolutePath();
+    String directory = new File("").getAbsolutePath();
+    OutputStream out = Channels.newOutputStream(server);
+    out.write((source + "\n" + directory + "\n")
+        .getBytes(StandardCharsets.UTF_8));
+    out.flush();
+    server.shutdownOutput();
+
+    InputStream in = Channels.newInputStream(server);
+    int exitCode = 0;
+    int c;
+    while ((c = in.read()) != '\n' && c != -1) {
+      exitCode = exitCode * 10 + (c - '0');
+    }
+    byte[] buffer = new byte[4096];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      System.out.write(buffer, 0, n);
+    }
+    System.out.flush();
+    server.close();
+
+    System.exit(exitCode);
+  }
+
+}
@@ -0,0 +1,112 @@
+package wacc.visitor.server;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import wacc.visitor.MappedCharStream;
+import wacc.visitor.Options;
+import wacc.visitor.WACCCompiler;
+
+// Long-lived compiler process listening on a Unix domain socket. Keeping the
+// JVM alive means the lexer/parser ATN and DFA caches (which ANTLR shares
+// statically between recognizer instances) and the JIT-compiled visitors are
+// reused by every request instead of being rebuilt per file.
+//
+// A request is two lines: the absolute path of the source file and the
+// directory the assembly should be written to. The reply is the exit code on
+// its own line followed by the messages the compiler printed.
+//
+// usage: CompileServer [--cache directory] socket
+public class CompileServer {
+
+  private static final int UNEXPECTED_ERROR = 1;
+
+  private static Options options;
+
+  public static void main(String[] args) throws IOException {
+    options = Options.parse(args);
+    final Path socket = Paths.get(options.getFiles().get(0));
+    Files.deleteIfExists(socket);
+
+    ServerSocketChannel server =
+        ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(socket));
+    Runtime.getRuntime().addShutdownHook(new Thread() {
+      @Override
+      public void run() {
+        try {
+          Files.deleteIfExists(socket);
+        } catch (IOException e) {
+          // nothing left to clean up
+        }
+      }
+    });
+
+    ExecutorService pool =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    while (true) {
+      final SocketChannel client = server.accept();
+      pool.execute(new Runnable() {
+        @Override
+        public void run() {
+          serve(client);
+        }
+      });
+    }
+  }
+
+  private static void serve(SocketChannel client) {
+    try {
+      BufferedReader in = new BufferedReader(new InputStreamReader(
+          Channels.newInputStream(client), StandardCharsets.UTF_8));
+      String source = in.readLine();
+      String directory = in.readLine();
+
+      ByteArrayOutputStream messages = new ByteArrayOutputStream();
+      int exitCode = compile(source, directory, new PrintStream(messages,
+          true, "UTF-8"));
+
+      OutputStream out = Channels.newOutputStream(client);
+      out.write((exitCode + "\n").getBytes(StandardCharsets.UTF_8));
+      messages.writeTo(out);
+      out.flush();
+    } catch (IOException e) {
+      // the client went away, there is nobody left to report to
+    } finally {
+      try {
+        client.close();
+      } catch (IOException e) {
+        // already closed
+      }
+    }
+  }
+
+  private static int compile(String source, String directory, PrintStream out) {
+    try {
+      File outputFile =
+          new File(directory, WACCCompiler.getOutputName(source));
+      return WACCCompiler.compile(new MappedCharStream(source), outputFile, out,
+          options);
+    } catch (Exception e) {
+      out.println(e);
+      return UNEXPECTED_ERROR;
+    }
+  }
+
+}
@@ -1,19 +1,24 @@
 package wacc.visitor.syntactic_error;
 
+import java.io.PrintStream;
+
 import org.antlr.v4.runtime.*;
 
 public class SyntacticErrorListener extends BaseErrorListener {
 
-  public static final SyntacticErrorListener INSTANCE =
-      new SyntacticErrorListener();
+  private final PrintStream out;
+
+  public SyntacticErrorListener(PrintStream out) {
+    this.out = out;
+  }
 
   @Override
   public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol,
       int line, int charPositionInLine, String msg, RecognitionException e) {
     if (msg.contains("Syntactic Error")) {
-      System.out.println(msg);
+      out.println(msg);
     } else {
-      System.out.println("Syntactic Error at " + line + ":" + charPositionInLine
+      out.println("Syntactic Error at " + line + ":" + charPositionInLine
           + " -- " + msg);
     }
   }
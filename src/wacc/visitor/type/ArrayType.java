@@ -1,33 +1,85 @@
 package wacc.visitor.type;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import antlr.WACCParser.*;
 
 public class ArrayType extends Type {
 
+  private static final ConcurrentMap<TypeKey, ArrayType> INSTANCES =
+      new ConcurrentHashMap<>();
+
+  // the type of the empty array literal, equal to every array type
+  public static final ArrayType EMPTY = new ArrayType();
+
   private final Type base;
   private final int level;
 
-  public ArrayType(ArrayTypeContext ctx) {
+  private ArrayType(Type base, int level) {
+    super(base.hashCode() * 31 + level, base.hasWildcard(),
+        getName(base, level));
+    this.base = base;
+    this.level = level;
+  }
+
+  private ArrayType() {
+    super(-1, true, "T[]");
+    this.base = this;
+    this.level = 1;
+  }
+
+  private static String getName(Type base, int level) {
+    StringBuilder sb = new StringBuilder(base.toString());
+    for (int i = 0; i < level; i++) {
+      sb.append("[]");
+    }
+    return sb.toString();
+  }
+
+  // the type of level dimensional arrays of base, arrays of arrays are
+  // flattened so that e.g. string[] and char[][] are the same type
+  public static Type of(Type base, int level) {
+    if (base instanceof ArrayType && base != EMPTY) {
+      level += ((ArrayType) base).level;
+      base = ((ArrayType) base).base;
+    }
+    if (level == 0) {
+      return base;
+    }
+    TypeKey key = new TypeKey(base, null, level);
+    ArrayType type = INSTANCES.get(key);
+    if (type == null) {
+      type = new ArrayType(base, level);
+      ArrayType previous = INSTANCES.putIfAbsent(key, type);
+      if (previous != null) {
+        type = previous;
+      }
+    }
+    return type;
+  }
+
+  public static Type of(Type base) {
+    return of(base, 1);
+  }
+
+  public static Type of(ArrayTypeContext ctx) {
+    Type base;
     if (ctx.baseType() != null) {
       if (ctx.baseType().BASE_TYPE().getText().equals("string")) {
-        base = new ArrayType(new BaseType(BaseLiter.CHAR));
+        base = of(BaseType.of(BaseLiter.CHAR));
       } else {
-        base = new BaseType(ctx.baseType());
+        base = BaseType.of(ctx.baseType());
       }
     } else {
-      base = new PairType(ctx.pairType());
+      base = PairType.of(ctx.pairType());
     }
-    this.level = ctx.OPEN_SQUARE_BR().size();
-  }
-
-  public ArrayType(ArrayElemContext ctx, ArrayType identType) {
-    base = identType.base;
-    level = identType.level - ctx.expr().size();
+    return of(base, ctx.OPEN_SQUARE_BR().size());
   }
 
-  public ArrayType(Type exprType) {
-    base = exprType;
-    level = 1;
+  // the type of ctx, an element of an array of type identType
+  public static Type of(ArrayElemContext ctx, ArrayType identType) {
+    return of(identType.base, identType.level - ctx.expr().size());
   }
 
   public Type getBase() {
@@ -39,34 +91,15 @@ public class ArrayType extends Type {
   }
 
   @Override
-  public boolean equals(Object obj) {
-    if (obj instanceof ArrayType) {
-      if (((Type) obj).toString().equals(toString())) {
-        return true;
-      }
-      ArrayType that = (ArrayType) obj;
-      if (level != that.level) {
-        return false;
-      }
-      if (base == null || that.base == null) {
-        return true;
-      }
-      return base.equals(that.base);
+  boolean matches(Type that) {
+    if (!(that instanceof ArrayType)) {
+      return false;
     }
-    return ((Type) obj).toString().equals(toString());
-  }
-
-  @Override
-  public int hashCode() {
-    return base == null ? 0 : base.hashCode() + level;
-  }
-
-  @Override
-  public String toString() {
-    String brackets = "";
-    for (int i = 0; i < level; i++) {
-      brackets += "[]";
+    ArrayType other = (ArrayType) that;
+    if (this == EMPTY || other == EMPTY) {
+      return true;
     }
-    return base == null ? "T" : base.toString() + brackets;
+    return level == other.level && base.equals(other.base);
   }
+
 }
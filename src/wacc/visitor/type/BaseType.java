@@ -4,67 +4,62 @@ import antlr.WACCParser.*;
 
 public class BaseType extends Type {
 
-  private final BaseLiter baseLiter;
+  private static final BaseType[] INSTANCES;
 
-  public BaseType(BaseTypeContext ctx) {
-    baseLiter = BaseLiter.valueOf(ctx.BASE_TYPE().toString().toUpperCase());
+  static {
+    BaseLiter[] baseLiters = BaseLiter.values();
+    INSTANCES = new BaseType[baseLiters.length];
+    for (BaseLiter baseLiter : baseLiters) {
+      INSTANCES[baseLiter.ordinal()] = new BaseType(baseLiter);
+    }
+  }
+
+  private BaseType(BaseLiter baseLiter) {
+    super(baseLiter.ordinal() + 1, false, baseLiter.toString());
+  }
+
+  public static BaseType of(BaseLiter baseLiter) {
+    return INSTANCES[baseLiter.ordinal()];
   }
 
-  public BaseType(ExprContext ctx) {
+  public static BaseType of(BaseTypeContext ctx) {
+    return of(BaseLiter.valueOf(ctx.BASE_TYPE().toString().toUpperCase()));
+  }
+
+  public static BaseType of(ExprContext ctx) {
     if (ctx instanceof IntExprContext) {
-      baseLiter = BaseLiter.INT;
+      return of(BaseLiter.INT);
     } else if (ctx instanceof BoolExprContext) {
-      baseLiter = BaseLiter.BOOL;
+      return of(BaseLiter.BOOL);
     } else if (ctx instanceof CharExprContext) {
-      baseLiter = BaseLiter.CHAR;
+      return of(BaseLiter.CHAR);
     } else if (ctx instanceof UnOpExprContext) {
       UnaryOperContext unaryOper = ((UnOpExprContext) ctx).unaryOper();
       if (unaryOper.MINUS() != null) {
-        baseLiter = BaseLiter.INT;
+        return of(BaseLiter.INT);
       } else {
         String oper = unaryOper.UNARY_OPER().toString();
         if (oper.equals("!")) {
-          baseLiter = BaseLiter.BOOL;
+          return of(BaseLiter.BOOL);
         } else if (oper.equals("chr")) {
-          baseLiter = BaseLiter.CHAR;
+          return of(BaseLiter.CHAR);
         } else { // in the cases of 'len' and 'ord'
-          baseLiter = BaseLiter.INT;
+          return of(BaseLiter.INT);
         }
       }
     } else {
       if (ctx instanceof BinOpPrec1ExprContext
           || ctx instanceof BinOpPrec2ExprContext) {
-        baseLiter = BaseLiter.INT;
+        return of(BaseLiter.INT);
       } else {
-        baseLiter = BaseLiter.BOOL;
+        return of(BaseLiter.BOOL);
       }
     }
   }
 
-  BaseType(BaseLiter baseLiter) {
-    this.baseLiter = baseLiter;
-  }
-
-  boolean isSameBaseType(BaseLiter baseLiter) {
-    return this.baseLiter == baseLiter;
-  }
-
-  @Override
-  public boolean equals(Object obj) {
-    if (obj instanceof BaseType) {
-      return baseLiter.equals(((BaseType) obj).baseLiter);
-    }
-    return ((Type) obj).toString().equals(toString());
-  }
-
-  @Override
-  public int hashCode() {
-    return baseLiter.hashCode();
-  }
-
   @Override
-  public String toString() {
-    return baseLiter.toString();
+  boolean matches(Type that) {
+    return false;
   }
 
 }
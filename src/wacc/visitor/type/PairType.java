@@ -1,98 +1,97 @@
 package wacc.visitor.type;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import antlr.WACCParser.*;
 
 public class PairType extends Type {
 
-  private final Type[] base;
+  private static final ConcurrentMap<TypeKey, PairType> INSTANCES =
+      new ConcurrentHashMap<>();
 
-  public PairType(PairTypeContext ctx) {
-    base = new Type[2];
-    for (int i = 0; i < base.length; i++) {
-      PairElemTypeContext pairElemType = ctx.pairElemType(i);
-      if (pairElemType.baseType() != null) {
-        base[i] = new BaseType(pairElemType.baseType());
-      } else if (pairElemType.arrayType() != null) {
-        base[i] = new ArrayType(pairElemType.arrayType());
-      } else {
-        base[i] = null;
-      }
-    }
+  // the type of the null literal, equal to every pair type. It also stands for
+  // the erased 'pair' element type of nested pairs
+  public static final PairType NULL = new PairType();
+
+  private final Type fst;
+  private final Type snd;
+
+  private PairType(Type fst, Type snd) {
+    super(fst.hashCode() * 31 + snd.hashCode(),
+        fst.hasWildcard() && fst != NULL || snd.hasWildcard() && snd != NULL,
+        "PAIR(" + getName(fst) + "," + getName(snd) + ")");
+    this.fst = fst;
+    this.snd = snd;
   }
 
-  public PairType(PairExprContext ctx) {
-    base = null;
+  private PairType() {
+    super(0, true, "NULL");
+    this.fst = this;
+    this.snd = this;
   }
 
-  public PairType(Type[] elemTypes) {
-    base = new Type[2];
-    for (int i = 0; i < base.length; i++) {
-      if (elemTypes[i] instanceof PairType) {
-        base[i] = null;
-      } else {
-        base[i] = elemTypes[i];
+  private static String getName(Type elem) {
+    return elem == NULL ? "PAIR" : elem.toString();
+  }
+
+  // the type of pairs of fst and snd, pair elements are erased to NULL
+  public static PairType of(Type fst, Type snd) {
+    if (fst instanceof PairType) {
+      fst = NULL;
+    }
+    if (snd instanceof PairType) {
+      snd = NULL;
+    }
+    TypeKey key = new TypeKey(fst, snd, 0);
+    PairType type = INSTANCES.get(key);
+    if (type == null) {
+      type = new PairType(fst, snd);
+      PairType previous = INSTANCES.putIfAbsent(key, type);
+      if (previous != null) {
+        type = previous;
       }
     }
+    return type;
   }
 
-  private PairType() {
-    base = null;
+  public static PairType of(PairTypeContext ctx) {
+    Type[] elems = new Type[2];
+    for (int i = 0; i < elems.length; i++) {
+      PairElemTypeContext pairElemType = ctx.pairElemType(i);
+      if (pairElemType.baseType() != null) {
+        elems[i] = BaseType.of(pairElemType.baseType());
+      } else if (pairElemType.arrayType() != null) {
+        elems[i] = ArrayType.of(pairElemType.arrayType());
+      } else {
+        elems[i] = NULL;
+      }
+    }
+    return of(elems[0], elems[1]);
   }
 
   Type getElem(int i) {
-    if (base[i] == null) {
-      return new PairType();
-    } else {
-      return base[i];
-    }
+    return i == 0 ? fst : snd;
   }
 
   @Override
-  public boolean equals(Object obj) {
-    if (obj instanceof PairType) {
-      Type[] thatBase = ((PairType) obj).base;
-      if (base == null || thatBase == null) {
-        return true;
-      }
-      if (!(base == null && thatBase == null)) {
-        if (base != null && thatBase != null) {
-          for (int i = 0; i < base.length; i++) {
-            if (!(base[i] == null && thatBase[i] == null)) {
-              if (base[i] != null && thatBase[i] != null) {
-                if (!base[i].equals(thatBase[i])) {
-                  return false;
-                }
-              } else {
-                return false;
-              }
-            }
-          }
-        } else {
-          return false;
-        }
-      }
+  boolean matches(Type that) {
+    if (!(that instanceof PairType)) {
+      return false;
+    }
+    PairType other = (PairType) that;
+    if (this == NULL || other == NULL) {
       return true;
     }
-    return ((Type) obj).toString().equals(toString());
+    return elemEquals(fst, other.fst) && elemEquals(snd, other.snd);
   }
 
-  @Override
-  public int hashCode() {
-    if (base == null) {
-      return 0;
-    } else {
-      return (base[1] == null ? 0 : base[1].hashCode())
-          + (base[2] == null ? 0 : base[2].hashCode());
+  // erased pair elements only match each other
+  private static boolean elemEquals(Type elem, Type that) {
+    if (elem == NULL || that == NULL) {
+      return elem == that;
     }
+    return elem.equals(that);
   }
 
-  @Override
-  public String toString() {
-    if (base == null) {
-      return "NULL";
-    } else {
-      return "PAIR(" + (base[0] == null ? "PAIR" : base[0].toString()) + ","
-          + (base[1] == null ? "PAIR" : base[1].toString()) + ")";
-    }
-  }
 }
@@ -1,14 +1,52 @@
 package wacc.visitor.type;
 
+// Types are canonical: there is exactly one instance of every type, obtained
+// through the of methods of the subclasses, so equal types are the same object.
+// The only exceptions are the wildcards (the null pair and the empty array)
+// which are equal to every pair and array type respectively. Types containing
+// a wildcard are compared structurally, every other type by identity.
 public abstract class Type {
 
+  private final int hash;
+  private final boolean wildcard;
+  private final String name;
+
+  Type(int hash, boolean wildcard, String name) {
+    this.hash = hash;
+    this.wildcard = wildcard;
+    this.name = name;
+  }
+
+  // whether this type is or contains the null pair or the empty array
+  public boolean hasWildcard() {
+    return wildcard;
+  }
+
+  // whether this type matches that type, only called if either has a wildcard
+  abstract boolean matches(Type that);
+
   @Override
-  public abstract boolean equals(Object obj);
+  public final boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Type)) {
+      return false;
+    }
+    Type that = (Type) obj;
+    return (wildcard || that.wildcard) && matches(that);
+  }
 
+  // wildcards are equal to types with a different hash code, they must never
+  // be used as keys
   @Override
-  public abstract int hashCode();
+  public final int hashCode() {
+    return hash;
+  }
 
   @Override
-  public abstract String toString();
+  public final String toString() {
+    return name;
+  }
 
 }
@@ -0,0 +1,34 @@
+package wacc.visitor.type;
+
+// Key of a compound type in the interning tables of ArrayType and PairType.
+// The parts are canonical types compared by identity, equals would let a
+// wildcard part match a different type.
+final class TypeKey {
+
+  private final Type first;
+  private final Type second;
+  private final int level;
+
+  TypeKey(Type first, Type second, int level) {
+    this.first = first;
+    this.second = second;
+    this.level = level;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof TypeKey)) {
+      return false;
+    }
+    TypeKey that = (TypeKey) obj;
+    return first == that.first && second == that.second
+        && level == that.level;
+  }
+
+  @Override
+  public int hashCode() {
+    return (first.hashCode() * 31 + (second == null ? 0 : second.hashCode()))
+        * 31 + level;
+  }
+
+}
@@ -1,37 +1,39 @@
 package wacc.visitor.type;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import antlr.WACCParser.*;
+import wacc.visitor.Symbol;
 import wacc.visitor.SymbolTable;
 import wacc.visitor.semantic_error.SemanticErrorException;
 
 public class Utils {
 
+  private static final Type STRING = ArrayType.of(BaseType.of(BaseLiter.CHAR));
+
   public static Type getType(TypeContext ctx) {
-    Type type;
     if (ctx.baseType() != null) {
       if (ctx.baseType().BASE_TYPE().getText().equals("string")) {
-        type = new ArrayType(new BaseType(BaseLiter.CHAR));
+        return STRING;
       } else {
-        type = new BaseType(ctx.baseType());
+        return BaseType.of(ctx.baseType());
       }
     } else if (ctx.arrayType() != null) {
-      type = new ArrayType(ctx.arrayType());
+      return ArrayType.of(ctx.arrayType());
     } else {
-      type = new PairType(ctx.pairType());
+      return PairType.of(ctx.pairType());
     }
-    return type;
   }
 
   public static Type getType(IdentContext ctx, SymbolTable st) {
     String ident = ctx.getText();
-    TypeContext context = st.lookupAllT(ident);
-    if (context == null) {
+    Symbol symbol = st.lookupAll(ident);
+    if (symbol == null) {
       String msg = "Variable \"" + ident + "\" is not defined in this scope";
       throw new SemanticErrorException(ctx.getParent().getStart(), msg);
     } else {
-      return getType(context);
+      return symbol.getType();
     }
   }
 
@@ -47,12 +49,12 @@ public class Utils {
           + expected + ", actual: " + identType + ")";
       throw new SemanticErrorException(ctx.getStart(), msg);
     }
-    return new ArrayType(ctx, (ArrayType) identType);
+    return ArrayType.of(ctx, (ArrayType) identType);
   }
 
   public static Type getType(ExprContext ctx, SymbolTable st) {
     if (ctx instanceof PairExprContext) {
-      return new PairType((PairExprContext) ctx);
+      return PairType.NULL;
     } else if (ctx instanceof IdentExprContext) {
       return getType(((IdentExprContext) ctx).ident(), st);
     } else if (ctx instanceof ArrayElemExprContext) {
@@ -61,9 +63,9 @@ public class Utils {
     } else if (ctx instanceof ParensExprContext) {
       return getType(((ParensExprContext) ctx).expr(), st);
     } else if (ctx instanceof StringExprContext) {
-      return new ArrayType(new BaseType(BaseLiter.CHAR));
+      return STRING;
     } else {
-      return new BaseType(ctx);
+      return BaseType.of(ctx);
     }
   }
 
@@ -92,12 +94,10 @@ public class Utils {
       return getType(((RhsExprContext) ctx).expr(), st);
     } else if (ctx instanceof RhsArrayLiterContext) {
       ArrayLiterContext context = ((RhsArrayLiterContext) ctx).arrayLiter();
-      Type exprType;
       if (context.expr().size() == 0) {
-        exprType = null;
-      } else {
-        exprType = getType(context.expr(0), st);
+        return ArrayType.EMPTY;
       }
+      Type exprType = getType(context.expr(0), st);
       for (ExprContext c : context.expr()) {
         Type cType = getType(c, st);
         if (!exprType.equals(cType)) {
@@ -106,118 +106,62 @@ public class Utils {
           throw new SemanticErrorException(c.getStart(), msg);
         }
       }
-      return new ArrayType(exprType);
+      return ArrayType.of(exprType);
     } else if (ctx instanceof RhsNewPairContext) {
       Type[] elemTypes = new Type[2];
       for (int i = 0; i < elemTypes.length; i++) {
         elemTypes[i] = getType(((RhsNewPairContext) ctx).expr(i), st);
       }
-      return new PairType(elemTypes);
+      return PairType.of(elemTypes[0], elemTypes[1]);
     } else if (ctx instanceof RhsPairElemContext) {
       return getType(((RhsPairElemContext) ctx).pairElem(), st);
     } else {
       RhsCallContext context = (RhsCallContext) ctx;
-      if (!Utils.isCallable(context, st)) {
-        String signature = context.ident().getText() + "(";
-        if (Utils.getArgSize(context) != 0) {
-          for (ExprContext c : context.argList().expr()) {
-            signature += Utils.getType(c, st).toString() + ",";
-          }
-          signature = signature.substring(0, signature.length() - 1);
+      List<Type> argTypes = new ArrayList<>();
+      if (getArgSize(context) != 0) {
+        for (ExprContext c : context.argList().expr()) {
+          argTypes.add(getType(c, st));
         }
-        signature += ")";
-        String msg = "\"" + signature + "\" is not defined in this scope";
-        throw new SemanticErrorException(context.getStart(), msg);
       }
-      return getType(getFuncWithSameSignature(context, st).type());
+      return getType(getFunc(context, argTypes, st).type());
     }
   }
 
   public static boolean isSameBaseType(Type type, BaseLiter baseLiter) {
-    if (type instanceof BaseType) {
-      return ((BaseType) type).isSameBaseType(baseLiter);
-    } else {
-      return type.toString().equals(baseLiter.toString());
-    }
+    return type == BaseType.of(baseLiter);
   }
 
   public static boolean isStringType(Type type) {
-    return type.toString().equals("CHAR[]");
+    return type == STRING;
   }
 
-  public static boolean isDefinable(FuncContext ctx, SymbolTable st) {
-    List<FuncContext> funcs = st.lookupAllF(ctx.ident().getText());
-    if (funcs.size() == 0) {
-      return true;
-    }
-    for (FuncContext func : funcs) {
-      if (isSameSignature(ctx, func)) {
-        return false;
-      }
-    }
-    return true;
-  }
-
-  public static boolean isCallable(RhsCallContext ctx, SymbolTable st) {
-    List<FuncContext> funcs = st.lookupAllF(ctx.ident().getText());
-    if (funcs.size() == 0) {
-      return false;
-    }
-    for (FuncContext func : funcs) {
-      if (isSameSignature(ctx, func, st)) {
-        return true;
-      }
-    }
-    return false;
-  }
-
-  public static boolean isSameSignature(FuncContext ctx, FuncContext func) {
-    boolean isSame = true;
-    int paramSize = getParamSize(ctx);
-    if (paramSize == getParamSize(func)) {
-      for (int i = 0; i < paramSize; i++) {
-        Type paramType = getType(ctx.paramList().param(i).type());
-        if (!paramType.equals(getType(func.paramList().param(i).type()))) {
-          isSame = false;
-          break;
-        }
+  public static List<Type> getParamTypes(FuncContext ctx) {
+    List<Type> paramTypes = new ArrayList<>();
+    if (ctx.paramList() != null) {
+      for (ParamContext c : ctx.paramList().param()) {
+        paramTypes.add(getType(c.type()));
       }
-    } else {
-      isSame = false;
     }
-    return isSame;
+    return paramTypes;
   }
 
-  public static boolean isSameSignature(RhsCallContext ctx, FuncContext func,
+  // the function ctx calls with arguments of argTypes
+  public static FuncContext getFunc(RhsCallContext ctx, List<Type> argTypes,
       SymbolTable st) {
-    boolean isSame = true;
-    int argSize = getArgSize(ctx);
-    if (argSize == getParamSize(func)) {
-      for (int i = 0; i < argSize; i++) {
-        Type argType = getType(ctx.argList().expr(i), st);
-        if (!argType.equals(getType(func.paramList().param(i).type()))) {
-          isSame = false;
-          break;
-        }
+    FuncContext func = st.lookupAllF(ctx.ident().getText(), argTypes);
+    if (func == null) {
+      String signature = ctx.ident().getText() + "(";
+      for (Type type : argTypes) {
+        signature += type.toString() + ",";
       }
-    } else {
-      isSame = false;
-    }
-    return isSame;
-  }
-
-  public static FuncContext getFuncWithSameSignature(RhsCallContext ctx,
-      SymbolTable st) {
-    List<FuncContext> funcs = st.lookupAllF(ctx.ident().getText());
-    if (funcs.size() == 0) {
-      return null;
-    }
-    for (FuncContext func : funcs) {
-      if (isSameSignature(ctx, func, st)) {
-        return func;
+      if (!argTypes.isEmpty()) {
+        signature = signature.substring(0, signature.length() - 1);
       }
+      signature += ")";
+      String msg = "\"" + signature + "\" is not defined in this scope";
+      throw new SemanticErrorException(ctx.getStart(), msg);
     }
-    return null;
+    return func;
   }
 
   public static int getParamSize(FuncContext ctx) {